@@ -0,0 +1,73 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.model.Customer;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerMonthlyRewardRepository;
+import com.charter.rewards.repository.CustomerRepository;
+import com.charter.rewards.repository.TransactionAmount;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.repository.TransactionRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository stand-ins that serve fixed data from memory, so benchmarks measure the service code
+ * without any persistence cost.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static CustomerRepository customers(Customer customer) {
+        return proxy(CustomerRepository.class, "findById", Optional.of(customer));
+    }
+
+    static TransactionRepository transactions(List<Transaction> transactions) {
+        List<TransactionAmount> amounts = transactions.stream()
+                .map(t -> new TransactionAmount(t.getDate(), t.getAmountCents()))
+                .toList();
+        return proxy(TransactionRepository.class, "findAmountsByCustomerIdAndDateBetween", amounts);
+    }
+
+    static CustomerMonthlyRewardRepository monthlyRewards() {
+        return proxy(CustomerMonthlyRewardRepository.class, "findMonths", List.of());
+    }
+
+    /**
+     * An archive that has never archived anything, so no read consults it.
+     */
+    static TransactionArchive emptyArchive() {
+        return new TransactionArchive(new JdbcTemplate() {
+            @Override
+            public <T> T queryForObject(String sql, Class<T> requiredType) {
+                return null;
+            }
+
+            @Override
+            public <T> List<T> queryForList(String sql, Class<T> elementType) {
+                return List.of();
+            }
+        }, null);
+    }
+
+    private static <T> T proxy(Class<T> type, String method, Object result) {
+        Object instance = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, m, args) -> {
+            if (m.getName().equals(method)) {
+                return result;
+            }
+            if (m.getDeclaringClass() == Object.class) {
+                return switch (m.getName()) {
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(m.getName());
+        });
+        return type.cast(instance);
+    }
+}
@@ -0,0 +1,89 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.metrics.RewardMetrics;
+import com.charter.rewards.model.Customer;
+import com.charter.rewards.model.RewardSummary;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.rules.RewardRuleEngine;
+import com.charter.rewards.store.JpaTransactionReadStore;
+import com.charter.rewards.store.RewardPointsIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request aggregation in {@link RewardService} over transactions already in memory:
+ * point calculation, grouping by month and building the sorted response.
+ * Run with {@code -prof gc} to see the allocation rate per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RewardAggregationBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 12, 31);
+
+    @Param({"10", "100", "1000"})
+    public int transactionsPerRequest;
+
+    private RewardService rewardService;
+
+    @Setup
+    public void setUp() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setName("Benchmark");
+        customer.setPhone("9999999999");
+        customer.setCity("Chennai");
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Transaction> transactions = new ArrayList<>(transactionsPerRequest);
+        for (int i = 0; i < transactionsPerRequest; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i);
+            transaction.setCustomer(customer);
+            transaction.setDate(START.plusDays(random.nextInt(365)));
+            transaction.setAmountCents(random.nextLong(50_000));
+            transactions.add(transaction);
+        }
+
+        RewardProperties properties = new RewardProperties();
+        properties.setQueryMode(RewardQueryMode.TRANSACTIONS);
+        properties.getCache().setEnabled(false);
+        RewardRuleEngine ruleEngine = new RewardRuleEngine();
+        rewardService = new RewardService(InMemoryRepositories.customers(customer),
+                InMemoryRepositories.transactions(transactions),
+                new JpaTransactionReadStore(InMemoryRepositories.transactions(transactions),
+                        InMemoryRepositories.emptyArchive()),
+                new RewardPointsIndex(null, ruleEngine, properties, null),
+                new RewardLedgerService(InMemoryRepositories.monthlyRewards(),
+                        InMemoryRepositories.transactions(transactions), ruleEngine, event -> { }),
+                properties, new RewardSummaryCache(properties), ruleEngine,
+                new RewardMetrics(new SimpleMeterRegistry()), Runnable::run);
+    }
+
+    @Benchmark
+    public RewardSummary aggregate() throws Exception {
+        return rewardService.getRewardsForCustomerForPeriod(1L, START, END);
+    }
+}
@@ -0,0 +1,98 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.RewardLedgerUpdatedEvent;
+import com.charter.rewards.model.CityRewardTotal;
+import com.charter.rewards.model.CustomerMonthlyReward;
+import com.charter.rewards.model.CustomerMonthlyRewardId;
+import com.charter.rewards.model.Leaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard reads and point updates of {@link RewardLeaderboardService} for one month as the
+ * number of earning customers grows. Reads should stay flat; updates grow with the log of the board size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class RewardLeaderboardBenchmark {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 6);
+    private static final List<String> CITIES = List.of("Chennai", "Bangalore", "Hyderabad", "Pune", "Delhi",
+            "Mumbai", "Kolkata", "Jaipur");
+
+    @Param({"1000", "100000", "1000000"})
+    public int customers;
+
+    private RewardLeaderboardService leaderboardService;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        RewardProperties properties = new RewardProperties();
+        leaderboardService = new RewardLeaderboardService(new CityLookup(), properties);
+        random = new SplittableRandom(42);
+        List<CustomerMonthlyReward> additions = new ArrayList<>(customers);
+        for (long id = 1; id <= customers; id++) {
+            additions.add(addition(id, random.nextInt(2_000)));
+        }
+        leaderboardService.onLedgerUpdated(new RewardLedgerUpdatedEvent(additions));
+    }
+
+    @Benchmark
+    public Leaderboard leaderboard() {
+        return leaderboardService.getLeaderboard(MONTH, 10);
+    }
+
+    @Benchmark
+    public Leaderboard cityLeaderboard() {
+        return leaderboardService.getCityLeaderboard(MONTH, "Pune", 10);
+    }
+
+    @Benchmark
+    public List<CityRewardTotal> cityTotals() {
+        return leaderboardService.getCityTotals(MONTH);
+    }
+
+    @Benchmark
+    public void addPoints() {
+        leaderboardService.onLedgerUpdated(new RewardLedgerUpdatedEvent(
+                List.of(addition(random.nextLong(customers) + 1, random.nextInt(200)))));
+    }
+
+    private static CustomerMonthlyReward addition(long customerId, int points) {
+        return new CustomerMonthlyReward(new CustomerMonthlyRewardId(customerId, MONTH.atDay(1)), points, 1);
+    }
+
+    /**
+     * Answers the service's city lookups without a database; customers are spread evenly over the cities.
+     */
+    private static final class CityLookup extends JdbcTemplate {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            return (List<T>) List.of(CITIES.get((int) ((Long) args[0] % CITIES.size())));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.model.RebuildProgress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full ledger rebuilds over an embedded H2 database: the single-transaction
+ * {@link RewardLedgerService#rebuild()} against {@link RewardLedgerRebuildJob} with
+ * {@code -p parallelism=...} partitions at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RewardLedgerRebuildBenchmark {
+
+    @Param({"2000"})
+    public int customers;
+
+    @Param({"100"})
+    public int transactionsPerCustomer;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private ConfigurableApplicationContext context;
+    private RewardLedgerService ledgerService;
+    private RewardLedgerRebuildJob rebuildJob;
+
+    @Setup
+    public void setUp() {
+        context = RewardServiceBenchmark.startContext("rewards.rebuild.parallelism=" + parallelism,
+                "rewards.rebuild.partition-size=" + Math.max(1, customers / (parallelism * 4)));
+        RewardServiceBenchmark.seed(context.getBean(JdbcTemplate.class), customers, transactionsPerCustomer);
+        ledgerService = context.getBean(RewardLedgerService.class);
+        rebuildJob = context.getBean(RewardLedgerRebuildJob.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int sequentialRebuild() {
+        return ledgerService.rebuild();
+    }
+
+    @Benchmark
+    public RebuildProgress parallelRebuild() {
+        return rebuildJob.rebuild();
+    }
+}
@@ -0,0 +1,151 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.rules.CompiledRewardRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the tiered point function for amounts spread across all three tiers: the compiled rule
+ * engine on integer cents, with and without promotions, against the same tiers hard-coded over
+ * integer cents, {@code double} dollars and {@link BigDecimal} dollars.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RewardPointsBenchmark {
+
+    private static final int AMOUNTS = 1024;
+
+    private static final LocalDate PROMOTION_START = LocalDate.of(2025, 6, 1);
+
+    private static final BigDecimal FIFTY = BigDecimal.valueOf(50);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private long[] cents;
+    private double[] dollars;
+    private BigDecimal[] decimals;
+    private LocalDate[] dates;
+    private CompiledRewardRules defaults;
+    private CompiledRewardRules withPromotions;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        cents = new long[AMOUNTS];
+        dollars = new double[AMOUNTS];
+        decimals = new BigDecimal[AMOUNTS];
+        dates = new LocalDate[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            cents[i] = random.nextLong(50_000);
+            dollars[i] = cents[i] / 100.0;
+            decimals[i] = BigDecimal.valueOf(cents[i], 2);
+            dates[i] = PROMOTION_START.plusDays(random.nextInt(-60, 60));
+        }
+        defaults = CompiledRewardRules.defaults();
+        withPromotions = CompiledRewardRules.compile(
+                List.of(new CompiledRewardRules.TierDefinition(5_000, 1),
+                        new CompiledRewardRules.TierDefinition(10_000, 2)),
+                List.of(new CompiledRewardRules.PromotionDefinition("Summer", null,
+                                PROMOTION_START, PROMOTION_START.plusDays(29), 150),
+                        new CompiledRewardRules.PromotionDefinition("Chennai", "Chennai", null, null, 200)));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public int compiledRulesCents() {
+        CompiledRewardRules rules = defaults;
+        int total = 0;
+        for (long amount : cents) {
+            total += rules.points(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public int compiledRulesCentsWithPromotions() {
+        CompiledRewardRules rules = withPromotions;
+        int total = 0;
+        for (int i = 0; i < AMOUNTS; i++) {
+            total += rules.points(cents[i], dates[i], "Pune");
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public int hardCodedCents() {
+        int total = 0;
+        for (long amount : cents) {
+            total += centsPoints(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public int hardCodedDouble() {
+        int total = 0;
+        for (double amount : dollars) {
+            total += doublePoints(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public int hardCodedBigDecimal() {
+        int total = 0;
+        for (BigDecimal amount : decimals) {
+            total += bigDecimalPoints(amount);
+        }
+        return total;
+    }
+
+    private static int centsPoints(long amount) {
+        if (amount <= 5_000)
+            return 0;
+        if (amount <= 10_000)
+            return (int) ((amount - 5_000) / 100);
+        return (int) ((5_000 + (amount - 10_000) * 2) / 100);
+    }
+
+    /**
+     * The tier function as it was written before amounts were stored in cents.
+     */
+    private static int doublePoints(double amount) {
+        if (amount <= 50)
+            return 0;
+        if (amount <= 100)
+            return (int) (amount - 50);
+        return (int) ((amount - 100) * 2 + 50);
+    }
+
+    private static int bigDecimalPoints(BigDecimal amount) {
+        if (amount.compareTo(FIFTY) <= 0)
+            return 0;
+        if (amount.compareTo(HUNDRED) <= 0)
+            return amount.subtract(FIFTY).setScale(0, RoundingMode.DOWN).intValue();
+        return amount.subtract(HUNDRED).multiply(TWO).add(FIFTY).setScale(0, RoundingMode.DOWN).intValue();
+    }
+}
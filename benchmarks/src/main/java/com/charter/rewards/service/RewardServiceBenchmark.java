@@ -0,0 +1,141 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.CustomerRewardServiceApplication;
+import com.charter.rewards.model.RewardSummary;
+import com.charter.rewards.store.ColumnarTransactionStore;
+import com.charter.rewards.store.RewardPointsIndex;
+import com.charter.rewards.store.TransactionStoreType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link RewardService#getRewardsForCustomerForPeriod} against an embedded H2 database
+ * seeded with a configurable number of customers and transactions per customer spread over three years.
+ * The summary cache is disabled so every invocation reaches the database, or the in-memory
+ * columnar store when {@code readStore} is {@code COLUMNAR}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RewardServiceBenchmark {
+
+    static final long FIRST_CUSTOMER_ID = 1_000;
+    static final LocalDate HISTORY_START = LocalDate.of(2023, 1, 1);
+    static final int HISTORY_DAYS = 3 * 365;
+    private static final LocalDate QUERY_START = LocalDate.of(2025, 1, 15);
+    private static final LocalDate QUERY_END = LocalDate.of(2025, 12, 20);
+
+    @Param({"100"})
+    public int customers;
+
+    @Param({"100", "1000"})
+    public int transactionsPerCustomer;
+
+    @Param({"TRANSACTIONS", "LEDGER", "AGGREGATE", "PREFIX_SUM"})
+    public RewardQueryMode queryMode;
+
+    @Param({"JPA", "COLUMNAR"})
+    public TransactionStoreType readStore;
+
+    private ConfigurableApplicationContext context;
+    private RewardService rewardService;
+
+    @Setup
+    public void setUp() {
+        context = startContext("rewards.query-mode=" + queryMode, "rewards.read-store=" + readStore);
+        seed(context.getBean(JdbcTemplate.class), customers, transactionsPerCustomer);
+        context.getBean(RewardLedgerService.class).rebuild();
+        context.getBeanProvider(ColumnarTransactionStore.class).ifAvailable(ColumnarTransactionStore::load);
+        RewardPointsIndex pointsIndex = context.getBean(RewardPointsIndex.class);
+        if (pointsIndex.isLoaded()) {
+            pointsIndex.load();
+        }
+        rewardService = context.getBean(RewardService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RewardSummary getRewardsForCustomerForPeriod() throws Exception {
+        long customerId = FIRST_CUSTOMER_ID + ThreadLocalRandom.current().nextInt(customers);
+        return rewardService.getRewardsForCustomerForPeriod(customerId, QUERY_START, QUERY_END);
+    }
+
+    /**
+     * Starts the application without a web server on a private in-memory database.
+     */
+    static ConfigurableApplicationContext startContext(String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "rewards.cache.enabled=false",
+                "logging.level.root=WARN"));
+        all.addAll(List.of(properties));
+        // Passed as command-line arguments so that they override application.properties
+        return new SpringApplicationBuilder(CustomerRewardServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(all.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /**
+     * Inserts synthetic customers starting at {@link #FIRST_CUSTOMER_ID}, each with the given number
+     * of transactions at random dates over {@link #HISTORY_DAYS} days.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int customers, int transactionsPerCustomer) {
+        List<Object[]> customerRows = new ArrayList<>(customers);
+        for (int c = 0; c < customers; c++) {
+            customerRows.add(new Object[]{FIRST_CUSTOMER_ID + c, "Customer " + c, "9000000000", "City " + (c % 10)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customer (id, name, phone, city) VALUES (?, ?, ?, ?)", customerRows);
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int c = 0; c < customers; c++) {
+            for (int t = 0; t < transactionsPerCustomer; t++) {
+                batch.add(new Object[]{FIRST_CUSTOMER_ID + c,
+                        Date.valueOf(HISTORY_START.plusDays(random.nextInt(HISTORY_DAYS))),
+                        random.nextLong(50_000)});
+                if (batch.size() == 10_000) {
+                    insertTransactions(jdbcTemplate, batch);
+                }
+            }
+        }
+        insertTransactions(jdbcTemplate, batch);
+    }
+
+    private static void insertTransactions(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO transaction (customer_id, date, amount_cents) VALUES (?, ?, ?)", batch);
+            batch.clear();
+        }
+    }
+}
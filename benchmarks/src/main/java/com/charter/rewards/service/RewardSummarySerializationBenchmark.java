@@ -0,0 +1,98 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.model.MonthlyReward;
+import com.charter.rewards.model.RewardSummary;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing one reward summary of {@code months} months to a response buffer: by reflection (the
+ * bean serializer the summary used before {@code RewardSummarySerializer}), and with the streaming
+ * serializer as JSON, CBOR and Smile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RewardSummarySerializationBenchmark {
+
+    @Param({"3", "12"})
+    public int months;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+    private ObjectMapper reflective;
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private RewardSummary summary;
+
+    @Setup
+    public void setUp() {
+        List<MonthlyReward> monthlyRewards = new ArrayList<>(months);
+        int total = 0;
+        for (int i = 0; i < months; i++) {
+            int points = 40 + 37 * i;
+            monthlyRewards.add(new MonthlyReward(YearMonth.of(2025, 1).plusMonths(i).toString(), points));
+            total += points;
+        }
+        summary = new RewardSummary(1001L, "Benchmark Customer", "9999999999", "Chennai", total, monthlyRewards);
+        reflective = new ObjectMapper().addMixIn(RewardSummary.class, Reflective.class);
+        json = new ObjectMapper();
+        cbor = new CBORMapper();
+        smile = new SmileMapper();
+    }
+
+    @Benchmark
+    public int reflectiveJson() throws IOException {
+        return write(reflective);
+    }
+
+    @Benchmark
+    public int streamingJson() throws IOException {
+        return write(json);
+    }
+
+    @Benchmark
+    public int streamingCbor() throws IOException {
+        return write(cbor);
+    }
+
+    @Benchmark
+    public int streamingSmile() throws IOException {
+        return write(smile);
+    }
+
+    private int write(ObjectMapper mapper) throws IOException {
+        out.reset();
+        mapper.writeValue(out, summary);
+        return out.size();
+    }
+
+    /** Mix-in that puts the summary back on the reflective serializer. */
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private interface Reflective {
+    }
+}
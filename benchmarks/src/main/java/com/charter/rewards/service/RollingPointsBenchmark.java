@@ -0,0 +1,113 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.model.RewardSummary;
+import com.charter.rewards.model.RollingPoints;
+import com.charter.rewards.store.RollingPointsWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Points in the last {@code days} days" for a random customer with a year of daily history: from the
+ * rolling window's ring buffers, and as a reward summary of the same date range, the way such checks
+ * were answered before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class RollingPointsBenchmark {
+
+    @Param({"1000"})
+    public int customers;
+
+    @Param({"30", "90"})
+    public int days;
+
+    private ConfigurableApplicationContext context;
+    private RewardService rewardService;
+    private RollingPointsWindow window;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        context = RewardServiceBenchmark.startContext("rewards.query-mode=transactions");
+        today = LocalDate.now();
+        seed(context.getBean(JdbcTemplate.class));
+        window = context.getBean(RollingPointsWindow.class);
+        window.load();
+        rewardService = context.getBean(RewardService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RollingPoints rollingWindow() {
+        return window.points(randomCustomer(), days);
+    }
+
+    @Benchmark
+    public RewardSummary rangeSummary() throws Exception {
+        return rewardService.getRewardsForCustomerForPeriod(randomCustomer(), today.minusDays(days - 1L), today);
+    }
+
+    private long randomCustomer() {
+        return RewardServiceBenchmark.FIRST_CUSTOMER_ID + ThreadLocalRandom.current().nextInt(customers);
+    }
+
+    /**
+     * Inserts the customers with one transaction on every day of the year up to today.
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> customerRows = new ArrayList<>(customers);
+        for (int c = 0; c < customers; c++) {
+            customerRows.add(new Object[]{RewardServiceBenchmark.FIRST_CUSTOMER_ID + c, "Customer " + c,
+                    "9000000000", "City " + (c % 10)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customer (id, name, phone, city) VALUES (?, ?, ?, ?)", customerRows);
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (LocalDate date = today.minusDays(364); !date.isAfter(today); date = date.plusDays(1)) {
+            for (int c = 0; c < customers; c++) {
+                batch.add(new Object[]{RewardServiceBenchmark.FIRST_CUSTOMER_ID + c, Date.valueOf(date),
+                        random.nextLong(50_000)});
+                if (batch.size() == 10_000) {
+                    insert(jdbcTemplate, batch);
+                }
+            }
+        }
+        insert(jdbcTemplate, batch);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO transaction (customer_id, date, amount_cents) VALUES (?, ?, ?)", batch);
+            batch.clear();
+        }
+    }
+}
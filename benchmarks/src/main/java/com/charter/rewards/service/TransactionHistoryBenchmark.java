@@ -0,0 +1,133 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.model.RewardSummary;
+import com.charter.rewards.repository.TransactionArchive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reward summaries of the last three months and of a month a year back, for a random customer, as
+ * the stored history grows from one to ten years, with every month older than a year either left in
+ * the live {@code transaction} table or moved to {@code transaction_archive}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class TransactionHistoryBenchmark {
+
+    private static final YearMonth LAST_MONTH = YearMonth.of(2025, 12);
+    private static final LocalDate RECENT_START = LAST_MONTH.minusMonths(2).atDay(1);
+    private static final LocalDate RECENT_END = LAST_MONTH.atEndOfMonth();
+    private static final YearMonth YEAR_AGO = LAST_MONTH.minusMonths(12);
+
+    @Param({"1000"})
+    public int customers;
+
+    @Param({"4"})
+    public int transactionsPerMonth;
+
+    @Param({"1", "10"})
+    public int years;
+
+    @Param({"false", "true"})
+    public boolean archived;
+
+    private ConfigurableApplicationContext context;
+    private RewardService rewardService;
+
+    @Setup
+    public void setUp() {
+        context = RewardServiceBenchmark.startContext("rewards.query-mode=transactions");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate);
+        if (archived) {
+            context.getBean(TransactionArchive.class).archiveBefore(LAST_MONTH.minusMonths(11));
+        }
+        jdbcTemplate.execute("ANALYZE");
+        rewardService = context.getBean(RewardService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RewardSummary recentQuarter() throws Exception {
+        return rewardService.getRewardsForCustomerForPeriod(randomCustomer(), RECENT_START, RECENT_END);
+    }
+
+    /**
+     * The oldest month still live; with one year of history it is also the first month stored.
+     */
+    @Benchmark
+    public RewardSummary monthAYearBack() throws Exception {
+        return rewardService.getRewardsForCustomerForPeriod(randomCustomer(), YEAR_AGO.plusMonths(1).atDay(1),
+                YEAR_AGO.plusMonths(1).atEndOfMonth());
+    }
+
+    private long randomCustomer() {
+        return RewardServiceBenchmark.FIRST_CUSTOMER_ID + ThreadLocalRandom.current().nextInt(customers);
+    }
+
+    /**
+     * Inserts the customers with {@link #transactionsPerMonth} transactions in every month of the last
+     * {@link #years} years up to {@link #LAST_MONTH}.
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> customerRows = new ArrayList<>(customers);
+        for (int c = 0; c < customers; c++) {
+            customerRows.add(new Object[]{RewardServiceBenchmark.FIRST_CUSTOMER_ID + c, "Customer " + c,
+                    "9000000000", "City " + (c % 10)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customer (id, name, phone, city) VALUES (?, ?, ?, ?)", customerRows);
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (YearMonth month = LAST_MONTH.minusYears(years).plusMonths(1); !month.isAfter(LAST_MONTH);
+             month = month.plusMonths(1)) {
+            for (int c = 0; c < customers; c++) {
+                for (int t = 0; t < transactionsPerMonth; t++) {
+                    batch.add(new Object[]{RewardServiceBenchmark.FIRST_CUSTOMER_ID + c,
+                            Date.valueOf(month.atDay(1 + random.nextInt(month.lengthOfMonth()))),
+                            random.nextLong(50_000)});
+                    if (batch.size() == 10_000) {
+                        insert(jdbcTemplate, batch);
+                    }
+                }
+            }
+        }
+        insert(jdbcTemplate, batch);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO transaction (customer_id, date, amount_cents) VALUES (?, ?, ?)", batch);
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.MonthlyPointsView;
+import com.charter.rewards.repository.TransactionAmount;
+import com.charter.rewards.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a one-month range lookup, at a random month, for a single customer as that customer's history grows,
+ * with and without the composite {@code (customer_id, date, amount)} index, reading entities, a
+ * {@code (date, amount)} projection or database-side monthly totals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class TransactionRangeQueryBenchmark {
+
+    private static final Long CUSTOMER_ID = RewardServiceBenchmark.FIRST_CUSTOMER_ID;
+    private static final int QUERY_MONTHS = RewardServiceBenchmark.HISTORY_DAYS / 31;
+
+    @Param({"100", "10000", "1000000"})
+    public int historySize;
+
+    @Param({"true", "false"})
+    public boolean compositeIndex;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+
+    @Setup
+    public void setUp() {
+        context = RewardServiceBenchmark.startContext();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        if (!compositeIndex) {
+            jdbcTemplate.execute("DROP INDEX idx_transaction_customer_date");
+        }
+        RewardServiceBenchmark.seed(jdbcTemplate, 1, historySize);
+        jdbcTemplate.execute("ANALYZE");
+        transactionRepository = context.getBean(TransactionRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Transaction> findByCustomerIdAndDateBetween() {
+        LocalDate start = randomMonth();
+        return transactionRepository.findByCustomerIdAndDateBetween(CUSTOMER_ID, start, start.plusMonths(1));
+    }
+
+    @Benchmark
+    public List<TransactionAmount> findAmountsByCustomerIdAndDateBetween() {
+        LocalDate start = randomMonth();
+        return transactionRepository.findAmountsByCustomerIdAndDateBetween(CUSTOMER_ID, start, start.plusMonths(1));
+    }
+
+    @Benchmark
+    public List<MonthlyPointsView> sumMonthlyPoints() {
+        LocalDate start = randomMonth();
+        return transactionRepository.sumMonthlyPoints(CUSTOMER_ID, start, start.plusMonths(1));
+    }
+
+    /**
+     * Picks a different month of the history per call so the database cannot reuse a cached result.
+     */
+    private static LocalDate randomMonth() {
+        return RewardServiceBenchmark.HISTORY_START.plusMonths(ThreadLocalRandom.current().nextInt(QUERY_MONTHS));
+    }
+}
@@ -2,10 +2,23 @@ package com.charter.rewards;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Clock;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class CustomerRewardServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(CustomerRewardServiceApplication.class, args);
     }
+
+    /**
+     * Source of the current date for the rolling point windows.
+     */
+    @Bean
+    Clock clock() {
+        return Clock.systemDefaultZone();
+    }
 }
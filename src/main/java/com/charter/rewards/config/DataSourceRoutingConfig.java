@@ -0,0 +1,67 @@
+package com.charter.rewards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Connection pools of the service. Writes, and everything outside a read-only transaction, use the
+ * {@code primary} pool configured by {@code spring.datasource.*}. With {@code rewards.replica.enabled}
+ * set, transactions marked read-only (the reward queries and the export) take their connection from
+ * a separate {@code replica} pool instead, so reads queueing for connections cannot starve writes and
+ * the other way round.
+ * <p>
+ * The {@link DataSource} the rest of the application sees is a {@link LazyConnectionDataSourceProxy}:
+ * it fetches a pooled connection on the first statement rather than when a transaction begins, by
+ * which time the transaction's read-only flag is known. Transactions that never reach the database,
+ * such as summaries served from the cache, take no connection at all. Both pools publish the
+ * {@code hikaricp.connections.*} metrics tagged with their pool name; {@code pending} and
+ * {@code acquire} show when a pool is saturated.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "rewards.replica", name = "enabled", havingValue = "true")
+    public HikariDataSource replicaDataSource(RewardProperties properties) {
+        RewardProperties.Replica replica = properties.getReplica();
+        if (replica.getUrl() == null) {
+            throw new IllegalStateException("rewards.replica.url is required when rewards.replica.enabled is set");
+        }
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("replica");
+        pool.setJdbcUrl(replica.getUrl());
+        pool.setUsername(replica.getUsername());
+        pool.setPassword(replica.getPassword());
+        pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+        pool.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        replica.ifAvailable(dataSource::setReadOnlyDataSource);
+        return dataSource;
+    }
+}
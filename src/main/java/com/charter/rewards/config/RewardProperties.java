@@ -0,0 +1,488 @@
+package com.charter.rewards.config;
+
+import com.charter.rewards.service.LedgerWriteMode;
+import com.charter.rewards.service.RewardQueryMode;
+import com.charter.rewards.store.TransactionStoreType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Tunables of the reward service, bound from {@code rewards.*} properties.
+ */
+@ConfigurationProperties(prefix = "rewards")
+public class RewardProperties {
+
+    private RewardQueryMode queryMode = RewardQueryMode.TRANSACTIONS;
+    /** Backend of the transaction reads; the matching store bean is selected from this property. */
+    private TransactionStoreType readStore = TransactionStoreType.JPA;
+    /** Longest period, in calendar months, a summary or export request may cover. */
+    private int maxPeriodMonths = 120;
+    private final Batch batch = new Batch();
+    private final Cache cache = new Cache();
+    private final Ingestion ingestion = new Ingestion();
+    private final Execution execution = new Execution();
+    private final Ledger ledger = new Ledger();
+    private final Leaderboard leaderboard = new Leaderboard();
+    private final Rebuild rebuild = new Rebuild();
+    private final Replica replica = new Replica();
+    private final Warmup warmup = new Warmup();
+    private final Rolling rolling = new Rolling();
+    private final Export export = new Export();
+
+    public RewardQueryMode getQueryMode() {
+        return queryMode;
+    }
+
+    public void setQueryMode(RewardQueryMode queryMode) {
+        this.queryMode = queryMode;
+    }
+
+    public TransactionStoreType getReadStore() {
+        return readStore;
+    }
+
+    public void setReadStore(TransactionStoreType readStore) {
+        this.readStore = readStore;
+    }
+
+    public int getMaxPeriodMonths() {
+        return maxPeriodMonths;
+    }
+
+    public void setMaxPeriodMonths(int maxPeriodMonths) {
+        this.maxPeriodMonths = maxPeriodMonths;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Ingestion getIngestion() {
+        return ingestion;
+    }
+
+    public Execution getExecution() {
+        return execution;
+    }
+
+    public Ledger getLedger() {
+        return ledger;
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    public Rebuild getRebuild() {
+        return rebuild;
+    }
+
+    public Replica getReplica() {
+        return replica;
+    }
+
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    public Rolling getRolling() {
+        return rolling;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public static class Batch {
+
+        /** Largest number of customer IDs accepted by one batch request. */
+        private int maxSize = 1000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class Cache {
+
+        private boolean enabled = true;
+        /** Largest number of reward summaries kept in memory. */
+        private long maxSize = 10_000;
+        /** How long a summary may be served after it was computed. */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class Ingestion {
+
+        /** Rows persisted and flushed together; also the chunk size of the CSV loader. */
+        private int batchSize = 1000;
+        /** Largest number of transactions accepted by one JSON ingestion request. */
+        private int maxRequestSize = 10_000;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxRequestSize() {
+            return maxRequestSize;
+        }
+
+        public void setMaxRequestSize(int maxRequestSize) {
+            this.maxRequestSize = maxRequestSize;
+        }
+    }
+
+    public static class Execution {
+
+        /**
+         * Look up the customer on the application task executor (virtual threads when
+         * {@code spring.threads.virtual.enabled=true}) while the request thread reads the
+         * transactions, instead of running the two queries one after the other.
+         */
+        private boolean concurrentLookups = false;
+
+        public boolean isConcurrentLookups() {
+            return concurrentLookups;
+        }
+
+        public void setConcurrentLookups(boolean concurrentLookups) {
+            this.concurrentLookups = concurrentLookups;
+        }
+    }
+
+    public static class Ledger {
+
+        /** Whether ledger rows are updated by the writing transaction or by the write-behind pipeline. */
+        private LedgerWriteMode writeMode = LedgerWriteMode.SYNC;
+        private final Async async = new Async();
+
+        public LedgerWriteMode getWriteMode() {
+            return writeMode;
+        }
+
+        public void setWriteMode(LedgerWriteMode writeMode) {
+            this.writeMode = writeMode;
+        }
+
+        public Async getAsync() {
+            return async;
+        }
+
+        public static class Async {
+
+            /** Directory of the per-partition ledger logs. */
+            private Path logDir = Path.of("ledger-log");
+            /** Consumer threads, and partitions of the customers between them. */
+            private int consumers = 2;
+            /** Transactions each partition queue holds before writers have to wait. */
+            private int queueCapacity = 10_000;
+            /** Largest number of transactions applied in one database transaction. */
+            private int batchSize = 500;
+            /** Longest time a consumer waits for a batch to fill. */
+            private Duration flushInterval = Duration.ofMillis(200);
+            /** Longest time the log appender waits for queue space before its partition catches up from the log. */
+            private Duration enqueueTimeout = Duration.ofSeconds(5);
+            /** Entries a partition log holds before it is emptied, once every one of them is applied. */
+            private int compactSize = 100_000;
+
+            public Path getLogDir() {
+                return logDir;
+            }
+
+            public void setLogDir(Path logDir) {
+                this.logDir = logDir;
+            }
+
+            public int getConsumers() {
+                return consumers;
+            }
+
+            public void setConsumers(int consumers) {
+                this.consumers = consumers;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getFlushInterval() {
+                return flushInterval;
+            }
+
+            public void setFlushInterval(Duration flushInterval) {
+                this.flushInterval = flushInterval;
+            }
+
+            public Duration getEnqueueTimeout() {
+                return enqueueTimeout;
+            }
+
+            public void setEnqueueTimeout(Duration enqueueTimeout) {
+                this.enqueueTimeout = enqueueTimeout;
+            }
+
+            public int getCompactSize() {
+                return compactSize;
+            }
+
+            public void setCompactSize(int compactSize) {
+                this.compactSize = compactSize;
+            }
+        }
+    }
+
+    public static class Leaderboard {
+
+        /** Customers ranked on each monthly and city board; also the largest limit a request may ask for. */
+        private int size = 100;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+    }
+
+    public static class Rebuild {
+
+        /** Partitions rebuilt at the same time; each holds a database connection while it runs. */
+        private int parallelism = 4;
+        /** Customer IDs per partition; a partition is rebuilt and checkpointed in one transaction. */
+        private int partitionSize = 10_000;
+        /** Ledger rows per batched insert. */
+        private int batchSize = 1000;
+        /** Transaction rows fetched per round trip by each partition's cursor. */
+        private int fetchSize = 1000;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getPartitionSize() {
+            return partitionSize;
+        }
+
+        public void setPartitionSize(int partitionSize) {
+            this.partitionSize = partitionSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class Replica {
+
+        /** Whether read-only transactions use a separate connection pool to the replica. */
+        private boolean enabled = false;
+        /** JDBC URL of the replica; the primary database itself is a replica with no lag. */
+        private String url;
+        private String username;
+        private String password;
+        /** Largest number of connections to the replica, in use or idle. */
+        private int maximumPoolSize = 10;
+        /** Longest time a read waits for a replica connection before failing. */
+        private Duration connectionTimeout = Duration.ofSeconds(30);
+        /**
+         * Longest time the replica takes to show a commit of the primary. Summaries of customers
+         * changed more recently are not cached, as they may have been read before the change arrived.
+         */
+        private Duration maxLag = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public Duration getMaxLag() {
+            return maxLag;
+        }
+
+        public void setMaxLag(Duration maxLag) {
+            this.maxLag = maxLag;
+        }
+    }
+
+    public static class Warmup {
+
+        /** Whether reward summaries of the most active customers are computed before the node reports ready. */
+        private boolean enabled = false;
+        /** Most active customers, by transactions in the default period, whose summaries are preloaded. */
+        private int customers = 1000;
+        /** Longest time spent warming up; the node reports ready when it runs out, warm or not. */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCustomers() {
+            return customers;
+        }
+
+        public void setCustomers(int customers) {
+            this.customers = customers;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Rolling {
+
+        /** Whether recent points are kept per customer for rolling-window queries. */
+        private boolean enabled = true;
+        /** Longest window a query may ask for, in days; each customer holds one slot per day. */
+        private int maxDays = 90;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxDays() {
+            return maxDays;
+        }
+
+        public void setMaxDays(int maxDays) {
+            this.maxDays = maxDays;
+        }
+    }
+
+    public static class Export {
+
+        /** Customers read, with their transactions, per query of the export; bounds its memory. */
+        private int pageSize = 1000;
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+    }
+}
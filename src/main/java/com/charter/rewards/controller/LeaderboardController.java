@@ -0,0 +1,87 @@
+package com.charter.rewards.controller;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.model.CityRewardTotal;
+import com.charter.rewards.model.Leaderboard;
+import com.charter.rewards.service.RewardLeaderboardService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rewards/leaderboard")
+public class LeaderboardController {
+
+    private final RewardLeaderboardService leaderboardService;
+    private final RewardProperties properties;
+
+    public LeaderboardController(RewardLeaderboardService leaderboardService, RewardProperties properties) {
+        this.leaderboardService = leaderboardService;
+        this.properties = properties;
+    }
+
+    /**
+     * Retrieves the customers with the most reward points in a month.
+     * If the month is not provided → uses the current month.
+     *
+     * @param month optional month (yyyy-MM)
+     * @param limit optional number of customers, at most {@code rewards.leaderboard.size} (the default)
+     * @return the ranked {@link Leaderboard} of the month
+     */
+    @GetMapping
+    public Leaderboard getLeaderboard(
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return leaderboardService.getLeaderboard(resolveMonth(month), resolveLimit(limit));
+    }
+
+    /**
+     * Retrieves the customers of one city with the most reward points in a month.
+     *
+     * @param city  the city, matched ignoring case
+     * @param month optional month (yyyy-MM), the current month by default
+     * @param limit optional number of customers, at most {@code rewards.leaderboard.size} (the default)
+     * @return the ranked {@link Leaderboard} of the city, empty if nobody there earned points that month
+     */
+    @GetMapping("/cities/{city}")
+    public Leaderboard getCityLeaderboard(
+            @PathVariable String city,
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return leaderboardService.getCityLeaderboard(resolveMonth(month), city, resolveLimit(limit));
+    }
+
+    /**
+     * Retrieves the reward points earned in a month by the customers of each city.
+     *
+     * @param month optional month (yyyy-MM), the current month by default
+     * @return one {@link CityRewardTotal} per city with points that month, highest first
+     */
+    @GetMapping("/cities")
+    public List<CityRewardTotal> getCityTotals(@RequestParam(required = false) String month) {
+        return leaderboardService.getCityTotals(resolveMonth(month));
+    }
+
+    private static YearMonth resolveMonth(String month) {
+        if (month == null) {
+            return YearMonth.now();
+        }
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid month format. Use yyyy-MM");
+        }
+    }
+
+    private int resolveLimit(Integer limit) {
+        return (limit != null) ? limit : properties.getLeaderboard().getSize();
+    }
+}
@@ -0,0 +1,118 @@
+package com.charter.rewards.controller;
+
+import com.charter.rewards.model.RebuildProgress;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleLoader;
+import com.charter.rewards.service.RewardLedgerRebuildJob;
+import com.charter.rewards.service.RewardSummaryCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/rewards")
+public class RewardAdminController {
+
+    private final RewardSummaryCache summaryCache;
+    private final RewardRuleLoader ruleLoader;
+    private final RewardLedgerRebuildJob rebuildJob;
+    private final TransactionArchive archive;
+
+    public RewardAdminController(RewardSummaryCache summaryCache, RewardRuleLoader ruleLoader,
+                                 RewardLedgerRebuildJob rebuildJob, TransactionArchive archive) {
+        this.summaryCache = summaryCache;
+        this.ruleLoader = ruleLoader;
+        this.rebuildJob = rebuildJob;
+        this.archive = archive;
+    }
+
+    /**
+     * Reports hit, miss and eviction counters of the reward summary cache.
+     *
+     * @return the cache counters and current size
+     */
+    @GetMapping("/cache")
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = summaryCache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", summaryCache.size());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictions", stats.evictionCount());
+        return body;
+    }
+
+    /**
+     * Reloads the reward tiers and promotions from the database. Cached summaries are dropped and a
+     * rebuild of the monthly ledger with the new rules is started in the background; its progress is
+     * reported by {@code GET /ledger/rebuild}.
+     *
+     * @return the number of tiers and promotions now in effect
+     */
+    @PostMapping("/rules/reload")
+    public Map<String, Object> reloadRules() {
+        CompiledRewardRules rules = ruleLoader.reload();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("tiers", rules.tierCount());
+        body.put("promotions", rules.promotionCount());
+        return body;
+    }
+
+    /**
+     * Starts a parallel rebuild of the monthly ledger in the background.
+     *
+     * @param resume when true, only the partitions the last rebuild left incomplete are rebuilt
+     * @return 202 with the progress of the started job, or 409 if a rebuild is already running
+     */
+    @PostMapping("/ledger/rebuild")
+    public ResponseEntity<?> startLedgerRebuild(@RequestParam(defaultValue = "false") boolean resume) {
+        if (rebuildJob.isRunning()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "A ledger rebuild is already running"));
+        }
+        rebuildJob.start(resume);
+        return ResponseEntity.accepted().body(rebuildJob.progress());
+    }
+
+    /**
+     * Reports the partitions completed, transactions read, rows written and throughput of the
+     * current or last ledger rebuild.
+     */
+    @GetMapping("/ledger/rebuild")
+    public RebuildProgress getLedgerRebuildProgress() {
+        return rebuildJob.progress();
+    }
+
+    /**
+     * Moves the transactions of every month before the given one to the archive table. Summaries do
+     * not change; only queries over archived months read the archive.
+     *
+     * @param before the first month to keep live, as {@code yyyy-MM}
+     * @return the number of transactions moved and the first live month
+     */
+    @PostMapping("/transactions/archive")
+    public Map<String, Object> archiveTransactions(@RequestParam String before) {
+        YearMonth month;
+        try {
+            month = YearMonth.parse(before);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid month format. Use yyyy-MM");
+        }
+        long moved = archive.archiveBefore(month);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("archivedTransactions", moved);
+        body.put("firstLiveMonth", archive.firstLiveMonth());
+        return body;
+    }
+}
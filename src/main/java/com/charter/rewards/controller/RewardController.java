@@ -1,54 +1,139 @@
 package com.charter.rewards.controller;
 
+import com.charter.rewards.config.RewardProperties;
 import com.charter.rewards.exception.CustomerNotFoundException;
+import com.charter.rewards.model.RewardBatchRequest;
 import com.charter.rewards.model.RewardSummary;
+import com.charter.rewards.service.RewardDataVersions;
 import com.charter.rewards.service.RewardService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.NativeWebRequest;
 
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/rewards")
 public class RewardController {
 
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    /** The formats a summary can be written in, in the order of their message converters. */
+    private static final List<MediaType> SUMMARY_FORMATS = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, SMILE);
+
     private final RewardService rewardService;
+    private final RewardProperties properties;
+    private final RewardDataVersions dataVersions;
+    private final ContentNegotiationManager contentNegotiationManager;
 
-    public RewardController(RewardService rewardService) {
+    public RewardController(RewardService rewardService, RewardProperties properties,
+                            RewardDataVersions dataVersions, ContentNegotiationManager contentNegotiationManager) {
         this.rewardService = rewardService;
+        this.properties = properties;
+        this.dataVersions = dataVersions;
+        this.contentNegotiationManager = contentNegotiationManager;
     }
 
     /**
      * Retrieves reward summary for a specific customer within an optional date range.
      * Customer ID is mandatory — returns error if missing.
      * If start and end dates are not provided → calculates for the last 3 months.
+     * The response carries an ETag, built once the customer is known to exist; a request whose
+     * {@code If-None-Match} still matches gets 304 Not Modified without the summary being computed.
+     * The summary is written as JSON, or as CBOR or Smile when {@code Accept} asks for
+     * {@code application/cbor} or {@code application/x-jackson-smile}; both responses vary by
+     * {@code Accept}.
      *
      * @param customerId the unique ID of the customer (required)
      * @param start      optional start date (yyyy-MM-dd)
      * @param end        optional end date (yyyy-MM-dd)
-     * @return the {@link RewardSummary} containing total and monthly rewards
+     * @return the {@link RewardSummary} containing total and monthly rewards, or an empty 304 response
      * @throws CustomerNotFoundException if no customer is found for the given ID
+     * @throws HttpMediaTypeNotAcceptableException if {@code Accept} allows none of the formats
      */
     @GetMapping
-    public RewardSummary getRewardsForCustomer(
+    public ResponseEntity<RewardSummary> getRewardsForCustomer(
             @RequestParam(required = false) Long customerId,
             @RequestParam(required = false) String start,
-            @RequestParam(required = false) String end
-    ) throws CustomerNotFoundException {
+            @RequestParam(required = false) String end,
+            NativeWebRequest request
+    ) throws CustomerNotFoundException, HttpMediaTypeNotAcceptableException {
 
         if (customerId == null) {
             throw new IllegalArgumentException("Customer ID must be provided to fetch rewards");
         }
 
-        LocalDate endDate = (end != null) ? LocalDate.parse(end) : LocalDate.now();
-        LocalDate startDate = (start != null) ? LocalDate.parse(start) : endDate.minusMonths(2);
+        RewardPeriod period = RewardPeriod.resolve(start, end, properties.getMaxPeriodMonths());
+
+        MediaType format = negotiateFormat(request);
+        String etag = dataVersions.etag(customerId, period.start(), period.end(), format.getSubtype());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).contentType(format)
+                .body(rewardService.getRewardsForCustomerForPeriod(customerId, period.start(), period.end()));
+    }
+
+    /**
+     * Retrieves reward summaries for many customers over a shared, optional date range in one call.
+     * Customers that do not exist are reported inline with an {@code error} field instead of
+     * failing the whole batch.
+     *
+     * @param request the customer IDs (required) and optional start/end dates (yyyy-MM-dd)
+     * @return one {@link RewardSummary} per requested customer ID, in request order
+     */
+    @PostMapping("/batch")
+    public List<RewardSummary> getRewardsForCustomers(@RequestBody RewardBatchRequest request) {
 
-        if (startDate.isAfter(endDate)) {
-            throw new IllegalArgumentException("Start date cannot be after end date");
+        List<Long> customerIds = request.getCustomerIds();
+        if (customerIds == null || customerIds.isEmpty()) {
+            throw new IllegalArgumentException("Customer IDs must be provided to fetch rewards");
         }
+        if (customerIds.contains(null)) {
+            throw new IllegalArgumentException("Customer IDs must not contain empty values");
+        }
+        if (customerIds.size() > properties.getBatch().getMaxSize()) {
+            throw new IllegalArgumentException("A batch may contain at most "
+                    + properties.getBatch().getMaxSize() + " customer IDs");
+        }
+
+        RewardPeriod period = RewardPeriod.resolve(request.getStart(), request.getEnd(), properties.getMaxPeriodMonths());
+
+        return rewardService.getRewardsForCustomersForPeriod(customerIds, period.start(), period.end());
+    }
 
-        return rewardService.getRewardsForCustomerForPeriod(customerId, startDate, endDate);
+    /**
+     * Picks the format of a summary as the message converters would: the formats compatible with the
+     * media types the request accepts, ordered by quality and specificity, JSON first among equals.
+     * The summary is written in the format picked here, so its ETag always names the format it is
+     * written in.
+     */
+    private MediaType negotiateFormat(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> compatible = new ArrayList<>();
+        for (MediaType accepted : contentNegotiationManager.resolveMediaTypes(request)) {
+            for (MediaType format : SUMMARY_FORMATS) {
+                if (accepted.isCompatibleWith(format)) {
+                    compatible.add(format.copyQualityValue(accepted));
+                }
+            }
+        }
+        if (compatible.isEmpty()) {
+            throw new HttpMediaTypeNotAcceptableException(SUMMARY_FORMATS);
+        }
+        MimeTypeUtils.sortBySpecificity(compatible);
+        return compatible.get(0).removeQualityValue();
     }
 }
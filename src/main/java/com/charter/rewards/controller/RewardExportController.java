@@ -0,0 +1,45 @@
+package com.charter.rewards.controller;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.service.RewardExportService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/rewards/export")
+public class RewardExportController {
+
+    private final RewardExportService exportService;
+    private final RewardProperties properties;
+
+    public RewardExportController(RewardExportService exportService, RewardProperties properties) {
+        this.exportService = exportService;
+        this.properties = properties;
+    }
+
+    /**
+     * Streams the reward summary of every customer as newline-delimited JSON, one customer per line,
+     * in customer ID order. The response is written while the database cursor is read, so the
+     * first lines are sent before the export completes.
+     * If start and end dates are not provided → calculates for the last 3 months.
+     *
+     * @param start optional start date (yyyy-MM-dd)
+     * @param end   optional end date (yyyy-MM-dd)
+     * @return a streaming NDJSON body
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRewards(
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end
+    ) {
+        RewardPeriod period = RewardPeriod.resolve(start, end, properties.getMaxPeriodMonths());
+
+        StreamingResponseBody body = out -> exportService.exportAll(period.start(), period.end(), out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,35 @@
+package com.charter.rewards.controller;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The period of a reward request, resolved from its optional {@code start} and {@code end} parameters.
+ *
+ * @param start the start date of the period (inclusive)
+ * @param end   the end date of the period (inclusive)
+ */
+record RewardPeriod(LocalDate start, LocalDate end) {
+
+    /**
+     * Parses the request dates (yyyy-MM-dd). Without an end date the period ends today; without a
+     * start date it covers the last 3 months up to the end date. Summaries hold a bucket per month of
+     * the period, so it may span at most {@code maxMonths} calendar months.
+     *
+     * @throws java.time.format.DateTimeParseException if a date is not in yyyy-MM-dd format
+     * @throws IllegalArgumentException if the start date is after the end date or the period is too long
+     */
+    static RewardPeriod resolve(String start, String end, int maxMonths) {
+        LocalDate endDate = (end != null) ? LocalDate.parse(end) : LocalDate.now();
+        LocalDate startDate = (start != null) ? LocalDate.parse(start) : endDate.minusMonths(2);
+
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+        if (ChronoUnit.MONTHS.between(YearMonth.from(startDate), YearMonth.from(endDate)) >= maxMonths) {
+            throw new IllegalArgumentException("Period cannot span more than " + maxMonths + " months");
+        }
+        return new RewardPeriod(startDate, endDate);
+    }
+}
@@ -0,0 +1,43 @@
+package com.charter.rewards.controller;
+
+import com.charter.rewards.model.RollingPoints;
+import com.charter.rewards.store.RollingPointsWindow;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/rewards/rolling")
+@ConditionalOnProperty(prefix = "rewards.rolling", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RollingPointsController {
+
+    private final RollingPointsWindow window;
+
+    public RollingPointsController(RollingPointsWindow window) {
+        this.window = window;
+    }
+
+    /**
+     * Retrieves the reward points a customer earned in the last days, today included, from memory.
+     * A customer with no points in that time, or unknown, gets 0.
+     *
+     * @param customerId the unique ID of the customer (required)
+     * @param days       the number of days, at most {@code rewards.rolling.max-days}
+     * @return the {@link RollingPoints} of the window
+     */
+    @GetMapping
+    public RollingPoints getRollingPoints(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) Integer days
+    ) {
+        if (customerId == null) {
+            throw new IllegalArgumentException("Customer ID must be provided to fetch rewards");
+        }
+        if (days == null) {
+            throw new IllegalArgumentException("Days must be provided");
+        }
+        return window.points(customerId, days);
+    }
+}
@@ -0,0 +1,59 @@
+package com.charter.rewards.controller;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.model.IngestionResult;
+import com.charter.rewards.model.TransactionRequest;
+import com.charter.rewards.service.TransactionIngestionService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/transactions")
+public class TransactionController {
+
+    private final TransactionIngestionService ingestionService;
+    private final RewardProperties properties;
+
+    public TransactionController(TransactionIngestionService ingestionService, RewardProperties properties) {
+        this.ingestionService = ingestionService;
+        this.properties = properties;
+    }
+
+    /**
+     * Stores a batch of transactions using batched inserts.
+     * Rows with missing fields, negative amounts or unknown customers are rejected and counted.
+     *
+     * @param requests the transactions to store (customerId, date as yyyy-MM-dd, amount)
+     * @return accepted and rejected counts, unknown customer IDs and throughput
+     */
+    @PostMapping(consumes = "application/json")
+    public IngestionResult ingestTransactions(@RequestBody List<TransactionRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Transactions must be provided");
+        }
+        if (requests.size() > properties.getIngestion().getMaxRequestSize()) {
+            throw new IllegalArgumentException("A request may contain at most "
+                    + properties.getIngestion().getMaxRequestSize() + " transactions; upload larger feeds as CSV");
+        }
+        return ingestionService.ingest(requests);
+    }
+
+    /**
+     * Streams a CSV feed of {@code customerId,date,amount} lines into the database in chunks,
+     * without holding the whole file in memory.
+     *
+     * @param csv the raw request body
+     * @return accepted and rejected counts, unknown customer IDs and throughput for the whole feed
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(consumes = "text/csv")
+    public IngestionResult ingestCsv(InputStream csv) throws IOException {
+        return ingestionService.ingestCsv(csv);
+    }
+}
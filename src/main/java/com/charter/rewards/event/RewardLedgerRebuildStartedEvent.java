@@ -0,0 +1,54 @@
+package com.charter.rewards.event;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Published, on the rebuilding thread, once a ledger rebuild has blocked ledger updates and before it
+ * reads any transaction. Every transaction committed so far for a customer the rebuild
+ * {@link #covers} will be counted by the rebuild, so listeners drop additions they still hold for
+ * those customers; additions for other customers, such as those of the partitions a resumed rebuild
+ * already completed, are still to be applied.
+ */
+public class RewardLedgerRebuildStartedEvent {
+
+    /** {@code [start, end)} customer ID ranges ordered by start, or {@code null} for every customer. */
+    private final List<long[]> customerRanges;
+
+    /**
+     * A rebuild of the ledger of every customer.
+     */
+    public RewardLedgerRebuildStartedEvent() {
+        this.customerRanges = null;
+    }
+
+    /**
+     * A rebuild of the ledger of the customers in the given disjoint {@code [start, end)} ID ranges.
+     */
+    public RewardLedgerRebuildStartedEvent(List<long[]> customerRanges) {
+        this.customerRanges = customerRanges.stream().sorted(Comparator.comparingLong(range -> range[0])).toList();
+    }
+
+    /**
+     * @return true when the rebuild counts the transactions of the given customer
+     */
+    public boolean covers(long customerId) {
+        if (customerRanges == null) {
+            return true;
+        }
+        int low = 0;
+        int high = customerRanges.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long[] range = customerRanges.get(middle);
+            if (customerId < range[0]) {
+                high = middle - 1;
+            } else if (customerId >= range[1]) {
+                low = middle + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+}
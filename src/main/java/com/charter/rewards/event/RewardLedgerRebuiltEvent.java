@@ -0,0 +1,20 @@
+package com.charter.rewards.event;
+
+/**
+ * Published after the whole ledger has been recomputed, so that views derived from it can reload.
+ */
+public class RewardLedgerRebuiltEvent {
+
+    private final int rows;
+
+    public RewardLedgerRebuiltEvent(int rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * @return the number of monthly rows in the rebuilt ledger
+     */
+    public int getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,22 @@
+package com.charter.rewards.event;
+
+import com.charter.rewards.model.CustomerMonthlyReward;
+
+import java.util.List;
+
+/**
+ * Published by the ledger when points are added to monthly rows. Each element carries the points and
+ * transaction count that were added to one customer's month, not the new row totals.
+ */
+public class RewardLedgerUpdatedEvent {
+
+    private final List<CustomerMonthlyReward> additions;
+
+    public RewardLedgerUpdatedEvent(List<CustomerMonthlyReward> additions) {
+        this.additions = List.copyOf(additions);
+    }
+
+    public List<CustomerMonthlyReward> getAdditions() {
+        return additions;
+    }
+}
@@ -0,0 +1,20 @@
+package com.charter.rewards.event;
+
+import com.charter.rewards.rules.CompiledRewardRules;
+
+/**
+ * Published after new reward rules have been swapped in, so that results computed with the
+ * previous rules can be discarded or recomputed.
+ */
+public class RewardRulesChangedEvent {
+
+    private final CompiledRewardRules rules;
+
+    public RewardRulesChangedEvent(CompiledRewardRules rules) {
+        this.rules = rules;
+    }
+
+    public CompiledRewardRules getRules() {
+        return rules;
+    }
+}
@@ -0,0 +1,35 @@
+package com.charter.rewards.event;
+
+import com.charter.rewards.model.Transaction;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Published by the transaction write path after transactions have been persisted,
+ * so that derived read models can refresh themselves.
+ */
+public class TransactionsRecordedEvent {
+
+    private final List<Transaction> transactions;
+
+    public TransactionsRecordedEvent(List<Transaction> transactions) {
+        this.transactions = List.copyOf(transactions);
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * @return the distinct IDs of the customers the recorded transactions belong to
+     */
+    public Set<Long> getCustomerIds() {
+        Set<Long> customerIds = new LinkedHashSet<>();
+        for (Transaction transaction : transactions) {
+            customerIds.add(transaction.getCustomer().getId());
+        }
+        return customerIds;
+    }
+}
@@ -0,0 +1,9 @@
+package com.charter.rewards.event;
+
+/**
+ * Published by the transaction write path inside its database transaction, before the transactions
+ * are written, so that read models which follow {@link TransactionsRecordedEvent} can hold off their
+ * reloads until the write has completed without holding them off while waiting for a connection.
+ */
+public class TransactionsRecordingEvent {
+}
@@ -1,5 +1,7 @@
 package com.charter.rewards.exception;
 
+import com.charter.rewards.metrics.RewardMetrics;
+import com.charter.rewards.metrics.RewardMetrics.ErrorType;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,14 +15,22 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final RewardMetrics metrics;
+
+    public GlobalExceptionHandler(RewardMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Handles {@link CustomerNotFoundException} and returns a 404 Not Found response.
+     * Every handler also increments the matching {@code rewards.errors} counter.
      *
      * @param ex the exception thrown when a customer is not found
      * @return a {@link ResponseEntity} containing error details such as timestamp, status, and message
      */
     @ExceptionHandler(CustomerNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleCustomerNotFound(CustomerNotFoundException ex) {
+        metrics.error(ErrorType.CUSTOMER_NOT_FOUND);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
     }
 
@@ -34,6 +44,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(DateTimeParseException.class)
     public ResponseEntity<Map<String, String>> handleInvalidDateFormat(DateTimeParseException ex) {
+        metrics.error(ErrorType.INVALID_DATE);
         return ResponseEntity.badRequest().body(Map.of("error", "Invalid date format. Use yyyy-MM-dd"));
     }
 
@@ -47,6 +58,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        metrics.error(ErrorType.BAD_REQUEST);
         return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
     }
 
@@ -58,6 +70,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
+        metrics.error(ErrorType.INTERNAL);
         Map<String, Object> error = new HashMap<>();
         error.put("timestamp", LocalDateTime.now());
         error.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
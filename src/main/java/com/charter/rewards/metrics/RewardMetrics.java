@@ -0,0 +1,141 @@
+package com.charter.rewards.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the reward calculation path. Every meter is registered once up front, so recording a
+ * request costs a few {@link System#nanoTime()} calls and no registry lookups.
+ * <ul>
+ *   <li>{@code rewards.stage.duration} — timer per {@link Stage}, published as a percentile histogram</li>
+ *   <li>{@code rewards.request.transactions} — transactions behind each computed summary</li>
+ *   <li>{@code rewards.errors} — failed requests per {@link ErrorType}</li>
+ * </ul>
+ */
+@Component
+public class RewardMetrics {
+
+    /**
+     * Stages of a single-customer reward calculation.
+     */
+    public enum Stage {
+        CUSTOMER_LOOKUP,
+        TRANSACTION_FETCH,
+        AGGREGATION,
+        SERIALIZATION;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Kinds of request errors reported by the exception handler.
+     */
+    public enum ErrorType {
+        CUSTOMER_NOT_FOUND,
+        INVALID_DATE,
+        BAD_REQUEST,
+        INTERNAL;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<ErrorType, Counter> errorCounters = new EnumMap<>(ErrorType.class);
+    private final DistributionSummary transactionsPerRequest;
+
+    public RewardMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("rewards.stage.duration")
+                    .description("Time spent in one stage of a reward calculation")
+                    .tag("stage", stage.tag())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (ErrorType type : ErrorType.values()) {
+            errorCounters.put(type, Counter.builder("rewards.errors")
+                    .description("Reward requests that failed")
+                    .tag("type", type.tag())
+                    .register(registry));
+        }
+        this.transactionsPerRequest = DistributionSummary.builder("rewards.request.transactions")
+                .description("Transactions behind each computed reward summary")
+                .baseUnit("transactions")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos} for a stage.
+     *
+     * @param stage      the stage that finished
+     * @param startNanos the {@link System#nanoTime()} value taken when the stage started
+     */
+    public void record(Stage stage, long startNanos) {
+        stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the stages and transaction count accumulated for one request.
+     */
+    public void record(StageTimings timings) {
+        stageTimers.get(Stage.TRANSACTION_FETCH).record(timings.fetchNanos, TimeUnit.NANOSECONDS);
+        stageTimers.get(Stage.AGGREGATION).record(timings.aggregationNanos, TimeUnit.NANOSECONDS);
+        transactionsPerRequest.record(timings.transactions);
+    }
+
+    public void error(ErrorType type) {
+        errorCounters.get(type).increment();
+    }
+
+    public StageTimings startRequest() {
+        return new StageTimings();
+    }
+
+    /**
+     * Accumulates the stage durations of one request when a stage is entered more than once,
+     * for example the ledger and the partial edge months of a ledger query. Not thread-safe.
+     */
+    public static final class StageTimings {
+
+        private long fetchNanos;
+        private long aggregationNanos;
+        private long transactions;
+
+        private StageTimings() {
+        }
+
+        /**
+         * Adds the time since {@code startNanos} to the transaction fetch stage.
+         *
+         * @return the current {@link System#nanoTime()}, usable as the start of the next stage
+         */
+        public long fetched(long startNanos) {
+            long now = System.nanoTime();
+            fetchNanos += now - startNanos;
+            return now;
+        }
+
+        /**
+         * Adds the time since {@code startNanos} to the aggregation stage.
+         */
+        public void aggregated(long startNanos) {
+            aggregationNanos += System.nanoTime() - startNanos;
+        }
+
+        public void transactions(long count) {
+            transactions += count;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.charter.rewards.metrics;
+
+import com.charter.rewards.metrics.RewardMetrics.Stage;
+import com.charter.rewards.model.RewardSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that records how long writing a {@link RewardSummary} response takes as the
+ * {@link Stage#SERIALIZATION serialization} stage. Being a {@link MappingJackson2HttpMessageConverter}
+ * bean, it replaces the converter Spring Boot would otherwise register.
+ */
+@Component
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final RewardMetrics metrics;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, RewardMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!(object instanceof RewardSummary)) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long started = System.nanoTime();
+        super.writeInternal(object, type, outputMessage);
+        metrics.record(Stage.SERIALIZATION, started);
+    }
+}
@@ -0,0 +1,41 @@
+package com.charter.rewards.metrics;
+
+import com.charter.rewards.metrics.RewardMetrics.Stage;
+import com.charter.rewards.model.RewardSummary;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Writes {@code application/x-jackson-smile} responses for clients that ask for them with
+ * {@code Accept}, timing {@link RewardSummary} responses like {@link TimedJacksonHttpMessageConverter}.
+ * The mapper comes from Spring Boot's builder, so it is configured like the JSON one.
+ */
+@Component
+public class TimedSmileHttpMessageConverter extends MappingJackson2SmileHttpMessageConverter {
+
+    private final RewardMetrics metrics;
+
+    public TimedSmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder, RewardMetrics metrics) {
+        super(builder.factory(new SmileFactory()).build());
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!(object instanceof RewardSummary)) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long started = System.nanoTime();
+        super.writeInternal(object, type, outputMessage);
+        metrics.record(Stage.SERIALIZATION, started);
+    }
+}
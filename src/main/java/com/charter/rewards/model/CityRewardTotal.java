@@ -0,0 +1,44 @@
+package com.charter.rewards.model;
+
+public class CityRewardTotal {
+
+    private String city;
+    private long points;
+    private int customers;
+
+    public CityRewardTotal() {
+    }
+
+    public CityRewardTotal(String city, long points, int customers) {
+        this.city = city;
+        this.points = points;
+        this.customers = customers;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public long getPoints() {
+        return points;
+    }
+
+    public void setPoints(long points) {
+        this.points = points;
+    }
+
+    /**
+     * @return the number of customers of the city with at least one transaction in the month
+     */
+    public int getCustomers() {
+        return customers;
+    }
+
+    public void setCustomers(int customers) {
+        this.customers = customers;
+    }
+}
@@ -0,0 +1,54 @@
+package com.charter.rewards.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+/**
+ * Pre-aggregated reward points of one customer for one calendar month.
+ * Rows are maintained incrementally whenever a transaction is recorded.
+ */
+@Entity
+@Table(name = "customer_monthly_reward")
+public class CustomerMonthlyReward {
+
+    @EmbeddedId
+    private CustomerMonthlyRewardId id;
+    private int points;
+    @Column(name = "transaction_count")
+    private int transactionCount;
+
+    public CustomerMonthlyReward() {
+    }
+
+    public CustomerMonthlyReward(CustomerMonthlyRewardId id, int points, int transactionCount) {
+        this.id = id;
+        this.points = points;
+        this.transactionCount = transactionCount;
+    }
+
+    public CustomerMonthlyRewardId getId() {
+        return id;
+    }
+
+    public void setId(CustomerMonthlyRewardId id) {
+        this.id = id;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public void setPoints(int points) {
+        this.points = points;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(int transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+}
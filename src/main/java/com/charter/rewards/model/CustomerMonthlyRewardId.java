@@ -0,0 +1,54 @@
+package com.charter.rewards.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class CustomerMonthlyRewardId implements Serializable {
+
+    @Column(name = "customer_id")
+    private Long customerId;
+    /** First day of the month the row rolls up. */
+    @Column(name = "reward_month")
+    private LocalDate rewardMonth;
+
+    public CustomerMonthlyRewardId() {
+    }
+
+    public CustomerMonthlyRewardId(Long customerId, LocalDate rewardMonth) {
+        this.customerId = customerId;
+        this.rewardMonth = rewardMonth;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public LocalDate getRewardMonth() {
+        return rewardMonth;
+    }
+
+    public void setRewardMonth(LocalDate rewardMonth) {
+        this.rewardMonth = rewardMonth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomerMonthlyRewardId other)) return false;
+        return Objects.equals(customerId, other.customerId) && Objects.equals(rewardMonth, other.rewardMonth);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(customerId, rewardMonth);
+    }
+}
@@ -0,0 +1,48 @@
+package com.charter.rewards.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * A live or archived transaction read through the {@code transaction_history} view, which unites
+ * {@code transaction} and {@code transaction_archive}. A single query on the view sees a month
+ * either before or after {@code TransactionArchive} moved it, never in both tables or in neither.
+ * Read-only, with the same properties as {@link Transaction} so the same JPQL reads either.
+ */
+@Entity
+@Immutable
+@Table(name = "transaction_history")
+public class HistoricalTransaction {
+    @Id
+    private Long id;
+    private LocalDate date;
+    @Column(name = "amount_cents")
+    private long amountCents;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id")
+    private Customer customer;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+}
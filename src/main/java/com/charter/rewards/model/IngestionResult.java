@@ -0,0 +1,62 @@
+package com.charter.rewards.model;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+public class IngestionResult {
+
+    private long accepted;
+    private long rejected;
+    private Set<Long> unknownCustomerIds = new TreeSet<>();
+    private long elapsedMillis;
+    private double rowsPerSecond;
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(long accepted) {
+        this.accepted = accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public Set<Long> getUnknownCustomerIds() {
+        return unknownCustomerIds;
+    }
+
+    public void setUnknownCustomerIds(Set<Long> unknownCustomerIds) {
+        this.unknownCustomerIds = unknownCustomerIds;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    /**
+     * Adds the counts of another partial result, for example one chunk of a file upload.
+     */
+    public void merge(IngestionResult other) {
+        accepted += other.accepted;
+        rejected += other.rejected;
+        unknownCustomerIds.addAll(other.unknownCustomerIds);
+    }
+}
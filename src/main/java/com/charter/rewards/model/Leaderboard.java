@@ -0,0 +1,46 @@
+package com.charter.rewards.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public class Leaderboard {
+
+    private String month;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String city;
+    private List<LeaderboardEntry> entries;
+
+    public Leaderboard() {
+    }
+
+    public Leaderboard(String month, String city, List<LeaderboardEntry> entries) {
+        this.month = month;
+        this.city = city;
+        this.entries = entries;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public List<LeaderboardEntry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<LeaderboardEntry> entries) {
+        this.entries = entries;
+    }
+}
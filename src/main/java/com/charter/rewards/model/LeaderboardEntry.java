@@ -0,0 +1,51 @@
+package com.charter.rewards.model;
+
+public class LeaderboardEntry {
+
+    private int rank;
+    private Long customerId;
+    private String city;
+    private long points;
+
+    public LeaderboardEntry() {
+    }
+
+    public LeaderboardEntry(int rank, Long customerId, String city, long points) {
+        this.rank = rank;
+        this.customerId = customerId;
+        this.city = city;
+        this.points = points;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public long getPoints() {
+        return points;
+    }
+
+    public void setPoints(long points) {
+        this.points = points;
+    }
+}
@@ -1,31 +1,7 @@
 package com.charter.rewards.model;
 
-public class MonthlyReward {
-
-    private String month;
-    private Integer rewardPoints;
-
-    public MonthlyReward() {
-    }
-
-    public MonthlyReward(String month, Integer rewardPoints) {
-        this.month = month;
-        this.rewardPoints = rewardPoints;
-    }
-
-    public String getMonth() {
-        return month;
-    }
-
-    public void setMonth(String month) {
-        this.month = month;
-    }
-
-    public Integer getRewardPoints() {
-        return rewardPoints;
-    }
-
-    public void setRewardPoints(Integer rewardPoints) {
-        this.rewardPoints = rewardPoints;
-    }
+/**
+ * Points earned by a customer in one month ({@code yyyy-MM}) of a {@link RewardSummary}.
+ */
+public record MonthlyReward(String month, int rewardPoints) {
 }
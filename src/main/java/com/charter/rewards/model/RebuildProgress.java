@@ -0,0 +1,80 @@
+package com.charter.rewards.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class RebuildProgress {
+
+    private String status;
+    private int totalPartitions;
+    private int completedPartitions;
+    private long transactions;
+    private long ledgerRows;
+    private long elapsedMillis;
+    private double transactionsPerSecond;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getTotalPartitions() {
+        return totalPartitions;
+    }
+
+    public void setTotalPartitions(int totalPartitions) {
+        this.totalPartitions = totalPartitions;
+    }
+
+    public int getCompletedPartitions() {
+        return completedPartitions;
+    }
+
+    public void setCompletedPartitions(int completedPartitions) {
+        this.completedPartitions = completedPartitions;
+    }
+
+    public long getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(long transactions) {
+        this.transactions = transactions;
+    }
+
+    public long getLedgerRows() {
+        return ledgerRows;
+    }
+
+    public void setLedgerRows(long ledgerRows) {
+        this.ledgerRows = ledgerRows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getTransactionsPerSecond() {
+        return transactionsPerSecond;
+    }
+
+    public void setTransactionsPerSecond(double transactionsPerSecond) {
+        this.transactionsPerSecond = transactionsPerSecond;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
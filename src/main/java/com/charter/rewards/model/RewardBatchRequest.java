@@ -0,0 +1,34 @@
+package com.charter.rewards.model;
+
+import java.util.List;
+
+public class RewardBatchRequest {
+
+    private List<Long> customerIds;
+    private String start;
+    private String end;
+
+    public List<Long> getCustomerIds() {
+        return customerIds;
+    }
+
+    public void setCustomerIds(List<Long> customerIds) {
+        this.customerIds = customerIds;
+    }
+
+    public String getStart() {
+        return start;
+    }
+
+    public void setStart(String start) {
+        this.start = start;
+    }
+
+    public String getEnd() {
+        return end;
+    }
+
+    public void setEnd(String end) {
+        this.end = end;
+    }
+}
@@ -0,0 +1,90 @@
+package com.charter.rewards.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+/**
+ * A promotion scaling the points of matching transactions by {@code multiplierPercent}.
+ * City, start date and end date are optional filters.
+ */
+@Entity
+@Table(name = "reward_promotion")
+public class RewardPromotion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private String city;
+    @Column(name = "start_date")
+    private LocalDate startDate;
+    @Column(name = "end_date")
+    private LocalDate endDate;
+    @Column(name = "multiplier_percent")
+    private int multiplierPercent;
+
+    public RewardPromotion() {
+    }
+
+    public RewardPromotion(String name, String city, LocalDate startDate, LocalDate endDate, int multiplierPercent) {
+        this.name = name;
+        this.city = city;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.multiplierPercent = multiplierPercent;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public int getMultiplierPercent() {
+        return multiplierPercent;
+    }
+
+    public void setMultiplierPercent(int multiplierPercent) {
+        this.multiplierPercent = multiplierPercent;
+    }
+}
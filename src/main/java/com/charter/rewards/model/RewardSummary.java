@@ -1,73 +1,35 @@
 package com.charter.rewards.model;
 
-import java.util.List;
-
-public class RewardSummary {
-
-    private Long customerId;
-    private String name;
-    private String phone;
-    private String city;
-    private int totalRewards;
-    private List<MonthlyReward> monthlyRewards;
-
-    public RewardSummary() {
-    }
-
-    public RewardSummary(Long customerId, String name, String phone, String city, int totalRewards, List<MonthlyReward> monthlyRewards) {
-        this.customerId = customerId;
-        this.name = name;
-        this.phone = phone;
-        this.city = city;
-        this.totalRewards = totalRewards;
-        this.monthlyRewards = monthlyRewards;
-    }
-
-    public Long getCustomerId() {
-        return customerId;
-    }
-
-    public void setCustomerId(Long customerId) {
-        this.customerId = customerId;
-    }
-
-    public String getName() {
-        return name;
-    }
-
-    public void setName(String name) {
-        this.name = name;
-    }
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
-    public String getPhone() {
-        return phone;
-    }
-
-    public void setPhone(String phone) {
-        this.phone = phone;
-    }
-
-    public String getCity() {
-        return city;
-    }
-
-    public void setCity(String city) {
-        this.city = city;
-    }
-
-    public int getTotalRewards() {
-        return totalRewards;
-    }
-
-    public void setTotalRewards(int totalRewards) {
-        this.totalRewards = totalRewards;
-    }
-
-    public List<MonthlyReward> getMonthlyRewards() {
-        return monthlyRewards;
-    }
+import java.util.List;
 
-    public void setMonthlyRewards(List<MonthlyReward> monthlyRewards) {
-        this.monthlyRewards = monthlyRewards;
+/**
+ * Rewards of one customer over a period: the points of every month with transactions and their
+ * total. Summaries are cached and shared between requests, so they are immutable; the monthly list
+ * is never modified once the summary is built. Written by {@link RewardSummarySerializer} in every
+ * format rather than by reflection.
+ *
+ * @param error why the summary could not be computed, for batch responses; omitted when {@code null}
+ */
+@JsonSerialize(using = RewardSummarySerializer.class)
+public record RewardSummary(Long customerId, String name, String phone, String city, int totalRewards,
+                            List<MonthlyReward> monthlyRewards, String error) {
+
+    public RewardSummary(Long customerId, String name, String phone, String city, int totalRewards,
+                         List<MonthlyReward> monthlyRewards) {
+        this(customerId, name, phone, city, totalRewards, monthlyRewards, null);
+    }
+
+    /**
+     * Creates a placeholder summary carrying only the customer ID and an error message,
+     * used to report per-customer failures inline in batch responses.
+     *
+     * @param customerId the customer the error refers to
+     * @param error      the error message
+     * @return a summary with no reward data
+     */
+    public static RewardSummary error(Long customerId, String error) {
+        return new RewardSummary(customerId, null, null, null, 0, null, error);
     }
 }
@@ -0,0 +1,79 @@
+package com.charter.rewards.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Streams a {@link RewardSummary} straight to the generator, without the reflective bean serializer:
+ * property names are encoded once, points are written as primitives and the monthly rewards are
+ * written inline. Works with any Jackson format, so JSON, CBOR and Smile responses share it. The
+ * properties come out in the same order and shape as they would by reflection, with {@code error}
+ * left out when it is {@code null}.
+ */
+public class RewardSummarySerializer extends StdSerializer<RewardSummary> {
+
+    private static final SerializableString CUSTOMER_ID = new SerializedString("customerId");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString PHONE = new SerializedString("phone");
+    private static final SerializableString CITY = new SerializedString("city");
+    private static final SerializableString TOTAL_REWARDS = new SerializedString("totalRewards");
+    private static final SerializableString MONTHLY_REWARDS = new SerializedString("monthlyRewards");
+    private static final SerializableString MONTH = new SerializedString("month");
+    private static final SerializableString REWARD_POINTS = new SerializedString("rewardPoints");
+    private static final SerializableString ERROR = new SerializedString("error");
+
+    public RewardSummarySerializer() {
+        super(RewardSummary.class);
+    }
+
+    @Override
+    public void serialize(RewardSummary summary, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(summary);
+        generator.writeFieldName(CUSTOMER_ID);
+        if (summary.customerId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(summary.customerId());
+        }
+        generator.writeFieldName(NAME);
+        generator.writeString(summary.name());
+        generator.writeFieldName(PHONE);
+        generator.writeString(summary.phone());
+        generator.writeFieldName(CITY);
+        generator.writeString(summary.city());
+        generator.writeFieldName(TOTAL_REWARDS);
+        generator.writeNumber(summary.totalRewards());
+        generator.writeFieldName(MONTHLY_REWARDS);
+        writeMonthlyRewards(summary.monthlyRewards(), generator);
+        if (summary.error() != null) {
+            generator.writeFieldName(ERROR);
+            generator.writeString(summary.error());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeMonthlyRewards(List<MonthlyReward> monthlyRewards, JsonGenerator generator)
+            throws IOException {
+        if (monthlyRewards == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray(monthlyRewards, monthlyRewards.size());
+        for (MonthlyReward monthlyReward : monthlyRewards) {
+            generator.writeStartObject(monthlyReward, 2);
+            generator.writeFieldName(MONTH);
+            generator.writeString(monthlyReward.month());
+            generator.writeFieldName(REWARD_POINTS);
+            generator.writeNumber(monthlyReward.rewardPoints());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,55 @@
+package com.charter.rewards.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * One reward tier: {@code multiplier} points per dollar spent above {@code threshold}.
+ */
+@Entity
+@Table(name = "reward_tier")
+public class RewardTier {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private BigDecimal threshold;
+    private int multiplier;
+
+    public RewardTier() {
+    }
+
+    public RewardTier(BigDecimal threshold, int multiplier) {
+        this.threshold = threshold;
+        this.multiplier = multiplier;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public BigDecimal getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(BigDecimal threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(int multiplier) {
+        this.multiplier = multiplier;
+    }
+}
@@ -0,0 +1,10 @@
+package com.charter.rewards.model;
+
+import java.time.LocalDate;
+
+/**
+ * Reward points a customer earned in the {@code days} days from {@code from} to {@code to}, both
+ * included; {@code to} is today.
+ */
+public record RollingPoints(Long customerId, int days, LocalDate from, LocalDate to, long points) {
+}
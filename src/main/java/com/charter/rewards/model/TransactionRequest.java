@@ -0,0 +1,45 @@
+package com.charter.rewards.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class TransactionRequest {
+
+    private Long customerId;
+    private LocalDate date;
+    /** Amount in dollars; read as a decimal so it converts to cents exactly. */
+    private BigDecimal amount;
+
+    public TransactionRequest() {
+    }
+
+    public TransactionRequest(Long customerId, LocalDate date, BigDecimal amount) {
+        this.customerId = customerId;
+        this.date = date;
+        this.amount = amount;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,9 @@
+package com.charter.rewards.repository;
+
+/**
+ * Reward points of a customer for one calendar month, aggregated by the database for a batch of customers.
+ */
+public interface CustomerMonthlyPointsView extends MonthlyPointsView {
+
+    Long getCustomerId();
+}
@@ -0,0 +1,37 @@
+package com.charter.rewards.repository;
+
+import com.charter.rewards.model.CustomerMonthlyReward;
+import com.charter.rewards.model.CustomerMonthlyRewardId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CustomerMonthlyRewardRepository extends JpaRepository<CustomerMonthlyReward, CustomerMonthlyRewardId> {
+
+    @Query("select r from CustomerMonthlyReward r where r.id.customerId = :customerId "
+            + "and r.id.rewardMonth between :firstMonth and :lastMonth order by r.id.rewardMonth")
+    List<CustomerMonthlyReward> findMonths(@Param("customerId") Long customerId,
+                                           @Param("firstMonth") LocalDate firstMonth,
+                                           @Param("lastMonth") LocalDate lastMonth);
+
+    /**
+     * Adds points and transaction count to a customer's month, creating the row on first use.
+     */
+    @Modifying
+    @Query(value = "MERGE INTO customer_monthly_reward r "
+            + "USING (SELECT CAST(:customerId AS BIGINT) AS customer_id, CAST(:rewardMonth AS DATE) AS reward_month) s "
+            + "ON r.customer_id = s.customer_id AND r.reward_month = s.reward_month "
+            + "WHEN MATCHED THEN UPDATE SET points = r.points + :points, transaction_count = r.transaction_count + :count "
+            + "WHEN NOT MATCHED THEN INSERT (customer_id, reward_month, points, transaction_count) "
+            + "VALUES (s.customer_id, s.reward_month, :points, :count)", nativeQuery = true)
+    void addPoints(@Param("customerId") Long customerId,
+                   @Param("rewardMonth") LocalDate rewardMonth,
+                   @Param("points") int points,
+                   @Param("count") int count);
+}
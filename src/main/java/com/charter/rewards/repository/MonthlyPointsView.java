@@ -0,0 +1,15 @@
+package com.charter.rewards.repository;
+
+/**
+ * Reward points of one customer for one calendar month, aggregated by the database.
+ */
+public interface MonthlyPointsView {
+
+    Integer getYear();
+
+    Integer getMonth();
+
+    Long getPoints();
+
+    Long getTransactionCount();
+}
@@ -0,0 +1,7 @@
+package com.charter.rewards.repository;
+
+import com.charter.rewards.model.RewardPromotion;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RewardPromotionRepository extends JpaRepository<RewardPromotion, Long> {
+}
@@ -0,0 +1,7 @@
+package com.charter.rewards.repository;
+
+import com.charter.rewards.model.RewardTier;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RewardTierRepository extends JpaRepository<RewardTier, Long> {
+}
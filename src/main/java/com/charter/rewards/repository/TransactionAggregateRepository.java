@@ -0,0 +1,34 @@
+package com.charter.rewards.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reward aggregations computed inside the database. The points formula is generated from the
+ * reward rules currently in effect, so it always agrees with the in-memory calculation. Periods
+ * starting before the first live month also aggregate {@link TransactionArchive archived} transactions.
+ */
+public interface TransactionAggregateRepository {
+
+    /**
+     * Sums reward points per month inside the database so only one row per month leaves it.
+     *
+     * @param customerId the customer whose transactions are aggregated
+     * @param startDate  first day of the period (inclusive)
+     * @param endDate    last day of the period (inclusive)
+     * @return one row per month that has at least one transaction, ordered by month
+     */
+    List<MonthlyPointsView> sumMonthlyPoints(Long customerId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Batch variant of {@link #sumMonthlyPoints} covering several customers in a single query.
+     *
+     * @param customerIds the customers whose transactions are aggregated
+     * @param startDate   first day of the period (inclusive)
+     * @param endDate     last day of the period (inclusive)
+     * @return one row per customer and month that has at least one transaction, ordered by customer and month
+     */
+    List<CustomerMonthlyPointsView> sumMonthlyPointsByCustomer(Collection<Long> customerIds, LocalDate startDate,
+                                                               LocalDate endDate);
+}
@@ -0,0 +1,113 @@
+package com.charter.rewards.repository;
+
+import com.charter.rewards.rules.RewardRuleEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+class TransactionAggregateRepositoryImpl implements TransactionAggregateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final RewardRuleEngine ruleEngine;
+    private final TransactionArchive archive;
+
+    TransactionAggregateRepositoryImpl(RewardRuleEngine ruleEngine, TransactionArchive archive) {
+        this.ruleEngine = ruleEngine;
+        this.archive = archive;
+    }
+
+    @Override
+    public List<MonthlyPointsView> sumMonthlyPoints(Long customerId, LocalDate startDate, LocalDate endDate) {
+        return new ArrayList<>(sumMonthlyPoints(entityFor(startDate), customerId, startDate, endDate));
+    }
+
+    @Override
+    public List<CustomerMonthlyPointsView> sumMonthlyPointsByCustomer(Collection<Long> customerIds,
+                                                                      LocalDate startDate, LocalDate endDate) {
+        return new ArrayList<>(sumMonthlyPointsByCustomer(entityFor(startDate), customerIds, startDate, endDate));
+    }
+
+    /**
+     * Picks the entity holding every transaction of a period: {@code HistoricalTransaction} (the
+     * {@code transaction_history} view) when the archive {@link TransactionArchive#covers covers} its
+     * start, so live and archived months are aggregated in one statement, otherwise {@code Transaction}.
+     */
+    private String entityFor(LocalDate startDate) {
+        return archive.covers(startDate) ? "HistoricalTransaction" : "Transaction";
+    }
+
+    /**
+     * Runs the monthly aggregation of one customer against {@code Transaction} or
+     * {@code HistoricalTransaction}, which have the same properties.
+     */
+    private List<MonthlyPoints> sumMonthlyPoints(String entity, Long customerId, LocalDate startDate,
+                                                 LocalDate endDate) {
+        List<Object[]> rows = entityManager.createQuery("select year(t.date), month(t.date), sum("
+                        + ruleEngine.current().jpqlPoints() + "), count(t) "
+                        + "from " + entity + " t where t.customer.id = :customerId and t.date between :startDate and :endDate "
+                        + "group by year(t.date), month(t.date) order by year(t.date), month(t.date)", Object[].class)
+                .setParameter("customerId", customerId)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+        List<MonthlyPoints> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new MonthlyPoints(null, (Integer) row[0], (Integer) row[1], (Long) row[2], (Long) row[3]));
+        }
+        return result;
+    }
+
+    private List<MonthlyPoints> sumMonthlyPointsByCustomer(String entity, Collection<Long> customerIds,
+                                                           LocalDate startDate, LocalDate endDate) {
+        List<Object[]> rows = entityManager.createQuery("select t.customer.id, year(t.date), month(t.date), sum("
+                        + ruleEngine.current().jpqlPoints() + "), count(t) "
+                        + "from " + entity + " t where t.customer.id in :customerIds and t.date between :startDate and :endDate "
+                        + "group by t.customer.id, year(t.date), month(t.date) "
+                        + "order by t.customer.id, year(t.date), month(t.date)", Object[].class)
+                .setParameter("customerIds", customerIds)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+        List<MonthlyPoints> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new MonthlyPoints((Long) row[0], (Integer) row[1], (Integer) row[2], (Long) row[3],
+                    (Long) row[4]));
+        }
+        return result;
+    }
+
+    private record MonthlyPoints(Long customerId, Integer year, Integer month, Long points, Long transactionCount)
+            implements CustomerMonthlyPointsView {
+
+        @Override
+        public Long getCustomerId() {
+            return customerId;
+        }
+
+        @Override
+        public Integer getYear() {
+            return year;
+        }
+
+        @Override
+        public Integer getMonth() {
+            return month;
+        }
+
+        @Override
+        public Long getPoints() {
+            return points;
+        }
+
+        @Override
+        public Long getTransactionCount() {
+            return transactionCount;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.charter.rewards.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Date and amount, in cents, of one transaction: everything the reward calculation reads from it.
+ */
+public record TransactionAmount(LocalDate date, long amountCents) {
+}
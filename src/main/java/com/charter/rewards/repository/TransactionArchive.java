@@ -0,0 +1,158 @@
+package com.charter.rewards.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Monthly buckets of the transaction history. Every transaction row carries a {@code month_key}
+ * ({@code yyyyMM}), and whole months can be moved from the live {@code transaction} table to
+ * {@code transaction_archive} with {@link #archiveBefore(YearMonth)}, one month per database
+ * transaction, through the {@code month_key} indexes rather than a scan of the history.
+ * <p>
+ * Archived months stay part of the history. Range reads consult {@link #covers(LocalDate)} and only
+ * read the {@code transaction_history} view of both tables when their range starts before the first
+ * live month, so queries over recent months never touch the archive; full scans read
+ * {@link #historyTable()}. Either way each read is a single statement, so a month moved concurrently
+ * is seen in exactly one of the tables. Transactions recorded later for
+ * an archived month go to the live table, which range reads always include.
+ * <p>
+ * The first live month is kept in the single row of {@code transaction_archive_boundary} and read
+ * for every query, so every instance sharing the database sees a move made by any of them. A move
+ * commits the new boundary first and waits {@link #BOUNDARY_GRACE} before moving a month, so that
+ * reads which looked up the old boundary have issued their statement by then.
+ */
+@Repository
+public class TransactionArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchive.class);
+
+    /** Value of {@link #firstLiveMonth} while nothing is archived. */
+    private static final int NONE = Integer.MIN_VALUE;
+
+    /** Time between publishing a new boundary and moving the first month behind it. */
+    static final Duration BOUNDARY_GRACE = Duration.ofSeconds(1);
+
+    private static final String LAST_ARCHIVED_QUERY = "SELECT MAX(month_key) FROM transaction_archive";
+    private static final String BOUNDARY_QUERY = "SELECT first_live_month FROM transaction_archive_boundary WHERE id = 1";
+    private static final String BOUNDARY_UPDATE = "MERGE INTO transaction_archive_boundary (id, first_live_month) "
+            + "KEY (id) VALUES (1, GREATEST(?, COALESCE((SELECT first_live_month FROM transaction_archive_boundary "
+            + "WHERE id = 1), ?)))";
+    private static final String LIVE_MONTHS_QUERY =
+            "SELECT DISTINCT month_key FROM transaction WHERE month_key < ? ORDER BY month_key";
+    private static final String COPY_MONTH = "INSERT INTO transaction_archive "
+            + "(id, customer_id, date, amount_cents, month_key) "
+            + "SELECT id, customer_id, date, amount_cents, month_key FROM transaction WHERE month_key = ?";
+    // Only rows already copied are deleted, so a transaction recorded for the month during the move stays live
+    private static final String DELETE_MONTH = "DELETE FROM transaction t WHERE t.month_key = ? "
+            + "AND EXISTS (SELECT 1 FROM transaction_archive a WHERE a.id = t.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public TransactionArchive(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Archives filled before the boundary was stored
+        Integer lastArchived = jdbcTemplate.queryForObject(LAST_ARCHIVED_QUERY, Integer.class);
+        if (lastArchived != null) {
+            int boundary = monthKey(toMonth(lastArchived).plusMonths(1));
+            jdbcTemplate.update(BOUNDARY_UPDATE, boundary, boundary);
+        }
+    }
+
+    /**
+     * @return true when a range starting at the given date may include archived transactions
+     */
+    public boolean covers(LocalDate start) {
+        return monthKey(YearMonth.from(start)) < boundary();
+    }
+
+    /**
+     * @return the table or view holding every transaction: {@code transaction} while nothing is
+     *         archived, {@code transaction_history} (both tables) afterwards
+     */
+    public String historyTable() {
+        return boundary() == NONE ? "transaction" : "transaction_history";
+    }
+
+    /**
+     * @return the table or view holding every transaction of a range starting at the given date:
+     *         {@code transaction} unless the archive {@link #covers(LocalDate) covers} it
+     */
+    public String tableFor(LocalDate start) {
+        return covers(start) ? "transaction_history" : "transaction";
+    }
+
+    /**
+     * @return the first month not archived, or {@code null} while nothing is archived
+     */
+    public YearMonth firstLiveMonth() {
+        int month = boundary();
+        return month == NONE ? null : toMonth(month);
+    }
+
+    /**
+     * Moves the transactions of every month before the given one to the archive, oldest month first
+     * and each month in its own database transaction. Reads include the archive from the start, so
+     * none of the moved transactions is ever missed; an interrupted call leaves whole months in either
+     * table and can simply be repeated. Moving the boundary blocks for {@link #BOUNDARY_GRACE}.
+     *
+     * @param month the first month to keep in the live table
+     * @return the number of transactions moved
+     */
+    public synchronized long archiveBefore(YearMonth month) {
+        int cutoff = monthKey(month);
+        List<Integer> months = jdbcTemplate.queryForList(LIVE_MONTHS_QUERY, Integer.class, cutoff);
+        if (months.isEmpty()) {
+            return 0;
+        }
+        if (boundary() < cutoff) {
+            jdbcTemplate.update(BOUNDARY_UPDATE, cutoff, cutoff);
+            try {
+                Thread.sleep(BOUNDARY_GRACE.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted before archiving transactions", ex);
+            }
+        }
+        long moved = 0;
+        for (int monthKey : months) {
+            Integer copied = transactionTemplate.execute(status -> {
+                int rows = jdbcTemplate.update(COPY_MONTH, monthKey);
+                jdbcTemplate.update(DELETE_MONTH, monthKey);
+                return rows;
+            });
+            moved += copied;
+        }
+        log.info("Archived {} transactions of {} months before {}", moved, months.size(), month);
+        return moved;
+    }
+
+    /**
+     * @return the month key before which archived months may exist, or {@link #NONE}
+     */
+    private int boundary() {
+        List<Integer> boundary = jdbcTemplate.queryForList(BOUNDARY_QUERY, Integer.class);
+        return boundary.isEmpty() ? NONE : boundary.get(0);
+    }
+
+    /**
+     * @return the {@code month_key} of a month, {@code yyyyMM}
+     */
+    public static int monthKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    private static YearMonth toMonth(int monthKey) {
+        return YearMonth.of(monthKey / 100, monthKey % 100);
+    }
+}
@@ -1,14 +1,51 @@
 package com.charter.rewards.repository;
 
+import com.charter.rewards.model.HistoricalTransaction;
 import com.charter.rewards.model.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionAggregateRepository {
 
     List<Transaction> findByCustomerIdAndDateBetween(Long customerId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Reads only the date and amount of a customer's transactions in a period. Unlike
+     * {@link #findByCustomerIdAndDateBetween}, no entity is built or tracked by the persistence context
+     * and the customer is never loaded, so the query is answered from the
+     * {@code (customer_id, date, amount)} index alone.
+     *
+     * @param customerId the customer whose transactions are read
+     * @param startDate  first day of the period (inclusive)
+     * @param endDate    last day of the period (inclusive)
+     * @return the date and amount of every transaction in the period, ordered by date
+     */
+    @Query("select new com.charter.rewards.repository.TransactionAmount(t.date, t.amountCents) from Transaction t "
+            + "where t.customer.id = :customerId and t.date between :startDate and :endDate order by t.date")
+    List<TransactionAmount> findAmountsByCustomerIdAndDateBetween(@Param("customerId") Long customerId,
+                                                                  @Param("startDate") LocalDate startDate,
+                                                                  @Param("endDate") LocalDate endDate);
+
+    /**
+     * History counterpart of {@link #findAmountsByCustomerIdAndDateBetween}, reading live and archived
+     * transactions in one statement through the {@code transaction_history} view, so a month moved to
+     * the archive meanwhile is read exactly once. Only worth calling when {@link TransactionArchive#covers}
+     * the start of the period.
+     */
+    @Query("select new com.charter.rewards.repository.TransactionAmount(t.date, t.amountCents) "
+            + "from HistoricalTransaction t where t.customer.id = :customerId and t.date between :startDate and :endDate "
+            + "order by t.date")
+    List<TransactionAmount> findHistoryAmountsByCustomerIdAndDateBetween(@Param("customerId") Long customerId,
+                                                                         @Param("startDate") LocalDate startDate,
+                                                                         @Param("endDate") LocalDate endDate);
+
+    @Query("select t from HistoricalTransaction t")
+    Stream<HistoricalTransaction> streamHistoryBy();
 }
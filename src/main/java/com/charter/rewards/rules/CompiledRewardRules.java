@@ -0,0 +1,222 @@
+package com.charter.rewards.rules;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, pre-computed form of the reward tiers and promotions.
+ * <p>
+ * A tier earns {@code multiplier} points per dollar for the part of an amount above its threshold,
+ * up to the next tier's threshold. Amounts and thresholds are whole cents and all arithmetic is on
+ * {@code long}: the point-cents accumulated below each threshold are computed once at compile time,
+ * so evaluating an amount is one comparison per tier from the top, one multiply-add and one division
+ * by 100, exact for every amount.
+ * <p>
+ * A promotion scales the points of a transaction by a percentage when its optional city and date
+ * window match. When several promotions match, the one with the highest percentage applies.
+ */
+public final class CompiledRewardRules {
+
+    private final long[] thresholds;
+    private final int[] multipliers;
+    /** Point-cents earned below each threshold, i.e. 100 times the points. */
+    private final long[] basePointCents;
+    private final Promotion[] promotions;
+    private final boolean cityPromotions;
+    private final String jpqlPoints;
+
+    private CompiledRewardRules(long[] thresholds, int[] multipliers, Promotion[] promotions) {
+        this.thresholds = thresholds;
+        this.multipliers = multipliers;
+        this.basePointCents = new long[thresholds.length];
+        for (int i = 1; i < thresholds.length; i++) {
+            basePointCents[i] = basePointCents[i - 1] + multipliers[i - 1] * (thresholds[i] - thresholds[i - 1]);
+        }
+        this.promotions = promotions;
+        boolean anyCity = false;
+        for (Promotion promotion : promotions) {
+            anyCity |= promotion.city != null;
+        }
+        this.cityPromotions = anyCity;
+        this.jpqlPoints = buildJpqlPoints();
+    }
+
+    /**
+     * The tiers the service has always used: 1 point per dollar over $50 and 2 points per dollar over $100.
+     */
+    public static CompiledRewardRules defaults() {
+        return compile(List.of(new TierDefinition(5_000, 1), new TierDefinition(10_000, 2)), List.of());
+    }
+
+    /**
+     * Validates and compiles rule definitions.
+     *
+     * @param tiers      tier definitions in any order; thresholds must be distinct and non-negative
+     * @param promotions promotion definitions; may be empty
+     * @return the compiled rules
+     * @throws IllegalArgumentException if a definition is invalid
+     */
+    public static CompiledRewardRules compile(List<TierDefinition> tiers, List<PromotionDefinition> promotions) {
+        List<TierDefinition> sorted = new ArrayList<>(tiers);
+        sorted.sort(Comparator.comparingLong(TierDefinition::thresholdCents));
+        long[] thresholds = new long[sorted.size()];
+        int[] multipliers = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            TierDefinition tier = sorted.get(i);
+            if (tier.thresholdCents() < 0 || tier.multiplier() < 0) {
+                throw new IllegalArgumentException("Reward tier thresholds and multipliers must not be negative");
+            }
+            if (i > 0 && tier.thresholdCents() == thresholds[i - 1]) {
+                throw new IllegalArgumentException("Duplicate reward tier threshold " + tier.thresholdCents());
+            }
+            thresholds[i] = tier.thresholdCents();
+            multipliers[i] = tier.multiplier();
+        }
+
+        List<Promotion> compiled = new ArrayList<>(promotions.size());
+        for (PromotionDefinition definition : promotions) {
+            if (definition.multiplierPercent() <= 0) {
+                throw new IllegalArgumentException("Promotion " + definition.name() + " must have a positive multiplier");
+            }
+            if (definition.startDate() != null && definition.endDate() != null
+                    && definition.startDate().isAfter(definition.endDate())) {
+                throw new IllegalArgumentException("Promotion " + definition.name() + " ends before it starts");
+            }
+            compiled.add(new Promotion(definition.city(),
+                    definition.startDate() == null ? Long.MIN_VALUE : definition.startDate().toEpochDay(),
+                    definition.endDate() == null ? Long.MAX_VALUE : definition.endDate().toEpochDay(),
+                    definition.multiplierPercent()));
+        }
+        compiled.sort(Comparator.comparingInt(Promotion::multiplierPercent).reversed());
+        return new CompiledRewardRules(thresholds, multipliers, compiled.toArray(Promotion[]::new));
+    }
+
+    /**
+     * Points earned by an amount under the tiers alone.
+     *
+     * @param amountCents the transaction amount in cents
+     */
+    public int points(long amountCents) {
+        for (int i = thresholds.length - 1; i >= 0; i--) {
+            if (amountCents > thresholds[i]) {
+                return (int) ((basePointCents[i] + multipliers[i] * (amountCents - thresholds[i])) / 100);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Points earned by a transaction, including the best matching promotion.
+     *
+     * @param amountCents the transaction amount in cents
+     * @param date        the transaction date
+     * @param city        the customer's city; may be {@code null}
+     * @return the reward points
+     */
+    public int points(long amountCents, LocalDate date, String city) {
+        return points(amountCents, date.toEpochDay(), city);
+    }
+
+    /**
+     * Same as {@link #points(long, LocalDate, String)} for a date given as an
+     * {@link LocalDate#toEpochDay() epoch day}.
+     */
+    public int points(long amountCents, long epochDay, String city) {
+        int points = points(amountCents);
+        if (promotions.length == 0 || points == 0) {
+            return points;
+        }
+        for (Promotion promotion : promotions) {
+            if (promotion.matches(epochDay, city)) {
+                return points * promotion.multiplierPercent / 100;
+            }
+        }
+        return points;
+    }
+
+    public boolean hasPromotions() {
+        return promotions.length > 0;
+    }
+
+    /**
+     * @return true when the points of a transaction depend on the customer's city
+     */
+    public boolean hasCityPromotions() {
+        return cityPromotions;
+    }
+
+    public int tierCount() {
+        return thresholds.length;
+    }
+
+    public int promotionCount() {
+        return promotions.length;
+    }
+
+    /**
+     * JPQL expression computing the points of one transaction exactly like
+     * {@link #points(long, LocalDate, String)}, for a {@code Transaction} aliased {@code t}.
+     * The city is read through {@code t.customer.city}, which is only referenced when a
+     * promotion is restricted to a city.
+     */
+    public String jpqlPoints() {
+        return jpqlPoints;
+    }
+
+    private String buildJpqlPoints() {
+        StringBuilder base = new StringBuilder("case");
+        for (int i = thresholds.length - 1; i >= 0; i--) {
+            base.append(" when t.amountCents > ").append(thresholds[i])
+                    .append(" then (").append(basePointCents[i]).append(" + ").append(multipliers[i])
+                    .append(" * (t.amountCents - ").append(thresholds[i]).append(")) / 100");
+        }
+        base.append(" else 0 end");
+        if (thresholds.length == 0) {
+            base = new StringBuilder("0");
+        }
+        if (promotions.length == 0) {
+            return base.toString();
+        }
+        StringBuilder expression = new StringBuilder("case");
+        for (Promotion promotion : promotions) {
+            List<String> conditions = new ArrayList<>();
+            if (promotion.city != null) {
+                conditions.add("t.customer.city = '" + promotion.city.replace("'", "''") + "'");
+            }
+            if (promotion.firstDay != Long.MIN_VALUE) {
+                conditions.add("t.date >= {d '" + LocalDate.ofEpochDay(promotion.firstDay) + "'}");
+            }
+            if (promotion.lastDay != Long.MAX_VALUE) {
+                conditions.add("t.date <= {d '" + LocalDate.ofEpochDay(promotion.lastDay) + "'}");
+            }
+            String condition = conditions.isEmpty() ? "1 = 1" : String.join(" and ", conditions);
+            expression.append(" when ").append(condition).append(" then (").append(base).append(") * ")
+                    .append(promotion.multiplierPercent).append(" / 100");
+        }
+        return expression.append(" else ").append(base).append(" end").toString();
+    }
+
+    /**
+     * A tier as defined in configuration: points per dollar above a threshold given in cents.
+     */
+    public record TierDefinition(long thresholdCents, int multiplier) {
+    }
+
+    /**
+     * A promotion as defined in configuration. City and dates are optional; a missing date leaves
+     * that side of the window open.
+     */
+    public record PromotionDefinition(String name, String city, LocalDate startDate, LocalDate endDate,
+                                      int multiplierPercent) {
+    }
+
+    private record Promotion(String city, long firstDay, long lastDay, int multiplierPercent) {
+
+        boolean matches(long day, String customerCity) {
+            return day >= firstDay && day <= lastDay && (city == null || Objects.equals(city, customerCity));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.charter.rewards.rules;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the reward rules currently in effect. Readers take one {@link #current()} snapshot per
+ * calculation so a concurrent reload never mixes two rule sets inside a single result.
+ */
+@Component
+public class RewardRuleEngine {
+
+    private final AtomicReference<CompiledRewardRules> rules;
+
+    public RewardRuleEngine() {
+        this(CompiledRewardRules.defaults());
+    }
+
+    public RewardRuleEngine(CompiledRewardRules rules) {
+        this.rules = new AtomicReference<>(rules);
+    }
+
+    public CompiledRewardRules current() {
+        return rules.get();
+    }
+
+    /**
+     * Replaces the rules in effect.
+     *
+     * @param next the new rules
+     * @return the rules that were replaced
+     */
+    public CompiledRewardRules swap(CompiledRewardRules next) {
+        return rules.getAndSet(next);
+    }
+}
@@ -0,0 +1,84 @@
+package com.charter.rewards.rules;
+
+import com.charter.rewards.event.RewardRulesChangedEvent;
+import com.charter.rewards.model.RewardPromotion;
+import com.charter.rewards.model.RewardTier;
+import com.charter.rewards.repository.RewardPromotionRepository;
+import com.charter.rewards.repository.RewardTierRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Loads tier and promotion definitions from the {@code reward_tier} and {@code reward_promotion}
+ * tables, compiles them and installs them in the {@link RewardRuleEngine}. When no tier is
+ * defined the built-in {@link CompiledRewardRules#defaults() defaults} are used.
+ * <p>
+ * Created eagerly even under {@code spring.main.lazy-initialization}: nothing else needs the loader
+ * itself, but the rules must be in place before the first request. Beans that need the loaded rules
+ * when they are created depend on it by name.
+ */
+@Component("rewardRuleLoader")
+@Lazy(false)
+public class RewardRuleLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardRuleLoader.class);
+
+    private final RewardTierRepository tierRepository;
+    private final RewardPromotionRepository promotionRepository;
+    private final RewardRuleEngine ruleEngine;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RewardRuleLoader(RewardTierRepository tierRepository, RewardPromotionRepository promotionRepository,
+                            RewardRuleEngine ruleEngine, ApplicationEventPublisher eventPublisher) {
+        this.tierRepository = tierRepository;
+        this.promotionRepository = promotionRepository;
+        this.ruleEngine = ruleEngine;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    void load() {
+        ruleEngine.swap(compile());
+    }
+
+    /**
+     * Re-reads the rule tables and swaps the new rules in without a restart. Listeners of
+     * {@link RewardRulesChangedEvent} drop or rebuild everything derived from the old rules.
+     *
+     * @return the rules now in effect
+     * @throws IllegalArgumentException if the stored definitions are invalid; the old rules stay in effect
+     */
+    public CompiledRewardRules reload() {
+        CompiledRewardRules rules = compile();
+        ruleEngine.swap(rules);
+        eventPublisher.publishEvent(new RewardRulesChangedEvent(rules));
+        return rules;
+    }
+
+    private CompiledRewardRules compile() {
+        List<RewardTier> tiers = tierRepository.findAll();
+        if (tiers.isEmpty()) {
+            log.info("No reward tiers defined, using the default tiers");
+            return CompiledRewardRules.defaults();
+        }
+        List<RewardPromotion> promotions = promotionRepository.findAll();
+        CompiledRewardRules rules = CompiledRewardRules.compile(
+                tiers.stream()
+                        .map(tier -> new CompiledRewardRules.TierDefinition(
+                                tier.getThreshold().movePointRight(2).longValueExact(), tier.getMultiplier()))
+                        .toList(),
+                promotions.stream()
+                        .map(promotion -> new CompiledRewardRules.PromotionDefinition(promotion.getName(),
+                                promotion.getCity(), promotion.getStartDate(), promotion.getEndDate(),
+                                promotion.getMultiplierPercent()))
+                        .toList());
+        log.info("Loaded {} reward tiers and {} promotions", rules.tierCount(), rules.promotionCount());
+        return rules;
+    }
+}
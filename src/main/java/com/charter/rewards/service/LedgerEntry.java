@@ -0,0 +1,15 @@
+package com.charter.rewards.service;
+
+/**
+ * One transaction waiting to be added to the reward ledger by {@link RewardLedgerWriteBehind}.
+ *
+ * @param offset           position of the entry in its {@link LedgerLog}
+ * @param transactionId    ID of the persisted transaction
+ * @param customerId       owner of the transaction
+ * @param epochDay         transaction date as a {@link java.time.LocalDate#toEpochDay() epoch day}
+ * @param amountCents      transaction amount in cents
+ * @param appendedAtMillis wall-clock time at which the entry was logged, for lag measurement
+ */
+record LedgerEntry(long offset, long transactionId, long customerId, int epochDay, long amountCents,
+                   long appendedAtMillis) {
+}
@@ -0,0 +1,123 @@
+package com.charter.rewards.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only file of fixed-size {@link LedgerEntry} records. An entry's offset is its record
+ * number, so any range can be read back by position. Appends are forced to disk before they
+ * return; a record left incomplete by a crash is cut off when the log is opened.
+ */
+final class LedgerLog implements Closeable {
+
+    /** transaction ID, customer ID, epoch day, amount in cents, append time. */
+    static final int RECORD_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    private final FileChannel channel;
+    private volatile long size;
+
+    LedgerLog(Path file) {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            size = channel.size() / RECORD_SIZE;
+            channel.truncate(size * RECORD_SIZE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open ledger log " + file, ex);
+        }
+    }
+
+    /**
+     * @return the number of entries in the log, which is also the offset of the next append
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Appends one record per transaction and forces them to disk.
+     *
+     * @param transactionIds IDs of the transactions, in append order
+     * @param customerIds    owners of the transactions
+     * @param epochDays      transaction dates
+     * @param amountsCents   transaction amounts
+     * @param count          number of transactions to append from the arrays
+     * @param appendedAt     time stamp stored with every record
+     * @return the appended entries, with their offsets
+     */
+    synchronized List<LedgerEntry> append(long[] transactionIds, long[] customerIds, int[] epochDays,
+                                          long[] amountsCents, int count, long appendedAt) {
+        ByteBuffer buffer = ByteBuffer.allocate(count * RECORD_SIZE);
+        List<LedgerEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(transactionIds[i]).putLong(customerIds[i]).putInt(epochDays[i])
+                    .putLong(amountsCents[i]).putLong(appendedAt);
+            entries.add(new LedgerEntry(size + i, transactionIds[i], customerIds[i], epochDays[i], amountsCents[i],
+                    appendedAt));
+        }
+        buffer.flip();
+        try {
+            long position = size * RECORD_SIZE;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot append to ledger log", ex);
+        }
+        size += count;
+        return entries;
+    }
+
+    /**
+     * Reads up to {@code max} entries starting at the given offset.
+     */
+    List<LedgerEntry> read(long fromOffset, int max) {
+        int count = (int) Math.max(0, Math.min(max, size - fromOffset));
+        ByteBuffer buffer = ByteBuffer.allocate(count * RECORD_SIZE);
+        try {
+            long position = fromOffset * RECORD_SIZE;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Ledger log ended before offset " + (fromOffset + count));
+                }
+                position += read;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read ledger log", ex);
+        }
+        buffer.flip();
+        List<LedgerEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new LedgerEntry(fromOffset + i, buffer.getLong(), buffer.getLong(), buffer.getInt(),
+                    buffer.getLong(), buffer.getLong()));
+        }
+        return entries;
+    }
+
+    /**
+     * Removes every entry; offsets start again from zero.
+     */
+    synchronized void truncate() {
+        try {
+            channel.truncate(0);
+            channel.force(true);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot truncate ledger log", ex);
+        }
+        size = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
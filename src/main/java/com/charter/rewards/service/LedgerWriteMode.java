@@ -0,0 +1,11 @@
+package com.charter.rewards.service;
+
+/**
+ * How new transactions reach the monthly reward ledger.
+ */
+public enum LedgerWriteMode {
+    /** The writing transaction updates the ledger rows itself. */
+    SYNC,
+    /** The {@link RewardLedgerWriteBehind} pipeline applies them in batches after commit. */
+    ASYNC
+}
@@ -0,0 +1,145 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.model.Customer;
+import com.charter.rewards.model.MonthlyReward;
+import com.charter.rewards.model.RewardSummary;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Accumulates reward points into primitive per-month buckets indexed by the month offset from the
+ * start of the period. Adding a transaction allocates nothing; {@link MonthlyReward} objects are only
+ * created by {@link #toSummary(Customer)}, already in month order. An instance can be reused for
+ * successive periods through {@link #reset(LocalDate, LocalDate)} but is not thread-safe.
+ */
+final class MonthlyPointsAggregator {
+
+    /**
+     * Most months a period may span; requests are limited to far fewer by
+     * {@code rewards.max-period-months}, this only keeps any other caller from sizing huge buckets.
+     */
+    static final int MAX_MONTHS = 12_000;
+
+    private int[] points = new int[0];
+    private boolean[] present = new boolean[0];
+    /** Epoch day of the first day of each month of the period, plus the day after the period's last month. */
+    private long[] monthStartDays = new long[1];
+    /** Month index ({@code year * 12 + month - 1}) of the first month of the period. */
+    private long firstMonth;
+    private int months;
+
+    MonthlyPointsAggregator(LocalDate start, LocalDate end) {
+        reset(start, end);
+    }
+
+    /**
+     * Clears all buckets and resizes them for the months spanned by the given period. Month indexes
+     * are longs, as {@code year * 12} overflows an int for the years a {@link LocalDate} allows.
+     *
+     * @throws IllegalArgumentException if the period ends before it starts or spans more than
+     *                                  {@link #MAX_MONTHS} months
+     */
+    void reset(LocalDate start, LocalDate end) {
+        long first = monthIndex(start.getYear(), start.getMonthValue());
+        long span = monthIndex(end.getYear(), end.getMonthValue()) - first + 1;
+        if (span < 1 || span > MAX_MONTHS) {
+            throw new IllegalArgumentException("Period must span between 1 and " + MAX_MONTHS + " months");
+        }
+        firstMonth = first;
+        months = (int) span;
+        if (points.length < months) {
+            points = new int[months];
+            present = new boolean[months];
+        } else {
+            Arrays.fill(points, 0, months, 0);
+            Arrays.fill(present, 0, months, false);
+        }
+        if (monthStartDays.length < months + 1) {
+            monthStartDays = new long[months + 1];
+        }
+        for (int offset = 0; offset <= months; offset++) {
+            long month = firstMonth + offset;
+            monthStartDays[offset] = LocalDate.of(Math.toIntExact(Math.floorDiv(month, 12)),
+                    Math.floorMod(month, 12) + 1, 1).toEpochDay();
+        }
+    }
+
+    void add(LocalDate date, int rewardPoints) {
+        add(date.getYear(), date.getMonthValue(), rewardPoints);
+    }
+
+    /**
+     * Adds points to a month of the period.
+     *
+     * @param year         the calendar year
+     * @param month        the month of year, 1 to 12
+     * @param rewardPoints the points to add; a month is reported even if all its points are zero
+     */
+    void add(int year, int month, int rewardPoints) {
+        long offset = monthIndex(year, month) - firstMonth;
+        if (offset < 0 || offset >= months) {
+            throw new IllegalArgumentException("Month " + year + "-" + month + " is outside the aggregated period");
+        }
+        points[(int) offset] += rewardPoints;
+        present[(int) offset] = true;
+    }
+
+    /**
+     * Adds points to the month containing the given {@link LocalDate#toEpochDay() epoch day}, found by
+     * binary search over the month boundaries of the period, without creating a date.
+     */
+    void addEpochDay(long epochDay, int rewardPoints) {
+        int offset = Arrays.binarySearch(monthStartDays, 0, months + 1, epochDay);
+        if (offset < 0) {
+            offset = -offset - 2;
+        }
+        if (offset < 0 || offset >= months) {
+            throw new IllegalArgumentException("Day " + LocalDate.ofEpochDay(epochDay)
+                    + " is outside the aggregated period");
+        }
+        points[offset] += rewardPoints;
+        present[offset] = true;
+    }
+
+    /**
+     * Builds the response for a customer from the months that received at least one value.
+     */
+    RewardSummary toSummary(Customer customer) {
+        List<MonthlyReward> monthlyRewards = new ArrayList<>();
+        int total = 0;
+        for (int offset = 0; offset < months; offset++) {
+            if (present[offset]) {
+                total += points[offset];
+                monthlyRewards.add(new MonthlyReward(monthLabel(firstMonth + offset), points[offset]));
+            }
+        }
+        return new RewardSummary(customer.getId(), customer.getName(), customer.getPhone(), customer.getCity(),
+                total, monthlyRewards.isEmpty() ? List.of() : Collections.unmodifiableList(monthlyRewards));
+    }
+
+    private static long monthIndex(int year, int month) {
+        return year * 12L + month - 1;
+    }
+
+    /**
+     * Formats a month index as {@code yyyy-MM}, the same text as {@link YearMonth#toString()}.
+     */
+    private static String monthLabel(long monthIndex) {
+        int year = Math.toIntExact(Math.floorDiv(monthIndex, 12));
+        int month = Math.floorMod(monthIndex, 12) + 1;
+        if (year < 1000 || year > 9999) {
+            return YearMonth.of(year, month).toString();
+        }
+        char[] label = {
+                (char) ('0' + year / 1000 % 10), (char) ('0' + year / 100 % 10),
+                (char) ('0' + year / 10 % 10), (char) ('0' + year % 10), '-',
+                (char) ('0' + month / 10), (char) ('0' + month % 10)
+        };
+        return new String(label);
+    }
+}
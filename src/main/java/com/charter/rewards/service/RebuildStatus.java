@@ -0,0 +1,13 @@
+package com.charter.rewards.service;
+
+/**
+ * State of a {@link RewardLedgerRebuildJob} run as reported by its progress.
+ */
+public enum RebuildStatus {
+    /** No rebuild has run in this process. */
+    IDLE,
+    RUNNING,
+    COMPLETED,
+    /** A partition failed; the partitions that completed stay checkpointed for a resume. */
+    FAILED
+}
@@ -0,0 +1,88 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.exception.CustomerNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Computes the reward summaries of the most active customers on startup, so the first requests for
+ * them are served from the summary cache and the query path is already compiled by the JIT.
+ * <p>
+ * Customers are ranked by their ledger transaction count over the period a request without dates
+ * covers (the last three months), and the summaries are computed for exactly that period. Runners
+ * complete before the application reports itself ready to accept traffic, so a node behind a
+ * readiness probe only receives requests once the warm-up is over or has used up
+ * {@code rewards.warmup.timeout}. Enabled with {@code rewards.warmup.enabled=true}.
+ */
+@Component
+@Order(1)
+@ConditionalOnProperty(prefix = "rewards.warmup", name = "enabled", havingValue = "true")
+public class RewardCacheWarmer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardCacheWarmer.class);
+
+    private static final String MOST_ACTIVE_QUERY = "SELECT customer_id FROM customer_monthly_reward "
+            + "WHERE reward_month BETWEEN ? AND ? GROUP BY customer_id "
+            + "ORDER BY SUM(transaction_count) DESC, customer_id LIMIT ?";
+
+    private final RewardService rewardService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int customers;
+    private final Duration timeout;
+
+    public RewardCacheWarmer(RewardService rewardService, JdbcTemplate jdbcTemplate, RewardProperties properties) {
+        this.rewardService = rewardService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.customers = properties.getWarmup().getCustomers();
+        this.timeout = properties.getWarmup().getTimeout();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp(LocalDate.now());
+    }
+
+    /**
+     * Computes the summaries of the most active customers for the three months ending on the given
+     * day, stopping early when the timeout runs out.
+     *
+     * @param end the last day of the period, normally today
+     * @return the number of summaries computed
+     */
+    public int warmUp(LocalDate end) {
+        long started = System.nanoTime();
+        long deadline = started + timeout.toNanos();
+        LocalDate start = end.minusMonths(2);
+        List<Long> customerIds = jdbcTemplate.queryForList(MOST_ACTIVE_QUERY, Long.class,
+                Date.valueOf(start.withDayOfMonth(1)), Date.valueOf(end), customers);
+
+        int warmed = 0;
+        for (Long customerId : customerIds) {
+            if (System.nanoTime() - deadline > 0) {
+                log.warn("Reward warm-up timed out after {} of {} customers", warmed, customerIds.size());
+                break;
+            }
+            try {
+                rewardService.getRewardsForCustomerForPeriod(customerId, start, end);
+                warmed++;
+            } catch (CustomerNotFoundException e) {
+                // Removed since its ledger rows were written; nothing to warm
+            }
+        }
+        log.info("Warmed up reward summaries of {} customers for {} to {} in {} ms",
+                warmed, start, end, (System.nanoTime() - started) / 1_000_000);
+        return warmed;
+    }
+}
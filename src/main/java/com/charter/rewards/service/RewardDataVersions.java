@@ -0,0 +1,111 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.RewardLedgerUpdatedEvent;
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.exception.CustomerNotFoundException;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Versions of the data behind reward summaries, from which {@code RewardController} derives ETags
+ * without computing the summary.
+ * <p>
+ * A customer's version is the {@code data_version} column of its {@code customer} row, moved in the
+ * same database transaction as every change to the customer's transactions or ledger rows, so a tag
+ * moves with every change, whichever instance sharing the database made it. Reading it costs one
+ * primary key lookup, made in a read-only transaction like the summary it tags: with a replica
+ * configured both come from the replica.
+ * <p>
+ * Summaries may also come from state held by this instance, which follows a change only after its
+ * commit: cached summaries, the columnar store and the points index, and all of them while a rules
+ * reload rebuilds them. The tag therefore also carries the customer's {@link RewardSummaryCache#version
+ * cache version}, which moves once that state has caught up with a write or a rules reload, and an ID
+ * of this instance, since those versions are its own. A summary read before it caught up is sent with
+ * a tag that is never handed out again afterwards, so it cannot be pinned by Not Modified answers;
+ * the cost is one extra full response per instance a client alternates between, and after a restart.
+ */
+@Component
+public class RewardDataVersions {
+
+    private static final String VERSION_QUERY = "SELECT data_version FROM customer WHERE id = ?";
+    private static final String VERSION_UPDATE = "UPDATE customer SET data_version = data_version + 1 WHERE id = ?";
+    private static final String ALL_VERSIONS_UPDATE = "UPDATE customer SET data_version = data_version + 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RewardSummaryCache summaryCache;
+    private final boolean syncLedger;
+    /** Tells the tags of this instance from those of other instances and earlier runs. */
+    private final String instance = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+
+    public RewardDataVersions(JdbcTemplate jdbcTemplate, RewardSummaryCache summaryCache,
+                              RewardProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.summaryCache = summaryCache;
+        this.syncLedger = properties.getLedger().getWriteMode() == LedgerWriteMode.SYNC;
+    }
+
+    /**
+     * Returns a weak ETag for the summary of a customer over a period in a response format, valid until
+     * the customer's data or the rules change and this instance has caught up with the change. Read it
+     * before computing the summary it is sent with.
+     *
+     * @throws CustomerNotFoundException if no customer exists for the given ID
+     */
+    @Transactional(readOnly = true)
+    public String etag(Long customerId, LocalDate start, LocalDate end, String format)
+            throws CustomerNotFoundException {
+        long cacheVersion = summaryCache.version(customerId);
+        List<Long> versions = jdbcTemplate.queryForList(VERSION_QUERY, Long.class, customerId);
+        if (versions.isEmpty()) {
+            throw new CustomerNotFoundException("Customer not found. Customer Id: " + customerId);
+        }
+        return "W/\"" + instance + "-" + cacheVersion + "-" + versions.get(0) + "-" + start + "-" + end
+                + "-" + format + "\"";
+    }
+
+    /**
+     * Moves the versions of the given customers as part of the current transaction. Rows are updated
+     * in ID order, so concurrent writers lock them in the same order.
+     */
+    public void customersChanged(Collection<Long> customerIds) {
+        List<Object[]> ids = new TreeSet<>(customerIds).stream().map(id -> new Object[]{id}).toList();
+        jdbcTemplate.batchUpdate(VERSION_UPDATE, ids);
+    }
+
+    /**
+     * Moves the version of every customer, for changes that may touch any summary.
+     */
+    public void allCustomersChanged() {
+        jdbcTemplate.update(ALL_VERSIONS_UPDATE);
+    }
+
+    /**
+     * Runs in the writing transaction, so the versions commit with the transactions.
+     */
+    @EventListener
+    public void onTransactionsRecorded(TransactionsRecordedEvent event) {
+        customersChanged(event.getCustomerIds());
+    }
+
+    /**
+     * Ledger rows may change after the transactions did when they are applied by the write-behind
+     * pipeline, and summaries read from the ledger change with them. Synchronous ledger updates
+     * commit with the transactions, whose event has already moved the versions.
+     */
+    @EventListener
+    public void onLedgerUpdated(RewardLedgerUpdatedEvent event) {
+        if (syncLedger) {
+            return;
+        }
+        customersChanged(event.getAdditions().stream().map(addition -> addition.getId().getCustomerId()).toList());
+    }
+}
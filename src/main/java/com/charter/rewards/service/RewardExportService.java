@@ -0,0 +1,168 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.model.Customer;
+import com.charter.rewards.model.RewardSummary;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Streams the reward summary of every customer as newline-delimited JSON.
+ * Customers are read in pages of {@code rewards.export.page-size} by customer ID, each page joined with
+ * its transactions in one query, so memory is bounded by a page whatever the number of customers and
+ * whether or not the database materializes result sets (H2 does unless lazy query execution is on).
+ */
+@Service
+public class RewardExportService {
+
+    private static final String EXPORT_QUERY = "SELECT c.id, c.name, c.phone, c.city, t.date, t.amount_cents "
+            + "FROM (SELECT id, name, phone, city FROM customer WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY) c "
+            + "LEFT JOIN %s t ON t.customer_id = c.id AND t.date BETWEEN ? AND ? "
+            + "ORDER BY c.id";
+
+    /** Number of summaries written between explicit flushes of the response. */
+    private static final int FLUSH_INTERVAL = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter summaryWriter;
+    private final RewardRuleEngine ruleEngine;
+    private final TransactionArchive archive;
+    private final int pageSize;
+
+    public RewardExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper, RewardRuleEngine ruleEngine, TransactionArchive archive,
+                               RewardProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(500);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.summaryWriter = objectMapper.writerFor(RewardSummary.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.ruleEngine = ruleEngine;
+        this.archive = archive;
+        this.pageSize = properties.getExport().getPageSize();
+    }
+
+    /**
+     * Writes one {@link RewardSummary} line per customer, in customer ID order, to the given stream.
+     * The pages are read in one read-only transaction.
+     * The stream is flushed after the first line and then every {@value #FLUSH_INTERVAL} lines.
+     *
+     * @param start the start date of the reward calculation period (inclusive)
+     * @param end   the end date of the reward calculation period (inclusive)
+     * @param out   the response stream; it is flushed but not closed
+     * @return the number of customers exported
+     */
+    public long exportAll(LocalDate start, LocalDate end, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            SummaryStreamer streamer = new SummaryStreamer(summaryWriter, generator, ruleEngine.current(),
+                    start, end);
+            String query = EXPORT_QUERY.formatted(archive.tableFor(start));
+            readOnlyTransaction.executeWithoutResult(status -> {
+                long lastCustomerId = Long.MIN_VALUE;
+                int customers;
+                do {
+                    long startedBefore = streamer.started;
+                    jdbcTemplate.query(query, streamer, lastCustomerId, pageSize, Date.valueOf(start), Date.valueOf(end));
+                    customers = Math.toIntExact(streamer.started - startedBefore);
+                    lastCustomerId = streamer.lastCustomerId;
+                } while (customers == pageSize);
+            });
+            streamer.finish();
+            generator.flush();
+            return streamer.exported;
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Folds consecutive rows of the same customer into a summary and emits it when the customer changes.
+     */
+    private static final class SummaryStreamer implements RowCallbackHandler {
+
+        private final ObjectWriter summaryWriter;
+        private final JsonGenerator generator;
+        private final CompiledRewardRules rules;
+        private final MonthlyPointsAggregator aggregator;
+        private final LocalDate start;
+        private final LocalDate end;
+        private Customer current;
+        /** Customers read so far, and the ID of the last one; the next page starts after it. */
+        private long started;
+        private long lastCustomerId;
+        private long exported;
+
+        private SummaryStreamer(ObjectWriter summaryWriter, JsonGenerator generator, CompiledRewardRules rules,
+                                LocalDate start, LocalDate end) {
+            this.summaryWriter = summaryWriter;
+            this.generator = generator;
+            this.rules = rules;
+            this.aggregator = new MonthlyPointsAggregator(start, end);
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long customerId = rs.getLong(1);
+            if (current == null || current.getId() != customerId) {
+                finish();
+                started++;
+                lastCustomerId = customerId;
+                current = new Customer();
+                current.setId(customerId);
+                current.setName(rs.getString(2));
+                current.setPhone(rs.getString(3));
+                current.setCity(rs.getString(4));
+            }
+            Date date = rs.getDate(5);
+            if (date != null) {
+                LocalDate day = date.toLocalDate();
+                aggregator.add(day, rules.points(rs.getLong(6), day, current.getCity()));
+            }
+        }
+
+        private void finish() {
+            if (current == null) {
+                return;
+            }
+            try {
+                summaryWriter.writeValue(generator, aggregator.toSummary(current));
+                generator.writeRaw('\n');
+                exported++;
+                if (exported == 1 || exported % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            current = null;
+            aggregator.reset(start, end);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.RewardLedgerRebuiltEvent;
+import com.charter.rewards.event.RewardLedgerUpdatedEvent;
+import com.charter.rewards.model.CityRewardTotal;
+import com.charter.rewards.model.CustomerMonthlyReward;
+import com.charter.rewards.model.Leaderboard;
+import com.charter.rewards.model.LeaderboardEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Monthly leaderboards of reward points, overall and per city, with the point totals of every city.
+ * <p>
+ * Each month keeps the running total of every customer with ledger points in it, a bounded top-K of
+ * customers overall and per city, and the totals of each city. The boards are built from the ledger
+ * once all singletons are created (and again whenever it is rebuilt), then follow it through
+ * {@link RewardLedgerUpdatedEvent}, so a query copies at most {@code rewards.leaderboard.size} entries
+ * and never scans the customers. Because ledger points only ever grow between rebuilds, a customer
+ * that drops out of a top-K can never need to come back without an update of its own, which keeps
+ * the bounded boards exact.
+ */
+@Service
+@Lazy(false)
+public class RewardLeaderboardService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardLeaderboardService.class);
+
+    private static final String LOAD_QUERY = "SELECT r.customer_id, r.reward_month, r.points, c.city "
+            + "FROM customer_monthly_reward r JOIN customer c ON c.id = r.customer_id";
+
+    private static final String CITY_QUERY = "SELECT city FROM customer WHERE id = ?";
+
+    /** Highest points first; ties are ranked by customer ID. */
+    private static final Comparator<Standing> RANKING = Comparator.comparingLong(Standing::points).reversed()
+            .thenComparingLong(Standing::customerId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int size;
+    private final Map<Long, String> cities = new ConcurrentHashMap<>();
+    private volatile Map<YearMonth, MonthBoard> boards = new ConcurrentHashMap<>();
+
+    public RewardLeaderboardService(JdbcTemplate jdbcTemplate, RewardProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.size = properties.getLeaderboard().getSize();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        int rows = load();
+        log.info("Loaded reward leaderboards from {} ledger rows in {} ms",
+                rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Rebuilds every board from the ledger table. Ledger updates committed while the table is being
+     * read may be missed, so this is meant for startup, a ledger rebuild or a quiet system.
+     *
+     * @return the number of ledger rows read
+     */
+    public int load() {
+        Map<YearMonth, MonthBoard> loaded = new ConcurrentHashMap<>();
+        int[] rows = new int[1];
+        jdbcTemplate.query(LOAD_QUERY, rs -> {
+            Long customerId = rs.getLong(1);
+            String city = rs.getString(4);
+            if (city != null) {
+                cities.put(customerId, city);
+            }
+            loaded.computeIfAbsent(YearMonth.from(rs.getDate(2).toLocalDate()), month -> new MonthBoard(size))
+                    .add(customerId, city, rs.getLong(3));
+            rows[0]++;
+        });
+        boards = loaded;
+        return rows[0];
+    }
+
+    /**
+     * Adds committed ledger points to the boards of their months.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLedgerUpdated(RewardLedgerUpdatedEvent event) {
+        Map<YearMonth, MonthBoard> current = boards;
+        for (CustomerMonthlyReward addition : event.getAdditions()) {
+            Long customerId = addition.getId().getCustomerId();
+            current.computeIfAbsent(YearMonth.from(addition.getId().getRewardMonth()), month -> new MonthBoard(size))
+                    .add(customerId, city(customerId), addition.getPoints());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLedgerRebuilt(RewardLedgerRebuiltEvent event) {
+        load();
+    }
+
+    /**
+     * Returns the customers with the most points in a month, best first.
+     *
+     * @param limit the number of customers to return, at most {@code rewards.leaderboard.size}
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    public Leaderboard getLeaderboard(YearMonth month, int limit) {
+        checkLimit(limit);
+        MonthBoard board = boards.get(month);
+        return new Leaderboard(month.toString(), null, board == null ? List.of() : board.top(limit, cities::get));
+    }
+
+    /**
+     * Returns the customers of a city with the most points in a month, best first. Cities are
+     * matched ignoring case.
+     *
+     * @param limit the number of customers to return, at most {@code rewards.leaderboard.size}
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    public Leaderboard getCityLeaderboard(YearMonth month, String city, int limit) {
+        checkLimit(limit);
+        MonthBoard board = boards.get(month);
+        return board == null ? new Leaderboard(month.toString(), city, List.of()) : board.cityTop(month, city, limit);
+    }
+
+    /**
+     * Returns the points earned in a month by the customers of each city, highest first.
+     */
+    public List<CityRewardTotal> getCityTotals(YearMonth month) {
+        MonthBoard board = boards.get(month);
+        return board == null ? List.of() : board.cityTotals();
+    }
+
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > size) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + size);
+        }
+    }
+
+    private String city(Long customerId) {
+        String city = cities.get(customerId);
+        if (city == null) {
+            List<String> found = jdbcTemplate.queryForList(CITY_QUERY, String.class, customerId);
+            city = found.isEmpty() ? null : found.get(0);
+            if (city != null) {
+                cities.put(customerId, city);
+            }
+        }
+        return city;
+    }
+
+    private record Standing(long customerId, long points) {
+    }
+
+    /**
+     * The boards of one month. Updates and reads of a month are serialized; different months do not contend.
+     */
+    private static final class MonthBoard {
+
+        private final int size;
+        private final Map<Long, Long> totals = new HashMap<>();
+        private final TopK overall;
+        private final Map<String, CityBoard> byCity = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        MonthBoard(int size) {
+            this.size = size;
+            this.overall = new TopK(size);
+        }
+
+        synchronized void add(Long customerId, String city, long points) {
+            Long previous = totals.get(customerId);
+            long total = previous == null ? points : previous + points;
+            totals.put(customerId, total);
+            overall.update(customerId, previous, total);
+            if (city != null) {
+                CityBoard cityBoard = byCity.computeIfAbsent(city, name -> new CityBoard(name, size));
+                if (previous == null) {
+                    cityBoard.customers++;
+                }
+                cityBoard.points += points;
+                cityBoard.top.update(customerId, previous, total);
+            }
+        }
+
+        synchronized List<LeaderboardEntry> top(int limit, LongFunction<String> city) {
+            return overall.entries(limit, city);
+        }
+
+        synchronized Leaderboard cityTop(YearMonth month, String city, int limit) {
+            CityBoard cityBoard = byCity.get(city);
+            if (cityBoard == null) {
+                return new Leaderboard(month.toString(), city, List.of());
+            }
+            return new Leaderboard(month.toString(), cityBoard.name, cityBoard.top.entries(limit, id -> cityBoard.name));
+        }
+
+        synchronized List<CityRewardTotal> cityTotals() {
+            List<CityRewardTotal> totals = new ArrayList<>(byCity.size());
+            for (CityBoard cityBoard : byCity.values()) {
+                totals.add(new CityRewardTotal(cityBoard.name, cityBoard.points, cityBoard.customers));
+            }
+            totals.sort(Comparator.comparingLong(CityRewardTotal::getPoints).reversed()
+                    .thenComparing(CityRewardTotal::getCity));
+            return totals;
+        }
+    }
+
+    private static final class CityBoard {
+
+        private final String name;
+        private final TopK top;
+        private long points;
+        private int customers;
+
+        CityBoard(String name, int size) {
+            this.name = name;
+            this.top = new TopK(size);
+        }
+    }
+
+    /**
+     * The best {@code capacity} standings seen so far, for totals that only grow.
+     */
+    private static final class TopK {
+
+        private final int capacity;
+        private final NavigableSet<Standing> standings = new TreeSet<>(RANKING);
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void update(long customerId, Long previous, long total) {
+            Standing updated = new Standing(customerId, total);
+            boolean ranked = previous != null && standings.remove(new Standing(customerId, previous));
+            if (!ranked && standings.size() >= capacity && RANKING.compare(updated, standings.last()) > 0) {
+                return;
+            }
+            standings.add(updated);
+            if (standings.size() > capacity) {
+                standings.pollLast();
+            }
+        }
+
+        List<LeaderboardEntry> entries(int limit, LongFunction<String> city) {
+            List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, standings.size()));
+            for (Standing standing : standings) {
+                if (entries.size() == limit) {
+                    break;
+                }
+                entries.add(new LeaderboardEntry(entries.size() + 1, standing.customerId(),
+                        city.apply(standing.customerId()), standing.points()));
+            }
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.charter.rewards.service;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the monthly reward ledger on startup for transactions seeded outside the
+ * application write path (for example by {@code data.sql}), or finishes a parallel
+ * rebuild that the previous run left incomplete. Runs before the {@link RewardCacheWarmer}, which
+ * reads the ledger.
+ */
+@Component
+@Order(0)
+public class RewardLedgerInitializer implements ApplicationRunner {
+
+    private final RewardLedgerService ledgerService;
+    private final RewardLedgerRebuildJob rebuildJob;
+
+    public RewardLedgerInitializer(RewardLedgerService ledgerService, RewardLedgerRebuildJob rebuildJob) {
+        this.ledgerService = ledgerService;
+        this.rebuildJob = rebuildJob;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (ledgerService.isEmpty()) {
+            rebuildJob.rebuild();
+        } else if (rebuildJob.hasPendingPartitions()) {
+            rebuildJob.resume();
+        }
+    }
+}
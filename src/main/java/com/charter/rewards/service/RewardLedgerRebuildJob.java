@@ -0,0 +1,439 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.RewardLedgerRebuiltEvent;
+import com.charter.rewards.event.RewardRulesChangedEvent;
+import com.charter.rewards.model.RebuildProgress;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recomputes the reward ledger of every customer in parallel.
+ * <p>
+ * The customer ID space is cut into ranges of {@code rewards.rebuild.partition-size} IDs, recorded in
+ * {@code reward_rebuild_partition}, and the ranges are rebuilt on a fork-join pool of
+ * {@code rewards.rebuild.parallelism} threads. Each partition runs in one database transaction: it
+ * deletes the ledger rows of its range, reads the range's transactions through its own cursor in
+ * {@code (customer_id, date)} index order, so every customer month is complete as soon as the cursor
+ * moves past it, inserts the rows in batches and marks itself completed. A job that stops half way
+ * (failure, shutdown) therefore leaves every range either rebuilt or untouched, and {@link #resume()}
+ * only runs the ranges still pending. Resuming assumes the rules did not change in between; a rules
+ * change always starts over.
+ * <p>
+ * Like {@link RewardLedgerService#rebuild()}, the job blocks ledger updates from the moment it starts
+ * until every partition is done, so a transaction written meanwhile is added to the ledger after the
+ * job instead of twice. Writers wait before their first statement, so they hold no connection the
+ * partitions need, but they do wait: rebuilds are still meant for startup, a rules change or a quiet
+ * system.
+ * Progress is reported by {@link #progress()} and the
+ * {@code rewards.rebuild.progress} gauge, and each partition is timed by
+ * {@code rewards.rebuild.partition.duration}.
+ */
+@Service
+public class RewardLedgerRebuildJob implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardLedgerRebuildJob.class);
+
+    private static final String ID_RANGE_QUERY = "SELECT MIN(id), MAX(id) FROM customer";
+    private static final String PENDING_QUERY =
+            "SELECT range_start, range_end FROM reward_rebuild_partition WHERE NOT completed ORDER BY range_start";
+    private static final String PARTITION_COUNT_QUERY = "SELECT COUNT(*) FROM reward_rebuild_partition";
+    private static final String DELETE_PARTITIONS = "DELETE FROM reward_rebuild_partition";
+    private static final String INSERT_PARTITION =
+            "INSERT INTO reward_rebuild_partition (range_start, range_end, completed) VALUES (?, ?, FALSE)";
+    private static final String COMPLETE_PARTITION = "UPDATE reward_rebuild_partition "
+            + "SET completed = TRUE, transaction_count = ?, ledger_rows = ? WHERE range_start = ?";
+    private static final String DELETE_LEDGER_RANGE =
+            "DELETE FROM customer_monthly_reward WHERE customer_id >= ? AND customer_id < ?";
+    private static final String INSERT_LEDGER_ROW = "INSERT INTO customer_monthly_reward "
+            + "(customer_id, reward_month, points, transaction_count) VALUES (?, ?, ?, ?)";
+    // Formatted with TransactionArchive#historyTable()
+    private static final String SCAN_QUERY = "SELECT customer_id, date, amount_cents FROM %s "
+            + "WHERE customer_id >= ? AND customer_id < ? ORDER BY customer_id, date";
+    private static final String SCAN_WITH_CITY_QUERY = "SELECT t.customer_id, t.date, t.amount_cents, c.city "
+            + "FROM %s t JOIN customer c ON c.id = t.customer_id "
+            + "WHERE t.customer_id >= ? AND t.customer_id < ? ORDER BY t.customer_id, t.date";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RewardRuleEngine ruleEngine;
+    private final RewardLedgerService ledgerService;
+    private final TransactionArchive archive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RewardProperties.Rebuild config;
+    private final ForkJoinPool pool;
+    private final Timer partitionDuration;
+    private volatile Execution execution;
+
+    public RewardLedgerRebuildJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  RewardRuleEngine ruleEngine, RewardLedgerService ledgerService,
+                                  TransactionArchive archive,
+                                  ApplicationEventPublisher eventPublisher, RewardProperties properties,
+                                  MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ruleEngine = ruleEngine;
+        this.ledgerService = ledgerService;
+        this.archive = archive;
+        this.eventPublisher = eventPublisher;
+        this.config = properties.getRebuild();
+        cursorTemplate.setFetchSize(config.getFetchSize());
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = new ForkJoinPool(config.getParallelism(), p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("ledger-rebuild-" + threads.getAndIncrement());
+            return thread;
+        }, null, false);
+
+        Gauge.builder("rewards.rebuild.progress", this, job -> {
+                    Execution current = job.execution;
+                    return current == null || current.totalPartitions == 0
+                            ? 1.0 : (double) current.completedPartitions.get() / current.totalPartitions;
+                })
+                .description("Fraction of the partitions of the current or last ledger rebuild that are completed")
+                .register(registry);
+        partitionDuration = Timer.builder("rewards.rebuild.partition.duration")
+                .description("Time to rebuild the ledger of one customer ID range")
+                .register(registry);
+    }
+
+    /**
+     * Rebuilds the whole ledger and waits for it.
+     *
+     * @return the progress of the finished job
+     * @throws IllegalStateException if a rebuild is already running
+     * @throws java.util.concurrent.CompletionException if a partition failed; completed partitions stay checkpointed
+     */
+    public RebuildProgress rebuild() {
+        return start(false).join();
+    }
+
+    /**
+     * Rebuilds the partitions a previous job left pending and waits for them.
+     *
+     * @return the progress of the finished job
+     * @throws IllegalStateException if a rebuild is already running
+     */
+    public RebuildProgress resume() {
+        return start(true).join();
+    }
+
+    /**
+     * Starts a rebuild in the background.
+     *
+     * @param resume whether to continue the pending partitions of the last job instead of starting over
+     * @return completes with the final progress once every partition is rebuilt
+     * @throws IllegalStateException if a rebuild is already running
+     */
+    public synchronized CompletableFuture<RebuildProgress> start(boolean resume) {
+        if (isRunning()) {
+            throw new IllegalStateException("A ledger rebuild is already running");
+        }
+        List<long[]> ranges = resume ? pendingRanges() : planRanges();
+        int total = resume ? jdbcTemplate.queryForObject(PARTITION_COUNT_QUERY, Integer.class) : ranges.size();
+        Execution started = new Execution(total, total - ranges.size());
+        execution = started;
+        CompiledRewardRules rules = ruleEngine.current();
+        log.info("Rebuilding the reward ledger: {} of {} partitions on {} threads",
+                ranges.size(), total, config.getParallelism());
+        pool.execute(() -> {
+            try {
+                ledgerService.beginRebuild(ranges);
+                CompiledRewardRules built = null;
+                try {
+                    if (!ranges.isEmpty()) {
+                        new PartitionTask(ranges, 0, ranges.size(), rules, started).invoke();
+                    }
+                    started.finish(RebuildStatus.COMPLETED, null);
+                    log.info("Rebuilt the reward ledger: {} transactions into {} rows in {} ms ({} transactions/s)",
+                            started.transactions.sum(), started.ledgerRows.sum(), started.elapsedMillis(),
+                            Math.round(started.transactionsPerSecond()));
+                    eventPublisher.publishEvent(
+                            new RewardLedgerRebuiltEvent(Math.toIntExact(started.ledgerRows.sum())));
+                    built = rules;
+                } finally {
+                    ledgerService.endRebuild(built);
+                }
+                started.done.complete(started.progress());
+            } catch (RuntimeException ex) {
+                started.finish(RebuildStatus.FAILED, ex.getMessage());
+                log.error("Reward ledger rebuild failed after {} of {} partitions; resume to continue",
+                        started.completedPartitions.get(), total, ex);
+                started.done.completeExceptionally(ex);
+            }
+        });
+        return started.done;
+    }
+
+    /**
+     * Rebuilds the ledger with the new rules in the background, so the reload does not wait for it;
+     * readers leave the ledger rows aside until it completes. A rebuild that is already running may
+     * have been started with the old rules, so the new one starts once it is done.
+     */
+    @EventListener
+    public void onRulesChanged(RewardRulesChangedEvent event) {
+        rebuildWhenIdle();
+    }
+
+    public boolean isRunning() {
+        Execution current = execution;
+        return current != null && current.status == RebuildStatus.RUNNING;
+    }
+
+    /**
+     * @return true when the last job stopped before completing every partition
+     */
+    public boolean hasPendingPartitions() {
+        return !isRunning() && !pendingRanges().isEmpty();
+    }
+
+    /**
+     * Reports the current or last rebuild of this process.
+     */
+    public RebuildProgress progress() {
+        Execution current = execution;
+        if (current == null) {
+            RebuildProgress idle = new RebuildProgress();
+            idle.setStatus(RebuildStatus.IDLE.name());
+            return idle;
+        }
+        return current.progress();
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private void rebuildWhenIdle() {
+        Execution running = execution;
+        CompletableFuture<RebuildProgress> previous = running == null
+                ? CompletableFuture.completedFuture(null) : running.done;
+        previous.handleAsync((progress, ex) -> {
+            try {
+                start(false);
+            } catch (IllegalStateException busy) {
+                // Another rebuild started meanwhile, possibly with the old rules
+                rebuildWhenIdle();
+            } catch (RuntimeException startFailed) {
+                log.error("Could not start the reward ledger rebuild for the new rules", startFailed);
+            }
+            return null;
+        }, pool);
+    }
+
+    /**
+     * Replaces the partitions of the last job with ranges covering every customer ID, all pending.
+     */
+    private List<long[]> planRanges() {
+        List<long[]> ranges = new ArrayList<>();
+        long[] bounds = jdbcTemplate.queryForObject(ID_RANGE_QUERY,
+                (rs, row) -> rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+        if (bounds != null) {
+            for (long start = bounds[0]; start <= bounds[1]; start += config.getPartitionSize()) {
+                ranges.add(new long[]{start, Math.min(start + config.getPartitionSize(), bounds[1] + 1)});
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_PARTITIONS);
+            jdbcTemplate.batchUpdate(INSERT_PARTITION, ranges.stream()
+                    .map(range -> new Object[]{range[0], range[1]}).toList());
+        });
+        return ranges;
+    }
+
+    private List<long[]> pendingRanges() {
+        return jdbcTemplate.query(PENDING_QUERY, (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    /**
+     * Rebuilds the ledger rows of one customer ID range and checkpoints it, all in one transaction.
+     */
+    private void rebuildPartition(long[] range, CompiledRewardRules rules, Execution execution) {
+        long started = System.nanoTime();
+        LedgerRowWriter writer = new LedgerRowWriter();
+        boolean withCity = rules.hasCityPromotions();
+        String scanQuery = (withCity ? SCAN_WITH_CITY_QUERY : SCAN_QUERY).formatted(archive.historyTable());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_LEDGER_RANGE, range[0], range[1]);
+            cursorTemplate.query(scanQuery, rs -> {
+                LocalDate date = rs.getDate(2).toLocalDate();
+                writer.add(rs.getLong(1), date, rules.points(rs.getLong(3), date, withCity ? rs.getString(4) : null));
+            }, range[0], range[1]);
+            writer.close();
+            jdbcTemplate.update(COMPLETE_PARTITION, writer.transactions, writer.rows, range[0]);
+        });
+        partitionDuration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        execution.partitionCompleted(writer.transactions, writer.rows);
+        log.debug("Rebuilt ledger partition [{}, {}): {} transactions, {} rows",
+                range[0], range[1], writer.transactions, writer.rows);
+    }
+
+    /**
+     * Splits the ranges in halves until each task holds one partition.
+     */
+    private final class PartitionTask extends RecursiveAction {
+
+        private final List<long[]> ranges;
+        private final int from;
+        private final int to;
+        private final CompiledRewardRules rules;
+        private final Execution execution;
+
+        PartitionTask(List<long[]> ranges, int from, int to, CompiledRewardRules rules, Execution execution) {
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+            this.rules = rules;
+            this.execution = execution;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                rebuildPartition(ranges.get(from), rules, execution);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PartitionTask(ranges, from, middle, rules, execution),
+                    new PartitionTask(ranges, middle, to, rules, execution));
+        }
+    }
+
+    /**
+     * Folds transactions read in {@code (customer_id, date)} order into monthly ledger rows and inserts
+     * them in batches of {@code rewards.rebuild.batch-size}.
+     */
+    private final class LedgerRowWriter {
+
+        private final List<Object[]> batch = new ArrayList<>(config.getBatchSize());
+        private long customerId = -1;
+        private LocalDate month;
+        private int points;
+        private int count;
+        private long transactions;
+        private int rows;
+
+        void add(long customerId, LocalDate date, int transactionPoints) {
+            LocalDate transactionMonth = date.withDayOfMonth(1);
+            if (customerId != this.customerId || !transactionMonth.equals(month)) {
+                emit();
+                this.customerId = customerId;
+                this.month = transactionMonth;
+            }
+            points += transactionPoints;
+            count++;
+            transactions++;
+        }
+
+        void close() {
+            emit();
+            flush();
+        }
+
+        private void emit() {
+            if (count == 0) {
+                return;
+            }
+            batch.add(new Object[]{customerId, Date.valueOf(month), points, count});
+            rows++;
+            points = 0;
+            count = 0;
+            if (batch.size() == config.getBatchSize()) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_LEDGER_ROW, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Counters of one job, updated by the partition tasks as they complete.
+     */
+    private static final class Execution {
+
+        private final int totalPartitions;
+        private final AtomicInteger completedPartitions;
+        private final LongAdder transactions = new LongAdder();
+        private final LongAdder ledgerRows = new LongAdder();
+        private final long startedNanos = System.nanoTime();
+        private final CompletableFuture<RebuildProgress> done = new CompletableFuture<>();
+        private volatile long finishedNanos;
+        private volatile RebuildStatus status = RebuildStatus.RUNNING;
+        private volatile String error;
+
+        Execution(int totalPartitions, int completedPartitions) {
+            this.totalPartitions = totalPartitions;
+            this.completedPartitions = new AtomicInteger(completedPartitions);
+        }
+
+        void partitionCompleted(long partitionTransactions, int partitionRows) {
+            transactions.add(partitionTransactions);
+            ledgerRows.add(partitionRows);
+            completedPartitions.incrementAndGet();
+        }
+
+        void finish(RebuildStatus finalStatus, String message) {
+            finishedNanos = System.nanoTime();
+            error = message;
+            status = finalStatus;
+        }
+
+        long elapsedMillis() {
+            long end = status == RebuildStatus.RUNNING ? System.nanoTime() : finishedNanos;
+            return (end - startedNanos) / 1_000_000;
+        }
+
+        double transactionsPerSecond() {
+            long elapsed = elapsedMillis();
+            return elapsed == 0 ? 0 : transactions.sum() * 1000.0 / elapsed;
+        }
+
+        RebuildProgress progress() {
+            RebuildProgress progress = new RebuildProgress();
+            progress.setStatus(status.name());
+            progress.setTotalPartitions(totalPartitions);
+            progress.setCompletedPartitions(completedPartitions.get());
+            progress.setTransactions(transactions.sum());
+            progress.setLedgerRows(ledgerRows.sum());
+            progress.setElapsedMillis(elapsedMillis());
+            progress.setTransactionsPerSecond(transactionsPerSecond());
+            progress.setError(error);
+            return progress;
+        }
+    }
+}
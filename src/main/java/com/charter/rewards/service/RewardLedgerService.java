@@ -0,0 +1,226 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.event.RewardLedgerRebuildStartedEvent;
+import com.charter.rewards.event.RewardLedgerRebuiltEvent;
+import com.charter.rewards.event.RewardLedgerUpdatedEvent;
+import com.charter.rewards.model.Customer;
+import com.charter.rewards.model.CustomerMonthlyReward;
+import com.charter.rewards.model.CustomerMonthlyRewardId;
+import com.charter.rewards.model.HistoricalTransaction;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerMonthlyRewardRepository;
+import com.charter.rewards.repository.TransactionRepository;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the {@code customer_monthly_reward} rollup so that period queries can sum
+ * a handful of monthly rows instead of re-reading every transaction.
+ * <p>
+ * The ledger remembers the rules its rows were computed with: the rules loaded on startup, then the
+ * rules of the last completed rebuild. Readers only combine ledger rows with points they compute
+ * themselves when {@link #isBuiltWith} their rules. A rebuild blocks ledger updates from the moment
+ * it starts until its rows are committed, and each update holds the rebuild off until the
+ * transaction that made it completes, so a transaction is either read by the rebuild or added
+ * after it, never both.
+ */
+@Service
+@DependsOn("rewardRuleLoader")
+public class RewardLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardLedgerService.class);
+
+    private final CustomerMonthlyRewardRepository monthlyRewardRepository;
+    private final TransactionRepository transactionRepository;
+    private final RewardRuleEngine ruleEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock(true);
+    /** Rules of the ledger rows, or {@code null} while a rebuild runs or after one failed. */
+    private volatile CompiledRewardRules ledgerRules;
+
+    public RewardLedgerService(CustomerMonthlyRewardRepository monthlyRewardRepository,
+                               TransactionRepository transactionRepository, RewardRuleEngine ruleEngine,
+                               ApplicationEventPublisher eventPublisher) {
+        this.monthlyRewardRepository = monthlyRewardRepository;
+        this.transactionRepository = transactionRepository;
+        this.ruleEngine = ruleEngine;
+        this.eventPublisher = eventPublisher;
+        this.ledgerRules = ruleEngine.current();
+    }
+
+    /**
+     * Adds the points of a batch of newly written transactions, issuing one update per customer and month,
+     * and publishes the additions as a {@link RewardLedgerUpdatedEvent}.
+     *
+     * Must run inside the transaction that persists them so both stay consistent, after that
+     * transaction has {@link #holdOffRebuilds() held off} rebuilds before its first statement.
+     *
+     * @param transactions the persisted transactions
+     */
+    @Transactional
+    public void applyAll(List<Transaction> transactions) {
+        CompiledRewardRules built = ledgerRules;
+        CompiledRewardRules rules = built != null ? built : ruleEngine.current();
+        Map<CustomerMonthlyRewardId, int[]> months = new HashMap<>();
+        for (Transaction t : transactions) {
+            int[] totals = months.computeIfAbsent(new CustomerMonthlyRewardId(t.getCustomer().getId(),
+                    t.getDate().withDayOfMonth(1)), id -> new int[2]);
+            totals[0] += points(rules, t);
+            totals[1]++;
+        }
+        List<CustomerMonthlyReward> additions = new ArrayList<>(months.size());
+        months.forEach((id, totals) -> {
+            monthlyRewardRepository.addPoints(id.getCustomerId(), id.getRewardMonth(), totals[0], totals[1]);
+            additions.add(new CustomerMonthlyReward(id, totals[0], totals[1]));
+        });
+        eventPublisher.publishEvent(new RewardLedgerUpdatedEvent(additions));
+    }
+
+    /**
+     * Recomputes the whole ledger in one transaction from the live and archived transactions, read in
+     * one statement, and publishes a {@link RewardLedgerRebuiltEvent}. {@link RewardLedgerRebuildJob}
+     * does the same in parallel partitions. Ledger updates wait until the transaction completes.
+     *
+     * @return the number of monthly rows written
+     */
+    @Transactional
+    public int rebuild() {
+        CompiledRewardRules rules = ruleEngine.current();
+        beginRebuild();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                endRebuild(status == STATUS_COMMITTED ? rules : null);
+            }
+        });
+        Map<CustomerMonthlyRewardId, CustomerMonthlyReward> months = new HashMap<>();
+        try (Stream<HistoricalTransaction> transactions = transactionRepository.streamHistoryBy()) {
+            transactions.forEach(t -> add(months, t.getCustomer(), t.getDate(), t.getAmountCents(), rules));
+        }
+        monthlyRewardRepository.deleteAllInBatch();
+        monthlyRewardRepository.saveAll(months.values());
+        log.info("Rebuilt reward ledger with {} monthly rows", months.size());
+        eventPublisher.publishEvent(new RewardLedgerRebuiltEvent(months.size()));
+        return months.size();
+    }
+
+    /**
+     * Holds off ledger rebuilds until the current transaction completes, waiting while one runs.
+     * Writers call it before their first statement, so a writer waiting for a rebuild holds no
+     * connection, and a rebuild either counts their transactions or starts after they were added to
+     * the ledger or handed on.
+     *
+     * @throws IllegalStateException if no transaction is active
+     */
+    public void holdOffRebuilds() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Ledger rebuilds can only be held off inside a transaction");
+        }
+        Lock lock = rebuildLock.readLock();
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Blocks ledger updates for a rebuild of every customer's ledger, waiting for the transactions of
+     * updates already made to complete, and publishes a {@link RewardLedgerRebuildStartedEvent}. Unless
+     * it throws, must be followed by {@link #endRebuild} on the same thread.
+     */
+    void beginRebuild() {
+        beginRebuild(new RewardLedgerRebuildStartedEvent());
+    }
+
+    /**
+     * Like {@link #beginRebuild()}, for a rebuild of the customers in the given {@code [start, end)}
+     * ID ranges only.
+     */
+    void beginRebuild(List<long[]> customerRanges) {
+        beginRebuild(new RewardLedgerRebuildStartedEvent(customerRanges));
+    }
+
+    private void beginRebuild(RewardLedgerRebuildStartedEvent started) {
+        rebuildLock.writeLock().lock();
+        ledgerRules = null;
+        try {
+            eventPublisher.publishEvent(started);
+        } catch (RuntimeException ex) {
+            rebuildLock.writeLock().unlock();
+            throw ex;
+        }
+    }
+
+    /**
+     * Lets ledger updates continue after {@link #beginRebuild()}.
+     *
+     * @param rules the rules the ledger was rebuilt with, or {@code null} if the rebuild did not complete;
+     *              the ledger then counts as built with no rules until the next rebuild
+     */
+    void endRebuild(CompiledRewardRules rules) {
+        ledgerRules = rules;
+        rebuildLock.writeLock().unlock();
+    }
+
+    /**
+     * Tells whether every ledger row was computed with the given rules, so that the rows can be
+     * combined with points computed with them. False while a rebuild runs.
+     */
+    public boolean isBuiltWith(CompiledRewardRules rules) {
+        return ledgerRules == rules;
+    }
+
+    /**
+     * Returns the ledger rows of a customer for every month between the two given months, inclusive.
+     *
+     * @param customerId the customer whose ledger is read
+     * @param firstMonth first day of the first month
+     * @param lastMonth  first day of the last month
+     * @return the ledger rows ordered by month
+     */
+    public List<CustomerMonthlyReward> findMonths(Long customerId, LocalDate firstMonth, LocalDate lastMonth) {
+        return monthlyRewardRepository.findMonths(customerId, firstMonth, lastMonth);
+    }
+
+    private static void add(Map<CustomerMonthlyRewardId, CustomerMonthlyReward> months, Customer customer,
+                            LocalDate date, long amountCents, CompiledRewardRules rules) {
+        CustomerMonthlyRewardId id = new CustomerMonthlyRewardId(customer.getId(), date.withDayOfMonth(1));
+        CustomerMonthlyReward row = months.computeIfAbsent(id, key -> new CustomerMonthlyReward(key, 0, 0));
+        String city = rules.hasCityPromotions() ? customer.getCity() : null;
+        row.setPoints(row.getPoints() + rules.points(amountCents, date, city));
+        row.setTransactionCount(row.getTransactionCount() + 1);
+    }
+
+
+    private static int points(CompiledRewardRules rules, Transaction t) {
+        String city = rules.hasCityPromotions() ? t.getCustomer().getCity() : null;
+        return rules.points(t.getAmountCents(), t.getDate(), city);
+    }
+
+    /**
+     * @return true when no ledger row exists yet
+     */
+    public boolean isEmpty() {
+        return monthlyRewardRepository.count() == 0;
+    }
+}
@@ -0,0 +1,620 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.RewardLedgerRebuildStartedEvent;
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Applies recorded transactions to the reward ledger in the background when
+ * {@code rewards.ledger.write-mode=async}, taking the ledger update off the write path.
+ * <p>
+ * Transactions are split into {@code rewards.ledger.async.consumers} partitions by customer, so every
+ * ledger row is only ever written by one consumer. After the writing transaction commits, its
+ * transactions are handed to the partition's appender thread; the writer waits neither for the disk
+ * nor for queue space. The appender appends everything handed to it since its last append to the
+ * partition's {@link LedgerLog} on local disk, with one forced write, and then offers the entries to a
+ * bounded queue. It waits up to {@code enqueue-timeout} for queue space, which slows the appender
+ * down to the pace of the consumer; past that the partition switches to reading the log until it has
+ * caught up, so nothing that was logged is dropped. Each consumer takes up to {@code batch-size}
+ * entries, waiting at most {@code flush-interval} for a batch to fill, and adds them to the ledger in
+ * one database transaction that also advances the partition's checkpoint in
+ * {@code reward_ledger_checkpoint}, so a batch is applied exactly once. Once the consumer has applied
+ * every entry of a log holding at least {@code compact-size} entries, the log is emptied and the
+ * checkpoint reset, so the log does not grow with the uptime.
+ * <p>
+ * A ledger rebuild counts every transaction committed before it starts for the customers it rebuilds,
+ * and writers hold rebuilds off until their transactions are handed over. When a rebuild starts,
+ * whatever is handed over, logged or queued but not yet applied for those customers is therefore
+ * discarded instead of being applied a second time; the pending entries of other customers are
+ * logged again after the discarded ones and applied as usual. An append that fails leaves its
+ * transactions handed over, and the appender retries it after the flush interval.
+ * <p>
+ * On startup every partition resumes from its checkpoint by replaying the rest of its log. A log
+ * without a checkpoint row belongs to another database and is discarded. While the pipeline is
+ * stopped, writers append to the log themselves and the entries are applied on the next start.
+ * Transactions committed by the database but not yet appended to the log when the process dies are
+ * the only ones the ledger can miss; a ledger rebuild repairs them.
+ * <p>
+ * Lag is published as {@code rewards.ledger.pending} (transactions handed over or logged but not yet
+ * applied), {@code rewards.ledger.queue.size} and the {@code rewards.ledger.lag} timer (time from
+ * logging to being applied).
+ */
+@Component
+@ConditionalOnProperty(prefix = "rewards.ledger", name = "write-mode", havingValue = "async")
+public class RewardLedgerWriteBehind implements SmartLifecycle, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardLedgerWriteBehind.class);
+
+    private static final String CHECKPOINT_QUERY =
+            "SELECT log_offset FROM reward_ledger_checkpoint WHERE partition_id = ?";
+    private static final String CHECKPOINT_UPDATE =
+            "MERGE INTO reward_ledger_checkpoint (partition_id, log_offset) KEY (partition_id) VALUES (?, ?)";
+
+    private final RewardLedgerService ledgerService;
+    private final CustomerRepository customerRepository;
+    private final RewardSummaryCache summaryCache;
+    private final RewardDataVersions dataVersions;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final RewardProperties.Ledger.Async config;
+    private final List<Partition> partitions = new ArrayList<>();
+    private final Timer lag;
+    private final Timer batchDuration;
+    private final Counter applied;
+    private final Counter overflows;
+    private volatile boolean running;
+
+    public RewardLedgerWriteBehind(RewardLedgerService ledgerService, CustomerRepository customerRepository,
+                                   RewardSummaryCache summaryCache, RewardDataVersions dataVersions,
+                                   JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   RewardProperties properties, MeterRegistry registry) {
+        this.ledgerService = ledgerService;
+        this.customerRepository = customerRepository;
+        this.summaryCache = summaryCache;
+        this.dataVersions = dataVersions;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.config = properties.getLedger().getAsync();
+        try {
+            Files.createDirectories(config.getLogDir());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create ledger log directory " + config.getLogDir(), ex);
+        }
+        for (int i = 0; i < config.getConsumers(); i++) {
+            partitions.add(new Partition(i, new LedgerLog(config.getLogDir().resolve("ledger-" + i + ".log")),
+                    config.getQueueCapacity()));
+        }
+
+        Gauge.builder("rewards.ledger.pending", this, RewardLedgerWriteBehind::pending)
+                .description("Recorded transactions not yet applied to the ledger")
+                .register(registry);
+        Gauge.builder("rewards.ledger.queue.size", this,
+                        writeBehind -> writeBehind.partitions.stream().mapToInt(p -> p.queue.size()).sum())
+                .description("Transactions waiting in the in-memory ledger queues")
+                .register(registry);
+        lag = Timer.builder("rewards.ledger.lag")
+                .description("Time from logging a transaction to adding it to the ledger")
+                .publishPercentileHistogram()
+                .register(registry);
+        batchDuration = Timer.builder("rewards.ledger.batch.duration")
+                .description("Time to apply one batch to the ledger")
+                .register(registry);
+        applied = Counter.builder("rewards.ledger.applied")
+                .description("Transactions applied to the ledger by the write-behind consumers")
+                .register(registry);
+        overflows = Counter.builder("rewards.ledger.overflows")
+                .description("Times a partition queue stayed full for the whole enqueue timeout")
+                .register(registry);
+    }
+
+    /**
+     * Hands committed transactions to the appenders of their partitions without waiting for them to
+     * be logged. While the pipeline is stopped, they are logged here and applied on the next start.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsRecorded(TransactionsRecordedEvent event) {
+        List<List<Transaction>> byPartition = new ArrayList<>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            byPartition.add(new ArrayList<>());
+        }
+        for (Transaction transaction : event.getTransactions()) {
+            byPartition.get(partitionOf(transaction.getCustomer().getId())).add(transaction);
+        }
+        for (int i = 0; i < partitions.size(); i++) {
+            if (!byPartition.get(i).isEmpty()) {
+                partitions.get(i).handOver(byPartition.get(i));
+            }
+        }
+    }
+
+    /**
+     * Discards every transaction not yet applied for the customers the starting rebuild covers, as it
+     * counts them all. Runs while ledger updates are blocked, so no consumer is applying a batch
+     * meanwhile. Summaries of the customers concerned no longer lag their transactions, and the
+     * entries may only be in the log, so the data version of every customer is moved, committed at
+     * once whether or not the rebuild succeeds.
+     */
+    @EventListener
+    public void onRebuildStarted(RewardLedgerRebuildStartedEvent event) {
+        long discarded = 0;
+        for (Partition partition : partitions) {
+            discarded += partition.discard(event);
+        }
+        if (discarded > 0) {
+            newTransactionTemplate.executeWithoutResult(status -> dataVersions.allCustomersChanged());
+            log.info("Discarded {} pending ledger entries counted by the ledger rebuild", discarded);
+        }
+    }
+
+    /**
+     * Waits until every recorded transaction has been applied to the ledger, or discarded for a rebuild.
+     *
+     * @return false if transactions were still pending when the timeout elapsed
+     */
+    public boolean awaitIdle(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending() > 0) {
+            if (!running || System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of recorded transactions handed over or logged but not yet applied to the ledger
+     */
+    public long pending() {
+        long pending = 0;
+        for (Partition partition : partitions) {
+            pending += partition.handoff.size() + partition.ledgerLog.size() - partition.firstToApply();
+        }
+        return pending;
+    }
+
+    @Override
+    public void start() {
+        for (Partition partition : partitions) {
+            partition.recover();
+        }
+        running = true;
+        for (Partition partition : partitions) {
+            partition.appender = Thread.ofPlatform().name("ledger-log-" + partition.id).daemon()
+                    .start(partition::appendLoop);
+            partition.consumer = Thread.ofPlatform().name("ledger-writer-" + partition.id).daemon()
+                    .start(partition::consume);
+        }
+    }
+
+    /**
+     * Stops accepting work into the queues, logs what was handed over, lets the consumers apply what
+     * is already queued and closes the logs. Anything logged but not applied is replayed on the next start.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        for (Partition partition : partitions) {
+            LockSupport.unpark(partition.appender);
+            join(partition.appender);
+            if (!partition.appendHandedOver()) {
+                log.error("Stopped with {} transactions of partition {} not logged; a ledger rebuild adds them",
+                        partition.handoff.size(), partition.id);
+            }
+        }
+        for (Partition partition : partitions) {
+            join(partition.consumer);
+        }
+    }
+
+    private void join(Thread thread) {
+        if (thread != null) {
+            try {
+                thread.join(config.getFlushInterval().toMillis() * 10 + 5_000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (Partition partition : partitions) {
+            partition.ledgerLog.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so requests never see the pipeline stopped.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private int partitionOf(Long customerId) {
+        return (int) Math.floorMod(customerId, (long) partitions.size());
+    }
+
+    private final class Partition {
+
+        private final int id;
+        private final LedgerLog ledgerLog;
+        private final BlockingQueue<LedgerEntry> queue;
+        /** Committed transactions handed over by writers and not yet logged. */
+        private final Queue<Transaction> handoff = new ConcurrentLinkedQueue<>();
+        /** Set when entries were logged without being queued; the consumer then reads the log. */
+        private volatile boolean overflowed;
+        /** Offset of the first entry not yet applied; only advanced by the consumer. */
+        private volatile long nextOffset;
+        /** Entries before this offset were counted by a ledger rebuild and are not applied. */
+        private volatile long discardedBefore;
+        private Thread appender;
+        private Thread consumer;
+
+        Partition(int id, LedgerLog ledgerLog, int capacity) {
+            this.id = id;
+            this.ledgerLog = ledgerLog;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Positions the partition at its checkpoint, replaying the log beyond it through the consumer.
+         */
+        void recover() {
+            List<Long> checkpoint = jdbcTemplate.queryForList(CHECKPOINT_QUERY, Long.class, id);
+            long size = ledgerLog.size();
+            discardedBefore = 0;
+            if (checkpoint.isEmpty() || checkpoint.get(0) >= size) {
+                if (checkpoint.isEmpty() && size > 0) {
+                    log.warn("Discarding ledger log of partition {}: no checkpoint in this database",
+                            id);
+                }
+                ledgerLog.truncate();
+                jdbcTemplate.update(CHECKPOINT_UPDATE, id, 0L);
+                nextOffset = 0;
+                overflowed = false;
+            } else {
+                nextOffset = checkpoint.get(0);
+                overflowed = true;
+                log.info("Replaying {} ledger entries of partition {}", size - nextOffset, id);
+            }
+        }
+
+        /**
+         * @return the offset of the first entry still to be applied
+         */
+        long firstToApply() {
+            return Math.max(nextOffset, discardedBefore);
+        }
+
+        /**
+         * Queues transactions for the appender, or logs them right away while the pipeline is stopped.
+         */
+        void handOver(List<Transaction> transactions) {
+            handoff.addAll(transactions);
+            if (running) {
+                LockSupport.unpark(appender);
+            } else {
+                appendHandedOver();
+            }
+        }
+
+        void appendLoop() {
+            long flushNanos = config.getFlushInterval().toNanos();
+            while (running) {
+                if (handoff.isEmpty()) {
+                    LockSupport.parkNanos(this, flushNanos);
+                    continue;
+                }
+                if (!appendHandedOver() && !sleep(config.getFlushInterval())) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Logs every transaction handed over so far and, unless the partition is catching up from its
+         * log, queues them, waiting for space up to the enqueue timeout. Transactions that could not
+         * be logged stay handed over for the next call.
+         *
+         * @return false if the log could not be appended to
+         */
+        synchronized boolean appendHandedOver() {
+            // Taken off the hand-off only once logged, so that they are always counted as pending
+            List<Transaction> transactions = new ArrayList<>(handoff);
+            if (transactions.isEmpty()) {
+                return true;
+            }
+            int count = transactions.size();
+            long[] transactionIds = new long[count];
+            long[] customerIds = new long[count];
+            int[] epochDays = new int[count];
+            long[] amountsCents = new long[count];
+            for (int i = 0; i < count; i++) {
+                Transaction transaction = transactions.get(i);
+                transactionIds[i] = transaction.getId();
+                customerIds[i] = transaction.getCustomer().getId();
+                epochDays[i] = Math.toIntExact(transaction.getDate().toEpochDay());
+                amountsCents[i] = transaction.getAmountCents();
+            }
+            List<LedgerEntry> entries;
+            try {
+                entries = ledgerLog.append(transactionIds, customerIds, epochDays, amountsCents, count,
+                        System.currentTimeMillis());
+            } catch (RuntimeException ex) {
+                log.warn("Failed to log {} transactions of partition {}; retrying", count, id, ex);
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                handoff.remove();
+            }
+            if (!running || overflowed) {
+                return true;
+            }
+            long timeoutNanos = config.getEnqueueTimeout().toNanos();
+            for (LedgerEntry entry : entries) {
+                try {
+                    if (!queue.offer(entry, timeoutNanos, TimeUnit.NANOSECONDS)) {
+                        overflowed = true;
+                        overflows.increment();
+                        return true;
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    overflowed = true;
+                    return true;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Drops every entry not yet applied for the customers a rebuild covers and moves the checkpoint
+         * past the logged ones. Logged entries of other customers are logged again beyond the new
+         * checkpoint, where the consumer reads them from the log.
+         *
+         * @return the number of transactions dropped
+         */
+        synchronized long discard(RewardLedgerRebuildStartedEvent rebuild) {
+            long discarded = 0;
+            long size = ledgerLog.size();
+            List<LedgerEntry> kept = new ArrayList<>();
+            for (long offset = firstToApply(); offset < size; ) {
+                List<LedgerEntry> entries = ledgerLog.read(offset, config.getBatchSize());
+                for (LedgerEntry entry : entries) {
+                    if (rebuild.covers(entry.customerId())) {
+                        discarded++;
+                    } else {
+                        kept.add(entry);
+                    }
+                }
+                offset += entries.size();
+            }
+            if (!kept.isEmpty()) {
+                relog(kept);
+                overflowed = true;
+            }
+            int handedOver = handoff.size();
+            handoff.removeIf(transaction -> rebuild.covers(transaction.getCustomer().getId()));
+            discarded += handedOver - handoff.size();
+            queue.clear();
+            discardedBefore = size;
+            jdbcTemplate.update(CHECKPOINT_UPDATE, id, size);
+            return discarded;
+        }
+
+        /**
+         * Appends logged entries again, stamped with the time the oldest of them was first logged.
+         */
+        private void relog(List<LedgerEntry> entries) {
+            int count = entries.size();
+            long[] transactionIds = new long[count];
+            long[] customerIds = new long[count];
+            int[] epochDays = new int[count];
+            long[] amountsCents = new long[count];
+            for (int i = 0; i < count; i++) {
+                LedgerEntry entry = entries.get(i);
+                transactionIds[i] = entry.transactionId();
+                customerIds[i] = entry.customerId();
+                epochDays[i] = entry.epochDay();
+                amountsCents[i] = entry.amountCents();
+            }
+            ledgerLog.append(transactionIds, customerIds, epochDays, amountsCents, count,
+                    entries.get(0).appendedAtMillis());
+        }
+
+        /**
+         * Empties the log once it holds {@code compact-size} entries and every one of them is applied.
+         * The log is truncated before its checkpoint is reset, so a crash in between finds a checkpoint
+         * beyond the end of the log, which recovery also treats as fully applied.
+         */
+        private void compact() {
+            if (ledgerLog.size() < config.getCompactSize()) {
+                return;
+            }
+            synchronized (this) {
+                long size = ledgerLog.size();
+                if (size < config.getCompactSize() || firstToApply() < size) {
+                    return;
+                }
+                ledgerLog.truncate();
+                queue.clear();
+                nextOffset = 0;
+                discardedBefore = 0;
+                overflowed = false;
+                try {
+                    jdbcTemplate.update(CHECKPOINT_UPDATE, id, 0L);
+                } catch (RuntimeException ex) {
+                    log.warn("Failed to reset the checkpoint of partition {}; the next batch moves it", id, ex);
+                }
+                log.debug("Emptied the ledger log of partition {} after applying {} entries", id, size);
+            }
+        }
+
+        void consume() {
+            List<LedgerEntry> batch = new ArrayList<>(config.getBatchSize());
+            while (running || !queue.isEmpty()) {
+                try {
+                    nextBatch(batch);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (!batch.isEmpty()) {
+                    try {
+                        apply(batch);
+                        batch.clear();
+                    } catch (RuntimeException ex) {
+                        log.warn("Failed to apply {} ledger entries of partition {}; retrying",
+                                batch.size(), id, ex);
+                        if (!running || !sleep(config.getFlushInterval())) {
+                            return;
+                        }
+                    }
+                }
+                compact();
+            }
+        }
+
+        /**
+         * Fills the batch from the log when catching up, otherwise from the queue: waits for a first
+         * entry, then for more until the batch is full or the flush interval has passed.
+         */
+        private void nextBatch(List<LedgerEntry> batch) throws InterruptedException {
+            if (overflowed && queue.isEmpty()) {
+                batch.addAll(ledgerLog.read(firstToApply(), config.getBatchSize()));
+                if (batch.isEmpty()) {
+                    synchronized (this) {
+                        if (ledgerLog.size() == firstToApply()) {
+                            overflowed = false;
+                        }
+                    }
+                }
+                return;
+            }
+            long flushNanos = config.getFlushInterval().toNanos();
+            LedgerEntry first = queue.poll(flushNanos, TimeUnit.NANOSECONDS);
+            if (first == null) {
+                return;
+            }
+            batch.add(first);
+            long deadline = System.nanoTime() + flushNanos;
+            while (batch.size() < config.getBatchSize()) {
+                queue.drainTo(batch, config.getBatchSize() - batch.size());
+                long remaining = deadline - System.nanoTime();
+                if (batch.size() >= config.getBatchSize() || remaining <= 0) {
+                    break;
+                }
+                LedgerEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+            }
+            long firstOffset = firstToApply();
+            batch.removeIf(entry -> entry.offset() < firstOffset);
+            if (!batch.isEmpty() && batch.get(0).offset() > firstOffset) {
+                // Entries missing from the queue are in the log; read them from there in order
+                batch.clear();
+                overflowed = true;
+            }
+        }
+
+        private void apply(List<LedgerEntry> batch) {
+            long started = System.nanoTime();
+            long[] next = new long[1];
+            Set<Long> customerIds = new HashSet<>();
+            List<Transaction> transactions = new ArrayList<>(batch.size());
+            transactionTemplate.executeWithoutResult(status -> {
+                // Entries can only be discarded by a rebuild, which now waits for this transaction
+                ledgerService.holdOffRebuilds();
+                long first = firstToApply();
+                next[0] = Math.max(first, batch.get(batch.size() - 1).offset() + 1);
+                for (LedgerEntry entry : batch) {
+                    if (entry.offset() < first) {
+                        continue;
+                    }
+                    Transaction transaction = new Transaction();
+                    transaction.setId(entry.transactionId());
+                    transaction.setCustomer(customerRepository.getReferenceById(entry.customerId()));
+                    transaction.setDate(LocalDate.ofEpochDay(entry.epochDay()));
+                    transaction.setAmountCents(entry.amountCents());
+                    transactions.add(transaction);
+                    customerIds.add(entry.customerId());
+                }
+                if (!transactions.isEmpty()) {
+                    ledgerService.applyAll(transactions);
+                }
+                jdbcTemplate.update(CHECKPOINT_UPDATE, id, next[0]);
+            });
+            nextOffset = next[0];
+            if (transactions.isEmpty()) {
+                return;
+            }
+            summaryCache.invalidateCustomers(customerIds);
+
+            long now = System.currentTimeMillis();
+            lag.record(Math.max(0, now - batch.get(0).appendedAtMillis()), TimeUnit.MILLISECONDS);
+            batchDuration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            applied.increment(transactions.size());
+        }
+
+        private static boolean sleep(Duration duration) {
+            try {
+                Thread.sleep(duration);
+                return true;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
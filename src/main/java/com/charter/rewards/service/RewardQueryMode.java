@@ -0,0 +1,18 @@
+package com.charter.rewards.service;
+
+/**
+ * Strategy used by {@link RewardService} to compute monthly points for a period.
+ */
+public enum RewardQueryMode {
+    /** Reads every transaction in the period and calculates points row by row. */
+    TRANSACTIONS,
+    /** Sums the pre-aggregated monthly ledger and reads raw transactions only for partial edge months. */
+    LEDGER,
+    /** Lets the database apply the point formula and group by month, returning one row per month. */
+    AGGREGATE,
+    /**
+     * Reads per-month totals from the in-memory {@link com.charter.rewards.store.RewardPointsIndex}
+     * of running point totals, as differences of prefix sums; no transaction is read per request.
+     */
+    PREFIX_SUM
+}
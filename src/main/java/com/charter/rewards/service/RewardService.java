@@ -1,37 +1,91 @@
 package com.charter.rewards.service;
 
+import com.charter.rewards.config.RewardProperties;
 import com.charter.rewards.exception.CustomerNotFoundException;
+import com.charter.rewards.metrics.RewardMetrics;
+import com.charter.rewards.metrics.RewardMetrics.Stage;
+import com.charter.rewards.metrics.RewardMetrics.StageTimings;
 import com.charter.rewards.model.Customer;
-import com.charter.rewards.model.MonthlyReward;
+import com.charter.rewards.model.CustomerMonthlyReward;
 import com.charter.rewards.model.RewardSummary;
-import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerMonthlyPointsView;
 import com.charter.rewards.repository.CustomerRepository;
+import com.charter.rewards.repository.MonthlyPointsView;
 import com.charter.rewards.repository.TransactionRepository;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import com.charter.rewards.store.RewardPointsIndex;
+import com.charter.rewards.store.TransactionReadStore;
+import com.charter.rewards.store.TransactionSlice;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Service
 public class RewardService {
 
     private final CustomerRepository customerRepository;
     private final TransactionRepository transactionRepository;
+    private final TransactionReadStore transactionStore;
+    private final RewardPointsIndex pointsIndex;
+    private final RewardLedgerService ledgerService;
+    private final RewardProperties properties;
+    private final RewardSummaryCache summaryCache;
+    private final RewardRuleEngine ruleEngine;
+    private final RewardMetrics metrics;
+    private final Executor lookupExecutor;
 
-    public RewardService(CustomerRepository customerRepository, TransactionRepository transactionRepository) {
+    public RewardService(CustomerRepository customerRepository, TransactionRepository transactionRepository,
+                         TransactionReadStore transactionStore, RewardPointsIndex pointsIndex,
+                         RewardLedgerService ledgerService, RewardProperties properties,
+                         RewardSummaryCache summaryCache, RewardRuleEngine ruleEngine, RewardMetrics metrics,
+                         @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                         Executor lookupExecutor) {
         this.customerRepository = customerRepository;
         this.transactionRepository = transactionRepository;
+        this.transactionStore = transactionStore;
+        this.pointsIndex = pointsIndex;
+        this.ledgerService = ledgerService;
+        this.properties = properties;
+        this.summaryCache = summaryCache;
+        this.ruleEngine = ruleEngine;
+        this.metrics = metrics;
+        this.lookupExecutor = lookupExecutor;
     }
 
     /**
      * Calculates the reward summary for a specific customer within a given date range.
      * This method retrieves the customer by ID, filters their transactions that fall within
      * the specified start and end dates, calculates reward points for each qualifying transaction,
-     * and aggregates the results by month and overall total.
+     * and aggregates the results by month and overall total. Points are calculated with the
+     * {@link RewardRuleEngine} rules in effect when the calculation starts.
+     * In {@link RewardQueryMode#LEDGER} mode, months fully covered by the range are read from the
+     * monthly reward ledger and only the partial first and last month are read from transactions.
+     * In {@link RewardQueryMode#AGGREGATE} mode the database computes and groups the points itself.
+     * In {@link RewardQueryMode#PREFIX_SUM} mode each month is the difference of two running totals
+     * of the {@link RewardPointsIndex}.
+     * Individual transactions are read from the configured {@link TransactionReadStore}.
+     * Results are served from the {@link RewardSummaryCache} when the same period was computed recently.
+     * With {@code rewards.execution.concurrent-lookups} enabled, the customer lookup runs on the
+     * application task executor while the transactions are read on the calling thread, unless a
+     * promotion depends on the customer's city. The time spent in each stage and the number of
+     * transactions read are recorded in {@link RewardMetrics}. The calculation runs in a read-only
+     * transaction, which is served by the replica pool when one is configured.
      *
      * @param customerId the unique identifier of the customer whose rewards need to be calculated
      * @param start      the start date of the reward calculation period (inclusive)
@@ -39,49 +93,253 @@ public class RewardService {
      * @return a {@link RewardSummary} containing the customer's total reward points and a breakdown per month
      * @throws CustomerNotFoundException if no customer exists for the provided ID
      */
+    @Transactional(readOnly = true)
     public RewardSummary getRewardsForCustomerForPeriod(Long customerId, LocalDate start, LocalDate end)
             throws CustomerNotFoundException {
 
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new CustomerNotFoundException("Customer not found. Customer Id: " + customerId));
+        RewardSummary cached = summaryCache.get(customerId, start, end);
+        if (cached != null) {
+            return cached;
+        }
+        long cacheVersion = summaryCache.version(customerId);
+
+        CompiledRewardRules rules = ruleEngine.current();
+        StageTimings timings = metrics.startRequest();
+        MonthlyPointsAggregator aggregator = new MonthlyPointsAggregator(start, end);
+        CustomerLookup lookup;
+        if (properties.getExecution().isConcurrentLookups() && !rules.hasCityPromotions()) {
+            lookup = new CustomerLookup(customerId,
+                    CompletableFuture.supplyAsync(() -> findCustomer(customerId), lookupExecutor), null);
+        } else {
+            Customer found = findCustomer(customerId)
+                    .orElseThrow(() -> new CustomerNotFoundException("Customer not found. Customer Id: " + customerId));
+            lookup = new CustomerLookup(customerId, CompletableFuture.completedFuture(Optional.of(found)),
+                    found.getCity());
+        }
+        addPoints(customerId, lookup, start, end, rules, aggregator, timings);
+        Customer customer = lookup.customer();
 
-        List<Transaction> transactions = transactionRepository.findByCustomerIdAndDateBetween(customerId, start, end);
+        long started = System.nanoTime();
+        RewardSummary summary = aggregator.toSummary(customer);
+        timings.aggregated(started);
+        metrics.record(timings);
+        summaryCache.put(customerId, start, end, summary, cacheVersion);
+        return summary;
+    }
 
-        if (transactions.isEmpty()) {
-            return new RewardSummary(customer.getId(), customer.getName(),
-                    customer.getPhone(), customer.getCity(), 0, List.of());
+    /**
+     * Calculates reward summaries for several customers over a shared date range.
+     * Customers are resolved with a single lookup and their transactions are aggregated
+     * with a single grouped query. Unknown customer IDs do not fail the batch; they are
+     * reported inline through {@link RewardSummary#error()}.
+     *
+     * @param customerIds the customers to summarise, in the order the results are returned
+     * @param start       the start date of the reward calculation period (inclusive)
+     * @param end         the end date of the reward calculation period (inclusive)
+     * @return one {@link RewardSummary} per requested customer ID
+     */
+    @Transactional(readOnly = true)
+    public List<RewardSummary> getRewardsForCustomersForPeriod(List<Long> customerIds, LocalDate start,
+                                                               LocalDate end) {
+        Set<Long> distinctIds = new LinkedHashSet<>(customerIds);
+        Map<Long, Customer> customers = new HashMap<>();
+        for (Customer customer : customerRepository.findAllById(distinctIds)) {
+            customers.put(customer.getId(), customer);
         }
 
-        Map<String, Integer> monthlyPoints = new HashMap<>();
-        int total = 0;
+        Map<Long, RewardSummary> summariesById = new HashMap<>();
+        if (!customers.isEmpty()) {
+            MonthlyPointsAggregator aggregator = new MonthlyPointsAggregator(start, end);
+            Long currentId = null;
+            for (CustomerMonthlyPointsView row
+                    : transactionRepository.sumMonthlyPointsByCustomer(customers.keySet(), start, end)) {
+                if (!row.getCustomerId().equals(currentId)) {
+                    if (currentId != null) {
+                        summariesById.put(currentId, aggregator.toSummary(customers.get(currentId)));
+                        aggregator.reset(start, end);
+                    }
+                    currentId = row.getCustomerId();
+                }
+                aggregator.add(row.getYear(), row.getMonth(), row.getPoints().intValue());
+            }
+            if (currentId != null) {
+                summariesById.put(currentId, aggregator.toSummary(customers.get(currentId)));
+            }
+        }
 
-        for (Transaction t : transactions) {
-            int points = calculatePoints(t.getAmount());
-            total += points;
-            String month = YearMonth.from(t.getDate()).toString();
-            monthlyPoints.merge(month, points, Integer::sum);
+        List<RewardSummary> summaries = new ArrayList<>(customerIds.size());
+        for (Long customerId : customerIds) {
+            Customer customer = customers.get(customerId);
+            if (customer == null) {
+                summaries.add(RewardSummary.error(customerId, "Customer not found. Customer Id: " + customerId));
+            } else {
+                summaries.add(summariesById.computeIfAbsent(customerId,
+                        id -> new MonthlyPointsAggregator(start, end).toSummary(customer)));
+            }
         }
+        return summaries;
+    }
 
-        List<MonthlyReward> monthlyRewards = monthlyPoints.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .map(entry -> new MonthlyReward(entry.getKey(), entry.getValue()))
-                .toList();
+    private Optional<Customer> findCustomer(Long customerId) {
+        long started = System.nanoTime();
+        Optional<Customer> customer = customerRepository.findById(customerId);
+        metrics.record(Stage.CUSTOMER_LOOKUP, started);
+        return customer;
+    }
 
-        return new RewardSummary(customer.getId(), customer.getName(),
-                customer.getPhone(), customer.getCity(), total, monthlyRewards);
+    /**
+     * Adds the points of the period to the aggregator using the configured {@link RewardQueryMode}.
+     * The city is only needed, and only resolved, when the rules contain city promotions.
+     */
+    private void addPoints(Long customerId, CustomerLookup lookup, LocalDate start, LocalDate end,
+                           CompiledRewardRules rules, MonthlyPointsAggregator aggregator, StageTimings timings)
+            throws CustomerNotFoundException {
+        switch (properties.getQueryMode()) {
+            case LEDGER -> addLedgerPoints(customerId, lookup, start, end, rules, aggregator, timings);
+            case AGGREGATE -> addAggregatedPoints(customerId, lookup, start, end, aggregator, timings);
+            case PREFIX_SUM -> addIndexedPoints(customerId, start, end, aggregator, timings);
+            default -> addTransactionPoints(customerId, lookup, start, end, rules, aggregator, timings);
+        }
     }
 
     /**
-     * Calculates reward points for a given transaction amount based on defined thresholds.
-     *
-     * @param amount the transaction amount
-     * @return calculated reward points
+     * Adds the points of every transaction between the given dates, read from the
+     * {@link TransactionReadStore}, to the per-month totals.
+     */
+    private void addTransactionPoints(Long customerId, CustomerLookup lookup, LocalDate start, LocalDate end,
+                                      CompiledRewardRules rules, MonthlyPointsAggregator aggregator,
+                                      StageTimings timings) throws CustomerNotFoundException {
+        lookup.checkNotMissing();
+        long started = System.nanoTime();
+        TransactionSlice transactions = transactionStore.findByCustomerIdAndDateBetween(customerId, start, end);
+        started = timings.fetched(started);
+        int size = transactions.size();
+        String city = lookup.city;
+        for (int i = 0; i < size; i++) {
+            long day = transactions.epochDay(i);
+            aggregator.addEpochDay(day, rules.points(transactions.amountCents(i), day, city));
+        }
+        timings.aggregated(started);
+        timings.transactions(size);
+    }
+
+    /**
+     * Adds the per-month totals computed by the database for the given dates.
      */
-    private int calculatePoints(double amount) {
-        if (amount <= 50)
-            return 0;
-        if (amount <= 100)
-            return (int) (amount - 50);
-        return (int) ((amount - 100) * 2 + 50);
+    private void addAggregatedPoints(Long customerId, CustomerLookup lookup, LocalDate start, LocalDate end,
+                                     MonthlyPointsAggregator aggregator, StageTimings timings)
+            throws CustomerNotFoundException {
+        lookup.checkNotMissing();
+        long started = System.nanoTime();
+        List<MonthlyPointsView> rows = transactionRepository.sumMonthlyPoints(customerId, start, end);
+        started = timings.fetched(started);
+        for (MonthlyPointsView row : rows) {
+            aggregator.add(row.getYear(), row.getMonth(), row.getPoints().intValue());
+            timings.transactions(row.getTransactionCount());
+        }
+        timings.aggregated(started);
+    }
+
+    /**
+     * Adds the per-month totals read from the {@link RewardPointsIndex} for the given dates.
+     */
+    private void addIndexedPoints(Long customerId, LocalDate start, LocalDate end,
+                                  MonthlyPointsAggregator aggregator, StageTimings timings) {
+        long started = System.nanoTime();
+        List<MonthlyPointsView> rows = pointsIndex.monthlyPoints(customerId, start, end);
+        started = timings.fetched(started);
+        for (MonthlyPointsView row : rows) {
+            aggregator.add(row.getYear(), row.getMonth(), row.getPoints().intValue());
+            timings.transactions(row.getTransactionCount());
+        }
+        timings.aggregated(started);
+    }
+
+    /**
+     * Adds ledger totals for months fully inside the range and transaction points for the partial
+     * months at either edge. Ledger rows only exist for months with transactions, so the resulting
+     * months match those produced by {@link #addTransactionPoints}. While the ledger is not built with
+     * the given rules, for example while it is rebuilt after a rules change, the full months are read
+     * from transactions too.
+     */
+    private void addLedgerPoints(Long customerId, CustomerLookup lookup, LocalDate start, LocalDate end,
+                                 CompiledRewardRules rules, MonthlyPointsAggregator aggregator,
+                                 StageTimings timings) throws CustomerNotFoundException {
+        YearMonth firstFull = start.getDayOfMonth() == 1 ? YearMonth.from(start) : YearMonth.from(start).plusMonths(1);
+        YearMonth lastFull = end.equals(YearMonth.from(end).atEndOfMonth())
+                ? YearMonth.from(end) : YearMonth.from(end).minusMonths(1);
+
+        if (firstFull.isAfter(lastFull)) {
+            addTransactionPoints(customerId, lookup, start, end, rules, aggregator, timings);
+            return;
+        }
+        if (start.isBefore(firstFull.atDay(1))) {
+            addTransactionPoints(customerId, lookup, start, firstFull.atDay(1).minusDays(1), rules, aggregator, timings);
+        }
+        lookup.checkNotMissing();
+        long started = System.nanoTime();
+        List<CustomerMonthlyReward> months = ledgerService.isBuiltWith(rules)
+                ? ledgerService.findMonths(customerId, firstFull.atDay(1), lastFull.atDay(1)) : null;
+        if (months == null || !ledgerService.isBuiltWith(rules)) {
+            // The ledger holds, or may have started to hold, points of other rules
+            addTransactionPoints(customerId, lookup, firstFull.atDay(1), lastFull.atEndOfMonth(), rules, aggregator,
+                    timings);
+        } else {
+            started = timings.fetched(started);
+            for (CustomerMonthlyReward row : months) {
+                aggregator.add(row.getId().getRewardMonth(), row.getPoints());
+                timings.transactions(row.getTransactionCount());
+            }
+            timings.aggregated(started);
+        }
+        if (end.isAfter(lastFull.atEndOfMonth())) {
+            addTransactionPoints(customerId, lookup, lastFull.plusMonths(1).atDay(1), end, rules, aggregator, timings);
+        }
+    }
+
+    /**
+     * The customer lookup of one calculation: already resolved, or running concurrently on the lookup
+     * executor. Reads check it before each query, so once the lookup has found no customer the
+     * remaining transaction queries are skipped.
+     */
+    private static final class CustomerLookup {
+
+        private final Long customerId;
+        private final CompletableFuture<Optional<Customer>> result;
+        /** The customer's city when it is needed by the rules, otherwise {@code null}. */
+        private final String city;
+
+        private CustomerLookup(Long customerId, CompletableFuture<Optional<Customer>> result, String city) {
+            this.customerId = customerId;
+            this.result = result;
+            this.city = city;
+        }
+
+        /**
+         * @throws CustomerNotFoundException if the lookup has already completed without a customer
+         */
+        void checkNotMissing() throws CustomerNotFoundException {
+            if (result.isDone() && !result.isCompletedExceptionally() && result.join().isEmpty()) {
+                throw notFound();
+            }
+        }
+
+        /**
+         * Waits for the lookup to complete.
+         */
+        Customer customer() throws CustomerNotFoundException {
+            try {
+                return result.join().orElseThrow(this::notFound);
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+
+        private CustomerNotFoundException notFound() {
+            return new CustomerNotFoundException("Customer not found. Customer Id: " + customerId);
+        }
     }
 }
@@ -0,0 +1,167 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.RewardRulesChangedEvent;
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.model.RewardSummary;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded in-process cache of computed {@link RewardSummary} objects keyed by customer and period.
+ * Entries are evicted by size and age, and all entries of a customer are dropped once a new
+ * transaction for that customer has been committed. Everything is dropped when the reward rules change.
+ * <p>
+ * A summary computed while its customer's data changed must not outlive the change, so callers read
+ * the customer's {@link #version(Long) version} before computing a summary and pass it to
+ * {@link #put}, which keeps the summary only while the version is unchanged. Versions are counters
+ * shared by stripes of customers, so a write to one customer may at worst cause an uncached summary
+ * for another. Cached keys are indexed by customer, so invalidating a customer only touches its own
+ * entries.
+ * <p>
+ * Invalidations follow commits on the primary, but with {@code rewards.replica.enabled} summaries are
+ * read from the replica, which may not show the commit yet. A summary computed then would be cached
+ * as current, so summaries of customers changed within {@code rewards.replica.max-lag} are not cached.
+ */
+@Component
+public class RewardSummaryCache {
+
+    /** Number of version counters the customers are spread over; a power of two. */
+    private static final int VERSION_STRIPES = 4096;
+
+    private final boolean enabled;
+    private final Cache<Key, RewardSummary> cache;
+    private final Map<Long, Set<Key>> keysByCustomer = new ConcurrentHashMap<>();
+    private final AtomicLongArray customerVersions = new AtomicLongArray(VERSION_STRIPES);
+    private final AtomicLong generation = new AtomicLong();
+    /** {@link System#nanoTime()} of the last change in each stripe, or 0 if none. */
+    private final AtomicLongArray changedAt = new AtomicLongArray(VERSION_STRIPES);
+    /** Nanoseconds a replica read may miss a change for, or 0 without a replica. */
+    private final long replicaLag;
+
+    public RewardSummaryCache(RewardProperties properties) {
+        RewardProperties.Cache config = properties.getCache();
+        this.enabled = config.isEnabled();
+        this.replicaLag = properties.getReplica().isEnabled() ? properties.getReplica().getMaxLag().toNanos() : 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtl())
+                .evictionListener((Key key, RewardSummary summary, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return the cached summary, or {@code null} when it is absent or caching is disabled
+     */
+    public RewardSummary get(Long customerId, LocalDate start, LocalDate end) {
+        return enabled ? cache.getIfPresent(new Key(customerId, start, end)) : null;
+    }
+
+    /**
+     * Returns the version of a customer's cached data; read it before computing a summary to
+     * {@link #put}. Both counters only grow, so their sum changes whenever either does.
+     */
+    public long version(Long customerId) {
+        return generation.get() + customerVersions.get(stripe(customerId));
+    }
+
+    /**
+     * Caches a summary unless the customer's data changed since {@code version} was read, or so
+     * recently that a replica may not have shown the change to the summary. The version is checked
+     * again once the entry is in place, so an invalidation running concurrently either sees the entry
+     * or makes this method drop it.
+     *
+     * @param version the customer's {@link #version(Long)} read before the summary was computed
+     */
+    public void put(Long customerId, LocalDate start, LocalDate end, RewardSummary summary, long version) {
+        if (!enabled || version(customerId) != version || changedWithinReplicaLag(customerId)) {
+            return;
+        }
+        Key key = new Key(customerId, start, end);
+        cache.put(key, summary);
+        keysByCustomer.computeIfAbsent(customerId, id -> ConcurrentHashMap.newKeySet()).add(key);
+        if (version(customerId) != version) {
+            cache.asMap().remove(key, summary);
+            unindex(key);
+        }
+    }
+
+    /**
+     * Drops every cached period of the given customers, and any summary of theirs still being computed.
+     *
+     * @param customerIds the customers whose data changed
+     */
+    public void invalidateCustomers(Set<Long> customerIds) {
+        for (Long customerId : customerIds) {
+            // Before the version, so that whoever reads the new version sees the time of the change
+            changedAt.set(stripe(customerId), System.nanoTime());
+            customerVersions.incrementAndGet(stripe(customerId));
+            Set<Key> keys = keysByCustomer.remove(customerId);
+            if (keys != null) {
+                cache.invalidateAll(keys);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        keysByCustomer.clear();
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsRecorded(TransactionsRecordedEvent event) {
+        invalidateCustomers(event.getCustomerIds());
+    }
+
+    @EventListener
+    public void onRulesChanged(RewardRulesChangedEvent event) {
+        invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private boolean changedWithinReplicaLag(Long customerId) {
+        if (replicaLag == 0) {
+            return false;
+        }
+        long changed = changedAt.get(stripe(customerId));
+        return changed != 0 && System.nanoTime() - changed < replicaLag;
+    }
+
+    /**
+     * Removes a key evicted by size or age, or dropped as stale, from its customer's index.
+     */
+    private void unindex(Key key) {
+        keysByCustomer.computeIfPresent(key.customerId(), (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static int stripe(Long customerId) {
+        return Long.hashCode(customerId) & (VERSION_STRIPES - 1);
+    }
+
+    private record Key(Long customerId, LocalDate start, LocalDate end) {
+    }
+}
@@ -0,0 +1,177 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.model.Customer;
+import com.charter.rewards.model.IngestionResult;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.model.TransactionRequest;
+import com.charter.rewards.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk entry point for transactions coming from point-of-sale feeds. Each batch validates its
+ * customers with a single lookup, drops rows that cannot be stored and hands the rest to
+ * {@link TransactionService} for batched inserts.
+ */
+@Service
+public class TransactionIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIngestionService.class);
+
+    private final CustomerRepository customerRepository;
+    private final TransactionService transactionService;
+    private final int batchSize;
+
+    public TransactionIngestionService(CustomerRepository customerRepository, TransactionService transactionService,
+                                       RewardProperties properties) {
+        this.customerRepository = customerRepository;
+        this.transactionService = transactionService;
+        this.batchSize = properties.getIngestion().getBatchSize();
+    }
+
+    /**
+     * Stores a batch of transactions in one database transaction. Rows with a missing field,
+     * a negative amount, fractions of a cent or an unknown customer are rejected and counted, not stored.
+     *
+     * @param requests the transactions to store
+     * @return accepted and rejected counts, unknown customer IDs and throughput
+     */
+    public IngestionResult ingest(List<TransactionRequest> requests) {
+        long started = System.nanoTime();
+        IngestionResult result = store(requests);
+        return finish(result, started, "request");
+    }
+
+    /**
+     * Streams transactions from CSV lines of the form {@code customerId,date,amount} (a header line is
+     * skipped) and stores them in chunks of {@code rewards.ingestion.batch-size} rows, each chunk in its
+     * own database transaction. Only one chunk is held in memory at a time. Lines that cannot be parsed
+     * are rejected and counted.
+     *
+     * @param csv the CSV content
+     * @return accepted and rejected counts, unknown customer IDs and throughput for the whole file
+     * @throws IOException if the stream cannot be read
+     */
+    public IngestionResult ingestCsv(InputStream csv) throws IOException {
+        long started = System.nanoTime();
+        IngestionResult result = new IngestionResult();
+        List<TransactionRequest> chunk = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            boolean first = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || (first && line.startsWith("customerId"))) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                TransactionRequest request = parseCsvLine(line);
+                if (request == null) {
+                    result.setRejected(result.getRejected() + 1);
+                    continue;
+                }
+                chunk.add(request);
+                if (chunk.size() == batchSize) {
+                    result.merge(store(chunk));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            result.merge(store(chunk));
+        }
+        return finish(result, started, "file");
+    }
+
+    private IngestionResult store(List<TransactionRequest> requests) {
+        IngestionResult result = new IngestionResult();
+        Set<Long> customerIds = new HashSet<>();
+        for (TransactionRequest request : requests) {
+            if (request.getCustomerId() != null) {
+                customerIds.add(request.getCustomerId());
+            }
+        }
+        Map<Long, Customer> customers = new HashMap<>();
+        for (Customer customer : customerRepository.findAllById(customerIds)) {
+            customers.put(customer.getId(), customer);
+        }
+
+        List<Transaction> transactions = new ArrayList<>(requests.size());
+        for (TransactionRequest request : requests) {
+            Long amountCents = toCents(request.getAmount());
+            if (request.getCustomerId() == null || request.getDate() == null || amountCents == null) {
+                result.setRejected(result.getRejected() + 1);
+                continue;
+            }
+            Customer customer = customers.get(request.getCustomerId());
+            if (customer == null) {
+                result.setRejected(result.getRejected() + 1);
+                result.getUnknownCustomerIds().add(request.getCustomerId());
+                continue;
+            }
+            Transaction transaction = new Transaction();
+            transaction.setCustomer(customer);
+            transaction.setDate(request.getDate());
+            transaction.setAmountCents(amountCents);
+            transactions.add(transaction);
+        }
+        if (!transactions.isEmpty()) {
+            transactionService.recordTransactions(transactions);
+        }
+        result.setAccepted(transactions.size());
+        return result;
+    }
+
+    private static TransactionRequest parseCsvLine(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 3) {
+            return null;
+        }
+        try {
+            return new TransactionRequest(Long.valueOf(fields[0].trim()), LocalDate.parse(fields[1].trim()),
+                    new BigDecimal(fields[2].trim()));
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the amount in cents, or {@code null} when it is missing, negative or has fractions of a cent
+     */
+    private static Long toCents(BigDecimal amount) {
+        if (amount == null || amount.signum() < 0) {
+            return null;
+        }
+        try {
+            return amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException ex) {
+            return null;
+        }
+    }
+
+    private static IngestionResult finish(IngestionResult result, long started, String source) {
+        long elapsedNanos = Math.max(System.nanoTime() - started, 1);
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(result.getAccepted() * 1_000_000_000.0 / elapsedNanos);
+        log.info("Ingested {} transactions from {} ({} rejected) in {} ms, {} rows/s", result.getAccepted(), source,
+                result.getRejected(), result.getElapsedMillis(), Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.event.TransactionsRecordingEvent;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write path for transactions. Every write goes through here so that derived
+ * reward data stays in step with the transaction table.
+ */
+@Service
+public class TransactionService {
+
+    private final TransactionRepository transactionRepository;
+    private final RewardLedgerService ledgerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final boolean syncLedger;
+
+    public TransactionService(TransactionRepository transactionRepository, RewardLedgerService ledgerService,
+                              ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+                              RewardProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.ledgerService = ledgerService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.batchSize = properties.getIngestion().getBatchSize();
+        this.syncLedger = properties.getLedger().getWriteMode() == LedgerWriteMode.SYNC;
+    }
+
+    /**
+     * Persists a transaction, adds its points to the customer's monthly ledger row and
+     * publishes a {@link TransactionsRecordedEvent}. With {@code rewards.ledger.write-mode=async}
+     * the ledger row is updated after commit by {@link RewardLedgerWriteBehind} instead.
+     *
+     * @param transaction the transaction to store; its customer must already exist
+     * @return the persisted transaction
+     */
+    @Transactional
+    public Transaction recordTransaction(Transaction transaction) {
+        return recordTransactions(List.of(transaction)).get(0);
+    }
+
+    /**
+     * Persists many transactions in one database transaction. Inserts are flushed in JDBC batches
+     * of {@code rewards.ingestion.batch-size} rows and the persistence context is cleared between
+     * batches, so memory does not grow with the request. Ledger rows are updated once per customer
+     * and month (unless they are left to {@link RewardLedgerWriteBehind}), and a single
+     * {@link TransactionsRecordedEvent} is published. Ledger rebuilds are held off, and a
+     * {@link TransactionsRecordingEvent} is published, before the first statement, so a write waiting
+     * for a rebuild or a reload waits without holding a connection.
+     *
+     * @param transactions the transactions to store; their customers must already exist
+     * @return the persisted transactions
+     */
+    @Transactional
+    public List<Transaction> recordTransactions(List<Transaction> transactions) {
+        // Until the ledger is updated, or RewardLedgerWriteBehind has taken the transactions after commit
+        ledgerService.holdOffRebuilds();
+        eventPublisher.publishEvent(new TransactionsRecordingEvent());
+        List<Transaction> saved = new ArrayList<>(transactions.size());
+        for (int from = 0; from < transactions.size(); from += batchSize) {
+            List<Transaction> chunk = transactions.subList(from, Math.min(from + batchSize, transactions.size()));
+            saved.addAll(transactionRepository.saveAll(chunk));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        if (syncLedger) {
+            ledgerService.applyAll(saved);
+        }
+        eventPublisher.publishEvent(new TransactionsRecordedEvent(saved));
+        return saved;
+    }
+}
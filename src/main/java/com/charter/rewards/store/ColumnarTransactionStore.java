@@ -0,0 +1,243 @@
+package com.charter.rewards.store;
+
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.TransactionArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every transaction in memory as two sorted primitive columns per customer: the epoch day of
+ * each transaction and its amount in cents. A date range is located with two binary searches and
+ * returned as a view over the columns, so a read allocates one object regardless of the number of
+ * transactions and never touches the database. About 12 bytes are held per transaction.
+ * <p>
+ * The store is filled from the {@code transaction} table once all singletons are created, before
+ * the web server accepts requests, and then follows the write path through
+ * {@link TransactionsRecordedEvent}. Columns are never modified in place: a write replaces the
+ * customer's columns with merged copies, so readers always see a consistent snapshot without locking.
+ * Enabled with {@code rewards.read-store=columnar}.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "rewards", name = "read-store", havingValue = "columnar")
+public class ColumnarTransactionStore implements TransactionReadStore, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarTransactionStore.class);
+
+    private static final String LOAD_QUERY =
+            "SELECT customer_id, date, amount_cents FROM %s ORDER BY customer_id, date";
+
+    private static final Columns EMPTY = new Columns(new int[0], new long[0]);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionArchive archive;
+    private final Map<Long, Columns> columnsByCustomer = new ConcurrentHashMap<>();
+
+    public ColumnarTransactionStore(JdbcTemplate jdbcTemplate, TransactionArchive archive) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archive = archive;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        long loaded = load();
+        log.info("Loaded {} transactions of {} customers into the columnar store in {} ms",
+                loaded, columnsByCustomer.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Replaces the content of the store with the live and archived transactions, read in one pass
+     * ordered by customer and date so that each customer's columns are built already sorted.
+     * Transactions recorded while the table is being read may be lost, so this is meant for
+     * startup or for a quiet system.
+     *
+     * @return the number of transactions loaded
+     */
+    public long load() {
+        ColumnsBuilder builder = new ColumnsBuilder();
+        Map<Long, Columns> loaded = new HashMap<>();
+        long[] count = new long[1];
+        Long[] current = new Long[1];
+        jdbcTemplate.query(LOAD_QUERY.formatted(archive.historyTable()), rs -> {
+            long customerId = rs.getLong(1);
+            if (current[0] == null || current[0] != customerId) {
+                if (current[0] != null) {
+                    loaded.put(current[0], builder.build());
+                }
+                current[0] = customerId;
+            }
+            builder.add(rs.getDate(2).toLocalDate().toEpochDay(), rs.getLong(3));
+            count[0]++;
+        });
+        if (current[0] != null) {
+            loaded.put(current[0], builder.build());
+        }
+        columnsByCustomer.clear();
+        columnsByCustomer.putAll(loaded);
+        return count[0];
+    }
+
+    /**
+     * Merges newly committed transactions into the columns of their customers. Runs before
+     * the other listeners of the event so that a summary recomputed after a cache invalidation
+     * already sees the new transactions.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onTransactionsRecorded(TransactionsRecordedEvent event) {
+        Map<Long, List<Transaction>> byCustomer = new HashMap<>();
+        for (Transaction transaction : event.getTransactions()) {
+            byCustomer.computeIfAbsent(transaction.getCustomer().getId(), id -> new ArrayList<>()).add(transaction);
+        }
+        byCustomer.forEach((customerId, transactions) -> {
+            ColumnsBuilder builder = new ColumnsBuilder();
+            for (Transaction transaction : transactions) {
+                builder.add(transaction.getDate().toEpochDay(), transaction.getAmountCents());
+            }
+            Columns added = builder.buildSorted();
+            columnsByCustomer.merge(customerId, added, Columns::merge);
+        });
+    }
+
+    @Override
+    public TransactionSlice findByCustomerIdAndDateBetween(Long customerId, LocalDate start, LocalDate end) {
+        Columns columns = columnsByCustomer.getOrDefault(customerId, EMPTY);
+        int from = columns.firstIndexOnOrAfter(start.toEpochDay());
+        int to = columns.firstIndexOnOrAfter(end.toEpochDay() + 1);
+        return new ColumnSlice(columns, from, Math.max(from, to));
+    }
+
+    /**
+     * @return the number of transactions held for all customers
+     */
+    public long size() {
+        long size = 0;
+        for (Columns columns : columnsByCustomer.values()) {
+            size += columns.days.length;
+        }
+        return size;
+    }
+
+    /**
+     * Immutable, date-ordered columns of one customer. Days are stored as {@code int} epoch days,
+     * which covers every date the {@code DATE} column can hold in practice.
+     */
+    private record Columns(int[] days, long[] cents) {
+
+        /**
+         * Binary search for the first transaction on or after the given day, or the column length.
+         */
+        int firstIndexOnOrAfter(long epochDay) {
+            int low = 0;
+            int high = days.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Merges two sorted column sets; transactions of the same day keep their insertion order.
+         */
+        Columns merge(Columns added) {
+            int[] mergedDays = new int[days.length + added.days.length];
+            long[] mergedCents = new long[mergedDays.length];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < mergedDays.length; k++) {
+                if (j >= added.days.length || (i < days.length && days[i] <= added.days[j])) {
+                    mergedDays[k] = days[i];
+                    mergedCents[k] = cents[i++];
+                } else {
+                    mergedDays[k] = added.days[j];
+                    mergedCents[k] = added.cents[j++];
+                }
+            }
+            return new Columns(mergedDays, mergedCents);
+        }
+    }
+
+    private record ColumnSlice(Columns columns, int from, int to) implements TransactionSlice {
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public long epochDay(int index) {
+            return columns.days[from + index];
+        }
+
+        @Override
+        public long amountCents(int index) {
+            return columns.cents[from + index];
+        }
+    }
+
+    /**
+     * Growable column pair, reset by every {@code build}.
+     */
+    private static final class ColumnsBuilder {
+
+        private int[] days = new int[16];
+        private long[] cents = new long[16];
+        private int size;
+
+        void add(long epochDay, long amountCents) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                cents = Arrays.copyOf(cents, size * 2);
+            }
+            days[size] = Math.toIntExact(epochDay);
+            cents[size++] = amountCents;
+        }
+
+        Columns build() {
+            Columns columns = new Columns(Arrays.copyOf(days, size), Arrays.copyOf(cents, size));
+            size = 0;
+            return columns;
+        }
+
+        /**
+         * Builds columns from transactions added in any order, sorting them by day.
+         */
+        Columns buildSorted() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(days[a], days[b]));
+            int[] sortedDays = new int[size];
+            long[] sortedCents = new long[size];
+            for (int i = 0; i < size; i++) {
+                sortedDays[i] = days[order[i]];
+                sortedCents[i] = cents[order[i]];
+            }
+            size = 0;
+            return new Columns(sortedDays, sortedCents);
+        }
+    }
+}
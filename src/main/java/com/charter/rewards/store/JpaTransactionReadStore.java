@@ -0,0 +1,54 @@
+package com.charter.rewards.store;
+
+import com.charter.rewards.repository.TransactionAmount;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.repository.TransactionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reads transactions from the database through the {@code (date, amount)} projection of
+ * {@link TransactionRepository}. This is the default store. Periods starting before the first live
+ * month are read from the {@code transaction_history} view, in one statement, and the others from
+ * the live table alone.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rewards", name = "read-store", havingValue = "jpa", matchIfMissing = true)
+public class JpaTransactionReadStore implements TransactionReadStore {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive archive;
+
+    public JpaTransactionReadStore(TransactionRepository transactionRepository, TransactionArchive archive) {
+        this.transactionRepository = transactionRepository;
+        this.archive = archive;
+    }
+
+    @Override
+    public TransactionSlice findByCustomerIdAndDateBetween(Long customerId, LocalDate start, LocalDate end) {
+        return new ListSlice(archive.covers(start)
+                ? transactionRepository.findHistoryAmountsByCustomerIdAndDateBetween(customerId, start, end)
+                : transactionRepository.findAmountsByCustomerIdAndDateBetween(customerId, start, end));
+    }
+
+    private record ListSlice(List<TransactionAmount> transactions) implements TransactionSlice {
+
+        @Override
+        public int size() {
+            return transactions.size();
+        }
+
+        @Override
+        public long epochDay(int index) {
+            return transactions.get(index).date().toEpochDay();
+        }
+
+        @Override
+        public long amountCents(int index) {
+            return transactions.get(index).amountCents();
+        }
+    }
+}
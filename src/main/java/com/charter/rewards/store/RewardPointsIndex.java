@@ -0,0 +1,346 @@
+package com.charter.rewards.store;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.RewardRulesChangedEvent;
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.event.TransactionsRecordingEvent;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.MonthlyPointsView;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import com.charter.rewards.service.RewardQueryMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-customer running totals of reward points, ordered by date. For every day on which a customer
+ * has transactions the index holds the points and the number of transactions accumulated up to and
+ * including that day, so the total of any period is the difference of two prefix sums located by
+ * binary search, and a monthly breakdown costs two searches per month that has transactions,
+ * whatever the number of transactions in the period.
+ * <p>
+ * Points are computed with {@link CompiledRewardRules#points(long, long, String)}, exactly as when
+ * transactions are read one by one. The index is built from the database once all singletons are
+ * created when {@code rewards.query-mode=prefix_sum}, follows the write path through
+ * {@link TransactionsRecordedEvent} and is rebuilt when the rules change; writes wait while it is
+ * rebuilt, so none is lost or counted twice (see {@link StoreLoadLock}). Like the columnar store,
+ * each write replaces a customer's arrays with merged copies, so readers never lock.
+ */
+@Component
+@Lazy(false)
+public class RewardPointsIndex implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardPointsIndex.class);
+
+    private static final String LOAD_QUERY = "SELECT t.customer_id, t.date, t.amount_cents, c.city "
+            + "FROM %s t JOIN customer c ON c.id = t.customer_id ORDER BY t.customer_id, t.date";
+
+    private static final String CITY_QUERY = "SELECT city FROM customer WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RewardRuleEngine ruleEngine;
+    private final RewardProperties properties;
+    private final TransactionArchive archive;
+    private final StoreLoadLock loadLock = new StoreLoadLock();
+    private volatile Map<Long, CustomerIndex> indexByCustomer;
+
+    public RewardPointsIndex(JdbcTemplate jdbcTemplate, RewardRuleEngine ruleEngine, RewardProperties properties,
+                             TransactionArchive archive) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ruleEngine = ruleEngine;
+        this.properties = properties;
+        this.archive = archive;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (properties.getQueryMode() == RewardQueryMode.PREFIX_SUM) {
+            long started = System.nanoTime();
+            long loaded = load();
+            log.info("Indexed {} transactions of {} customers in {} ms",
+                    loaded, indexByCustomer.size(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Builds the index from the live and archived transactions with the rules currently in effect and
+     * starts maintaining it. Transactions being recorded wait until the new index is in place.
+     *
+     * @return the number of transactions indexed
+     */
+    public long load() {
+        return loadLock.load(this::read);
+    }
+
+    private long read() {
+        CompiledRewardRules rules = ruleEngine.current();
+        Map<Long, CustomerIndex> loaded = new ConcurrentHashMap<>();
+        DailyTotals daily = new DailyTotals();
+        long[] count = new long[1];
+        Long[] current = new Long[1];
+        String[] city = new String[1];
+        jdbcTemplate.query(LOAD_QUERY.formatted(archive.historyTable()), rs -> {
+            long customerId = rs.getLong(1);
+            if (current[0] == null || current[0] != customerId) {
+                if (current[0] != null) {
+                    loaded.put(current[0], daily.build(city[0]));
+                }
+                current[0] = customerId;
+                city[0] = rs.getString(4);
+            }
+            long day = rs.getDate(2).toLocalDate().toEpochDay();
+            daily.add(day, rules.points(rs.getLong(3), day, city[0]));
+            count[0]++;
+        });
+        if (current[0] != null) {
+            loaded.put(current[0], daily.build(city[0]));
+        }
+        indexByCustomer = loaded;
+        return count[0];
+    }
+
+    public boolean isLoaded() {
+        return indexByCustomer != null;
+    }
+
+    /**
+     * Keeps the index from being rebuilt until the transactions being recorded are added to it.
+     */
+    @EventListener
+    public void onTransactionsRecording(TransactionsRecordingEvent event) {
+        if (isLoaded()) {
+            loadLock.holdOffLoads();
+        }
+    }
+
+    /**
+     * Adds newly committed transactions to the running totals of their customers. Runs before
+     * the other listeners of the event so that a summary recomputed after a cache invalidation
+     * already includes them.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onTransactionsRecorded(TransactionsRecordedEvent event) {
+        loadLock.update(() -> add(event));
+    }
+
+    private void add(TransactionsRecordedEvent event) {
+        Map<Long, CustomerIndex> index = indexByCustomer;
+        if (index == null) {
+            return;
+        }
+        CompiledRewardRules rules = ruleEngine.current();
+        Map<Long, List<Transaction>> byCustomer = new HashMap<>();
+        for (Transaction transaction : event.getTransactions()) {
+            byCustomer.computeIfAbsent(transaction.getCustomer().getId(), id -> new ArrayList<>()).add(transaction);
+        }
+        byCustomer.forEach((customerId, transactions) -> {
+            CustomerIndex existing = index.get(customerId);
+            String city = existing != null ? existing.city : rules.hasCityPromotions() ? findCity(customerId) : null;
+            transactions.sort(Comparator.comparing(Transaction::getDate));
+            DailyTotals daily = new DailyTotals();
+            for (Transaction transaction : transactions) {
+                long day = transaction.getDate().toEpochDay();
+                daily.add(day, rules.points(transaction.getAmountCents(), day, city));
+            }
+            index.merge(customerId, daily.build(city), CustomerIndex::merge);
+        });
+    }
+
+    /**
+     * Recomputes every running total with the new rules, before cached summaries are dropped.
+     */
+    @EventListener
+    @Order(0)
+    public void onRulesChanged(RewardRulesChangedEvent event) {
+        if (isLoaded()) {
+            load();
+        }
+    }
+
+    /**
+     * Returns the reward points a customer earned between two dates.
+     *
+     * @throws IllegalStateException if the index has not been loaded
+     */
+    public long totalPoints(Long customerId, LocalDate start, LocalDate end) {
+        CustomerIndex index = customerIndex(customerId);
+        if (index == null) {
+            return 0;
+        }
+        return index.pointsBefore(index.firstIndexOnOrAfter(end.toEpochDay() + 1))
+                - index.pointsBefore(index.firstIndexOnOrAfter(start.toEpochDay()));
+    }
+
+    /**
+     * Returns the points and transaction counts of a customer for each month of the period that has
+     * at least one transaction, in month order. Months without transactions are skipped with one
+     * search rather than visited, so the cost depends on the months with activity only.
+     *
+     * @throws IllegalStateException if the index has not been loaded
+     */
+    public List<MonthlyPointsView> monthlyPoints(Long customerId, LocalDate start, LocalDate end) {
+        CustomerIndex index = customerIndex(customerId);
+        if (index == null) {
+            return List.of();
+        }
+        long endExclusive = end.toEpochDay() + 1;
+        int from = index.firstIndexOnOrAfter(start.toEpochDay());
+        List<MonthlyPointsView> months = new ArrayList<>();
+        while (from < index.days.length && index.days[from] < endExclusive) {
+            YearMonth month = YearMonth.from(LocalDate.ofEpochDay(index.days[from]));
+            long boundary = Math.min(month.plusMonths(1).atDay(1).toEpochDay(), endExclusive);
+            int to = index.firstIndexOnOrAfter(boundary);
+            months.add(new MonthlyPoints(month.getYear(), month.getMonthValue(),
+                    index.pointsBefore(to) - index.pointsBefore(from),
+                    (long) index.countBefore(to) - index.countBefore(from)));
+            from = to;
+        }
+        return months;
+    }
+
+    private CustomerIndex customerIndex(Long customerId) {
+        Map<Long, CustomerIndex> index = indexByCustomer;
+        if (index == null) {
+            throw new IllegalStateException("The reward points index is not loaded; set rewards.query-mode=prefix_sum");
+        }
+        return index.get(customerId);
+    }
+
+    private String findCity(Long customerId) {
+        List<String> cities = jdbcTemplate.queryForList(CITY_QUERY, String.class, customerId);
+        return cities.isEmpty() ? null : cities.get(0);
+    }
+
+    /**
+     * Immutable running totals of one customer, one element per day with transactions.
+     * {@code points[i]} and {@code counts[i]} include every transaction up to and including {@code days[i]}.
+     */
+    private record CustomerIndex(String city, int[] days, long[] points, int[] counts) {
+
+        int firstIndexOnOrAfter(long epochDay) {
+            int low = 0;
+            int high = days.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        long pointsBefore(int index) {
+            return index == 0 ? 0 : points[index - 1];
+        }
+
+        int countBefore(int index) {
+            return index == 0 ? 0 : counts[index - 1];
+        }
+
+        /**
+         * Merges the daily totals of both indexes and recomputes the running totals; the city of
+         * this index is kept.
+         */
+        CustomerIndex merge(CustomerIndex added) {
+            DailyTotals merged = new DailyTotals();
+            int i = 0;
+            int j = 0;
+            while (i < days.length || j < added.days.length) {
+                if (j >= added.days.length || (i < days.length && days[i] <= added.days[j])) {
+                    merged.add(days[i], pointsBefore(i + 1) - pointsBefore(i), countBefore(i + 1) - countBefore(i));
+                    i++;
+                } else {
+                    merged.add(added.days[j], added.pointsBefore(j + 1) - added.pointsBefore(j),
+                            added.countBefore(j + 1) - added.countBefore(j));
+                    j++;
+                }
+            }
+            return merged.build(city);
+        }
+    }
+
+    private record MonthlyPoints(Integer year, Integer month, Long points, Long transactionCount)
+            implements MonthlyPointsView {
+
+        @Override
+        public Integer getYear() {
+            return year;
+        }
+
+        @Override
+        public Integer getMonth() {
+            return month;
+        }
+
+        @Override
+        public Long getPoints() {
+            return points;
+        }
+
+        @Override
+        public Long getTransactionCount() {
+            return transactionCount;
+        }
+    }
+
+    /**
+     * Accumulates running totals from values added in day order, folding values of the same
+     * day into one element. Reset by every {@code build}.
+     */
+    private static final class DailyTotals {
+
+        private int[] days = new int[16];
+        private long[] points = new long[16];
+        private int[] counts = new int[16];
+        private int size;
+
+        void add(long epochDay, int transactionPoints) {
+            add(epochDay, transactionPoints, 1);
+        }
+
+        void add(long epochDay, long dayPoints, int dayCount) {
+            if (size > 0 && days[size - 1] == epochDay) {
+                points[size - 1] += dayPoints;
+                counts[size - 1] += dayCount;
+                return;
+            }
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                points = Arrays.copyOf(points, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            days[size] = Math.toIntExact(epochDay);
+            points[size] = dayPoints + (size == 0 ? 0 : points[size - 1]);
+            counts[size] = dayCount + (size == 0 ? 0 : counts[size - 1]);
+            size++;
+        }
+
+        CustomerIndex build(String city) {
+            CustomerIndex index = new CustomerIndex(city, Arrays.copyOf(days, size), Arrays.copyOf(points, size),
+                    Arrays.copyOf(counts, size));
+            size = 0;
+            return index;
+        }
+    }
+}
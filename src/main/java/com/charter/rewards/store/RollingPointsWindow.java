@@ -0,0 +1,258 @@
+package com.charter.rewards.store;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.RewardRulesChangedEvent;
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.event.TransactionsRecordingEvent;
+import com.charter.rewards.model.RollingPoints;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reward points each customer earned over the last days, for "points in the last N days" checks.
+ * <p>
+ * Every customer with points since the window was loaded has a ring buffer of running point totals,
+ * one slot per day of the last {@code rewards.rolling.max-days} days plus one, so the points of any
+ * window of up to that many days ending today are the difference of two slots: a query costs the
+ * same whatever the window or the customer's history, and never touches the database. About
+ * 8 bytes per slot are held per customer.
+ * <p>
+ * Buffers advance lazily: the first query or update on a new day fills the slots of the days that
+ * passed, one per day, so nothing has to run at midnight. "Today" comes from the {@link Clock}.
+ * The buffers are filled from the recent transactions once all singletons are created, then follow
+ * the write path through {@link TransactionsRecordedEvent} and are rebuilt when the rules change.
+ * Writes wait while the buffers are rebuilt, so none is lost or counted twice (see {@link StoreLoadLock}).
+ * Points of transactions dated after today are held back until their day comes. Enabled unless
+ * {@code rewards.rolling.enabled=false}.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "rewards.rolling", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RollingPointsWindow implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(RollingPointsWindow.class);
+
+    private static final String LOAD_QUERY = "SELECT t.customer_id, t.date, t.amount_cents, c.city "
+            + "FROM %s t JOIN customer c ON c.id = t.customer_id WHERE t.month_key >= ? AND t.date >= ?";
+
+    private static final String CITY_QUERY = "SELECT city FROM customer WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RewardRuleEngine ruleEngine;
+    private final TransactionArchive archive;
+    private final Clock clock;
+    private final int maxDays;
+    private final StoreLoadLock loadLock = new StoreLoadLock();
+    private volatile Map<Long, CustomerWindow> windows = new ConcurrentHashMap<>();
+
+    public RollingPointsWindow(JdbcTemplate jdbcTemplate, RewardRuleEngine ruleEngine, TransactionArchive archive,
+                               Clock clock, RewardProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ruleEngine = ruleEngine;
+        this.archive = archive;
+        this.clock = clock;
+        this.maxDays = properties.getRolling().getMaxDays();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        long loaded = load();
+        log.info("Loaded {} days of reward points from {} transactions of {} customers in {} ms",
+                maxDays, loaded, windows.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Rebuilds every buffer from the transactions of the window, and any dated later, with the rules
+     * currently in effect. Transactions being recorded wait until the new buffers are in place.
+     *
+     * @return the number of transactions read
+     */
+    public long load() {
+        return loadLock.load(this::read);
+    }
+
+    private long read() {
+        CompiledRewardRules rules = ruleEngine.current();
+        int today = todayEpochDay();
+        LocalDate start = LocalDate.ofEpochDay(today - maxDays);
+        Map<Long, CustomerWindow> loaded = new ConcurrentHashMap<>();
+        long[] count = new long[1];
+        jdbcTemplate.query(LOAD_QUERY.formatted(archive.tableFor(start)), rs -> {
+            long customerId = rs.getLong(1);
+            long day = rs.getDate(2).toLocalDate().toEpochDay();
+            String city = rs.getString(4);
+            loaded.computeIfAbsent(customerId, id -> new CustomerWindow(maxDays + 1, city, today))
+                    .add(Math.toIntExact(day), rules.points(rs.getLong(3), day, city), today);
+            count[0]++;
+        }, TransactionArchive.monthKey(YearMonth.from(start)), Date.valueOf(start));
+        windows = loaded;
+        return count[0];
+    }
+
+    /**
+     * Keeps the buffers from being rebuilt until the transactions being recorded are added to them.
+     */
+    @EventListener
+    public void onTransactionsRecording(TransactionsRecordingEvent event) {
+        loadLock.holdOffLoads();
+    }
+
+    /**
+     * Adds newly committed transactions to the buffers of their customers.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsRecorded(TransactionsRecordedEvent event) {
+        loadLock.update(() -> add(event.getTransactions()));
+    }
+
+    private void add(List<Transaction> transactions) {
+        CompiledRewardRules rules = ruleEngine.current();
+        Map<Long, CustomerWindow> current = windows;
+        int today = todayEpochDay();
+        for (Transaction transaction : transactions) {
+            // Undated transactions fall in no window, as the load query leaves them out too
+            if (transaction.getDate() == null || transaction.getDate().toEpochDay() < today - maxDays) {
+                continue;
+            }
+            Long customerId = transaction.getCustomer().getId();
+            long day = transaction.getDate().toEpochDay();
+            CustomerWindow window = current.computeIfAbsent(customerId, id -> new CustomerWindow(maxDays + 1,
+                    rules.hasCityPromotions() ? findCity(id) : null, today));
+            window.add(Math.toIntExact(day), rules.points(transaction.getAmountCents(), day, window.city), today);
+        }
+    }
+
+    /**
+     * Recomputes every buffer with the new rules.
+     */
+    @EventListener
+    public void onRulesChanged(RewardRulesChangedEvent event) {
+        load();
+    }
+
+    /**
+     * Returns the reward points a customer earned in the given number of days up to and including
+     * today; customers without points in that time, known or not, have none.
+     *
+     * @param days the length of the window, from 1 to {@code rewards.rolling.max-days}
+     * @throws IllegalArgumentException if the window is not within that range
+     */
+    public RollingPoints points(Long customerId, int days) {
+        if (days < 1 || days > maxDays) {
+            throw new IllegalArgumentException("Days must be between 1 and " + maxDays);
+        }
+        int today = todayEpochDay();
+        CustomerWindow window = windows.get(customerId);
+        long points = window == null ? 0 : window.points(today, days);
+        return new RollingPoints(customerId, days, LocalDate.ofEpochDay(today - days + 1L), LocalDate.ofEpochDay(today),
+                points);
+    }
+
+    private int todayEpochDay() {
+        return Math.toIntExact(LocalDate.now(clock).toEpochDay());
+    }
+
+    private String findCity(Long customerId) {
+        List<String> cities = jdbcTemplate.queryForList(CITY_QUERY, String.class, customerId);
+        return cities.isEmpty() ? null : cities.get(0);
+    }
+
+    /**
+     * Ring buffer of one customer's running point totals. The slot of day {@code d} holds the points of
+     * every day up to and including {@code d}, for the {@code totals.length} days ending on
+     * {@link #lastDay}; a total only ever differs from another by the points between their days, so
+     * totals start from zero when the buffer is created.
+     */
+    private static final class CustomerWindow {
+
+        private final String city;
+        private final long[] totals;
+        private int lastDay;
+        /** Points of days after {@link #lastDay} by day, or {@code null} when there are none. */
+        private TreeMap<Integer, Long> later;
+
+        CustomerWindow(int length, String city, int today) {
+            this.city = city;
+            this.totals = new long[length];
+            this.lastDay = today;
+        }
+
+        synchronized long points(int today, int days) {
+            advance(today);
+            return total(today) - total(today - days);
+        }
+
+        /**
+         * Adds points to a day and to every later total. A day before the buffer adds to every slot
+         * alike, so it changes no window and is dropped.
+         */
+        synchronized void add(int day, long points, int today) {
+            advance(today);
+            if (day > lastDay) {
+                if (later == null) {
+                    later = new TreeMap<>();
+                }
+                later.merge(day, points, Long::sum);
+                return;
+            }
+            for (int d = Math.max(day, lastDay - totals.length + 1); d <= lastDay; d++) {
+                totals[slot(d)] += points;
+            }
+        }
+
+        /**
+         * Moves the buffer to a later day: the slots of the days in between take the last total, then
+         * held-back points whose day has come are added.
+         */
+        private void advance(int today) {
+            if (today <= lastDay) {
+                return;
+            }
+            long last = totals[slot(lastDay)];
+            for (int d = Math.max(lastDay + 1, today - totals.length + 1); d <= today; d++) {
+                totals[slot(d)] = last;
+            }
+            lastDay = today;
+            while (later != null && !later.isEmpty() && later.firstKey() <= today) {
+                Map.Entry<Integer, Long> due = later.pollFirstEntry();
+                for (int d = Math.max(due.getKey(), today - totals.length + 1); d <= today; d++) {
+                    totals[slot(d)] += due.getValue();
+                }
+            }
+        }
+
+        /**
+         * The total at a day, clamped to the days the buffer holds: only a clock that went back can
+         * ask for a day after {@link #lastDay} or before the oldest slot.
+         */
+        private long total(int day) {
+            int clamped = Math.min(Math.max(day, lastDay - totals.length + 1), lastDay);
+            return totals[slot(clamped)];
+        }
+
+        private int slot(int day) {
+            return Math.floorMod(day, totals.length);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.charter.rewards.store;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps a store that is loaded from the transaction table and then follows
+ * {@link com.charter.rewards.event.TransactionsRecordedEvent} from losing or double counting the
+ * transactions recorded while it reloads.
+ * <p>
+ * A write {@link #holdOffLoads() holds off} loads from the moment it publishes
+ * {@link com.charter.rewards.event.TransactionsRecordingEvent}, before its first statement, until its
+ * database transaction completes, which covers its commit and the update of the store after commit.
+ * A write waiting for a load therefore holds no connection the load might need.
+ * A load waits for the writes already holding off, so it reads their rows and they update the store
+ * it replaces, and writes starting during the load wait for it, so the load does not see their
+ * uncommitted rows and they update the store it built. The lock is fair, so a pending load is not
+ * starved by a steady stream of writes.
+ */
+final class StoreLoadLock {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+
+    /**
+     * Blocks loads until the current transaction completes; without a transaction the event is
+     * handled right away and {@link #update} alone covers it.
+     */
+    void holdOffLoads() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                readLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Applies recorded transactions to the store while no load runs.
+     */
+    void update(Runnable update) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            update.run();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the store from the database and swaps it in while no write is between starting and
+     * updating the store.
+     *
+     * @return what the load returns
+     */
+    long load(LongSupplier load) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            return load.getAsLong();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.charter.rewards.store;
+
+import java.time.LocalDate;
+
+/**
+ * Read side of the transaction data used by the reward calculation. The implementation is chosen with
+ * {@code rewards.read-store}: {@link TransactionStoreType#JPA} queries the database on every call,
+ * {@link TransactionStoreType#COLUMNAR} serves everything from memory.
+ */
+public interface TransactionReadStore {
+
+    /**
+     * Returns the transactions of a customer between two dates.
+     *
+     * @param customerId the customer whose transactions are read
+     * @param start      first day of the period (inclusive)
+     * @param end        last day of the period (inclusive)
+     * @return the matching transactions; empty for an unknown customer
+     */
+    TransactionSlice findByCustomerIdAndDateBetween(Long customerId, LocalDate start, LocalDate end);
+}
@@ -0,0 +1,17 @@
+package com.charter.rewards.store;
+
+/**
+ * The transactions of one customer in a date range, ordered by date, read by index so that no
+ * object is needed per transaction.
+ */
+public interface TransactionSlice {
+
+    int size();
+
+    /**
+     * @return the transaction date as a {@link java.time.LocalDate#toEpochDay() epoch day}
+     */
+    long epochDay(int index);
+
+    long amountCents(int index);
+}
@@ -0,0 +1,13 @@
+package com.charter.rewards.store;
+
+/**
+ * Backends available for {@link TransactionReadStore}.
+ */
+public enum TransactionStoreType {
+
+    /** Query the {@code transaction} table through JPA for every request. */
+    JPA,
+
+    /** Hold every transaction in memory as sorted primitive arrays per customer. */
+    COLUMNAR
+}
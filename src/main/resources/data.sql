@@ -5,58 +5,62 @@ INSERT INTO customer (id, name, phone, city) VALUES
 (4, 'Dhivya', '9123456789', 'Pune'),
 (5, 'Vikram', '9871234567', 'Delhi');
 
-INSERT INTO transaction (customer_id, date, amount) VALUES
-(1, '2025-06-05', 250.50),
-(1, '2025-06-20', 100.00),
-(1, '2025-07-03', 150.25),
-(1, '2025-07-19', 75.80),
-(1, '2025-08-02', 200.00),
-(1, '2025-08-16', 99.99),
-(1, '2025-09-01', 300.00),
-(1, '2025-09-15', 450.75),
-(1, '2025-09-30', 125.00),
-(1, '2025-10-05', 220.90),
-(1, '2025-10-15', 180.00),
-(1, '2025-10-25', 90.45);
+INSERT INTO transaction (customer_id, date, amount_cents) VALUES
+(1, '2025-06-05', 25050),
+(1, '2025-06-20', 10000),
+(1, '2025-07-03', 15025),
+(1, '2025-07-19', 7580),
+(1, '2025-08-02', 20000),
+(1, '2025-08-16', 9999),
+(1, '2025-09-01', 30000),
+(1, '2025-09-15', 45075),
+(1, '2025-09-30', 12500),
+(1, '2025-10-05', 22090),
+(1, '2025-10-15', 18000),
+(1, '2025-10-25', 9045);
 
-INSERT INTO transaction (customer_id, date, amount) VALUES
-(2, '2025-06-10', 180.00),
-(2, '2025-06-24', 250.50),
-(2, '2025-07-07', 300.00),
-(2, '2025-07-25', 125.75),
-(2, '2025-08-05', 400.00),
-(2, '2025-08-22', 95.25),
-(2, '2025-09-03', 180.90),
-(2, '2025-09-20', 150.00),
-(2, '2025-09-29', 90.50),
-(2, '2025-10-06', 220.00),
-(2, '2025-10-18', 110.10),
-(2, '2025-10-27', 85.35);
+INSERT INTO transaction (customer_id, date, amount_cents) VALUES
+(2, '2025-06-10', 18000),
+(2, '2025-06-24', 25050),
+(2, '2025-07-07', 30000),
+(2, '2025-07-25', 12575),
+(2, '2025-08-05', 40000),
+(2, '2025-08-22', 9525),
+(2, '2025-09-03', 18090),
+(2, '2025-09-20', 15000),
+(2, '2025-09-29', 9050),
+(2, '2025-10-06', 22000),
+(2, '2025-10-18', 11010),
+(2, '2025-10-27', 8535);
 
-INSERT INTO transaction (customer_id, date, amount) VALUES
-(3, '2025-06-02', 120.00),
-(3, '2025-06-18', 90.40),
-(3, '2025-07-08', 300.00),
-(3, '2025-07-21', 150.50),
-(3, '2025-08-09', 500.00),
-(3, '2025-08-27', 80.00),
-(3, '2025-09-04', 210.00),
-(3, '2025-09-16', 75.60),
-(3, '2025-09-28', 260.40),
-(3, '2025-10-04', 185.90),
-(3, '2025-10-12', 95.25),
-(3, '2025-10-22', 400.00);
+INSERT INTO transaction (customer_id, date, amount_cents) VALUES
+(3, '2025-06-02', 12000),
+(3, '2025-06-18', 9040),
+(3, '2025-07-08', 30000),
+(3, '2025-07-21', 15050),
+(3, '2025-08-09', 50000),
+(3, '2025-08-27', 8000),
+(3, '2025-09-04', 21000),
+(3, '2025-09-16', 7560),
+(3, '2025-09-28', 26040),
+(3, '2025-10-04', 18590),
+(3, '2025-10-12', 9525),
+(3, '2025-10-22', 40000);
 
-INSERT INTO transaction (customer_id, date, amount) VALUES
-(4, '2025-06-04', 220.00),
-(4, '2025-06-22', 180.75),
-(4, '2025-07-09', 130.00),
-(4, '2025-07-26', 210.45),
-(4, '2025-08-12', 500.00),
-(4, '2025-08-25', 300.00),
-(4, '2025-09-02', 180.00),
-(4, '2025-09-17', 90.25),
-(4, '2025-09-30', 275.50),
-(4, '2025-10-08', 150.00),
-(4, '2025-10-20', 95.90),
-(4, '2025-10-28', 350.00);
\ No newline at end of file
+INSERT INTO transaction (customer_id, date, amount_cents) VALUES
+(4, '2025-06-04', 22000),
+(4, '2025-06-22', 18075),
+(4, '2025-07-09', 13000),
+(4, '2025-07-26', 21045),
+(4, '2025-08-12', 50000),
+(4, '2025-08-25', 30000),
+(4, '2025-09-02', 18000),
+(4, '2025-09-17', 9025),
+(4, '2025-09-30', 27550),
+(4, '2025-10-08', 15000),
+(4, '2025-10-20', 9590),
+(4, '2025-10-28', 35000);
+
+INSERT INTO reward_tier (threshold, multiplier) VALUES
+(50.00, 1),
+(100.00, 2);
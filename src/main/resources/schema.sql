@@ -2,13 +2,90 @@ CREATE TABLE customer (
     id BIGINT PRIMARY KEY,
     name VARCHAR(50),
     phone VARCHAR(20),
-    city VARCHAR(50)
+    city VARCHAR(50),
+    -- Moved with every change to the customer's transactions or ledger rows; reward summary ETags are built from it.
+    data_version BIGINT NOT NULL DEFAULT 0
 );
 
+-- Allocated in blocks of 50 so Hibernate can batch inserts (pooled optimizer).
+CREATE SEQUENCE transaction_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE transaction (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR transaction_seq PRIMARY KEY,
+    customer_id BIGINT,
+    date DATE,
+    amount_cents BIGINT NOT NULL,
+    -- yyyyMM bucket of the date; months are archived and located by this key.
+    month_key INT GENERATED ALWAYS AS (EXTRACT(YEAR FROM date) * 100 + EXTRACT(MONTH FROM date)),
+    FOREIGN KEY (customer_id) REFERENCES customer(id)
+);
+
+-- Serves customer/date range lookups; the amount is included so reward aggregation never reads the table rows.
+CREATE INDEX idx_transaction_customer_date ON transaction (customer_id, date, amount_cents);
+CREATE INDEX idx_transaction_month ON transaction (month_key);
+
+-- Months moved out of transaction by TransactionArchive; only read for ranges starting before the first live month.
+CREATE TABLE transaction_archive (
+    id BIGINT PRIMARY KEY,
     customer_id BIGINT,
     date DATE,
-    amount DOUBLE,
+    amount_cents BIGINT NOT NULL,
+    month_key INT NOT NULL,
     FOREIGN KEY (customer_id) REFERENCES customer(id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX idx_transaction_archive_customer_date ON transaction_archive (customer_id, date, amount_cents);
+CREATE INDEX idx_transaction_archive_month ON transaction_archive (month_key);
+
+-- Single row: the month before which transaction_archive may hold months; ranges starting earlier read both tables.
+CREATE TABLE transaction_archive_boundary (
+    id INT PRIMARY KEY CHECK (id = 1),
+    first_live_month INT NOT NULL
+);
+
+-- Every transaction, live or archived; full scans read this instead of transaction once anything is archived.
+CREATE VIEW transaction_history AS
+    SELECT id, customer_id, date, amount_cents, month_key FROM transaction
+    UNION ALL
+    SELECT id, customer_id, date, amount_cents, month_key FROM transaction_archive;
+
+CREATE TABLE customer_monthly_reward (
+    customer_id BIGINT NOT NULL,
+    reward_month DATE NOT NULL,
+    points INT NOT NULL,
+    transaction_count INT NOT NULL,
+    PRIMARY KEY (customer_id, reward_month),
+    FOREIGN KEY (customer_id) REFERENCES customer(id)
+);
+
+-- Next ledger log entry each write-behind partition has to apply; advanced with the ledger rows.
+CREATE TABLE reward_ledger_checkpoint (
+    partition_id INT PRIMARY KEY,
+    log_offset BIGINT NOT NULL
+);
+
+-- Customer ID ranges [range_start, range_end) of the current or last parallel ledger rebuild; completed ones are skipped on resume.
+CREATE TABLE reward_rebuild_partition (
+    range_start BIGINT PRIMARY KEY,
+    range_end BIGINT NOT NULL,
+    completed BOOLEAN NOT NULL,
+    transaction_count BIGINT,
+    ledger_rows INT
+);
+
+-- Points per dollar earned on the part of an amount above the threshold, up to the next tier.
+CREATE TABLE reward_tier (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    threshold DECIMAL(12, 2) NOT NULL UNIQUE,
+    multiplier INT NOT NULL
+);
+
+-- Scales transaction points by multiplier_percent; city and dates are optional filters.
+CREATE TABLE reward_promotion (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    city VARCHAR(50),
+    start_date DATE,
+    end_date DATE,
+    multiplier_percent INT NOT NULL
+);
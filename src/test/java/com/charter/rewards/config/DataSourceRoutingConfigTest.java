@@ -0,0 +1,128 @@
+package com.charter.rewards.config;
+
+import com.charter.rewards.model.RewardSummary;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerRepository;
+import com.charter.rewards.service.RewardService;
+import com.charter.rewards.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs against two H2 databases, seeded alike, and tells them apart by rows written to one only.
+ * The replica is seeded as soon as its pool is created, since startup already reads through it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "rewards.replica.enabled=true",
+        "rewards.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "rewards.replica.username=sa",
+        "rewards.replica.maximum-pool-size=3",
+        "rewards.query-mode=transactions",
+        "rewards.cache.enabled=false"
+})
+class DataSourceRoutingConfigTest {
+
+    private static final String COUNT_QUERY = "SELECT COUNT(*) FROM transaction";
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+    }
+
+    @Test
+    @DisplayName("Should read reward summaries from the replica pool")
+    void testRewardQuery_ReadsFromReplica() throws Exception {
+        replica.update("INSERT INTO transaction (customer_id, date, amount_cents) VALUES (1, DATE '2031-01-15', 12000)");
+
+        RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L,
+                LocalDate.of(2031, 1, 1), LocalDate.of(2031, 1, 31));
+
+        assertEquals(90, summary.totalRewards());
+        assertEquals(0, primary.queryForObject(COUNT_QUERY + " WHERE date = DATE '2031-01-15'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should write transactions through the primary pool only")
+    void testRecordTransaction_WritesToPrimary() {
+        int primaryCount = primary.queryForObject(COUNT_QUERY, Integer.class);
+        int replicaCount = replica.queryForObject(COUNT_QUERY, Integer.class);
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(customerRepository.findById(2L).orElseThrow());
+        transaction.setDate(LocalDate.of(2031, 2, 10));
+        transaction.setAmountCents(7500);
+
+        transactionService.recordTransaction(transaction);
+
+        assertEquals(primaryCount + 1, primary.queryForObject(COUNT_QUERY, Integer.class));
+        assertEquals(replicaCount, replica.queryForObject(COUNT_QUERY, Integer.class));
+        assertEquals(25, primary.queryForObject("SELECT points FROM customer_monthly_reward "
+                + "WHERE customer_id = 2 AND reward_month = DATE '2031-02-01'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should publish connection pool metrics per pool")
+    void testPoolMetrics_TaggedByPool() {
+        assertEquals(3, meterRegistry.get("hikaricp.connections.max").tag("pool", "replica").gauge().value());
+        assertEquals(10, meterRegistry.get("hikaricp.connections.max").tag("pool", "primary").gauge().value());
+        meterRegistry.get("hikaricp.connections.pending").tag("pool", "replica").gauge();
+    }
+
+    @TestConfiguration
+    static class ReplicaSeedConfig {
+
+        @Bean
+        static BeanPostProcessor replicaSeeder() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if ("replicaDataSource".equals(beanName)) {
+                        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"),
+                                new ClassPathResource("data.sql")).execute((DataSource) bean);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.charter.rewards.controller;
+
+import com.charter.rewards.model.CityRewardTotal;
+import com.charter.rewards.model.Leaderboard;
+import com.charter.rewards.model.LeaderboardEntry;
+import com.charter.rewards.service.RewardLeaderboardService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class LeaderboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RewardLeaderboardService leaderboardService;
+
+    @Test
+    @DisplayName("Should return the monthly leaderboard with the configured size by default")
+    void testGetLeaderboard_Success() throws Exception {
+        Mockito.when(leaderboardService.getLeaderboard(YearMonth.of(2025, 6), 100))
+                .thenReturn(new Leaderboard("2025-06", null, List.of(
+                        new LeaderboardEntry(1, 2L, "Bangalore", 561),
+                        new LeaderboardEntry(2, 1L, "Chennai", 401))));
+
+        mockMvc.perform(get("/api/rewards/leaderboard").param("month", "2025-06"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.month").value("2025-06"))
+                .andExpect(jsonPath("$.city").doesNotExist())
+                .andExpect(jsonPath("$.entries[0].rank").value(1))
+                .andExpect(jsonPath("$.entries[0].customerId").value(2))
+                .andExpect(jsonPath("$.entries[0].points").value(561))
+                .andExpect(jsonPath("$.entries[1].city").value("Chennai"));
+    }
+
+    @Test
+    @DisplayName("Should return the leaderboard and totals of cities")
+    void testGetCityLeaderboardAndTotals() throws Exception {
+        Mockito.when(leaderboardService.getCityLeaderboard(YearMonth.of(2025, 6), "chennai", 5))
+                .thenReturn(new Leaderboard("2025-06", "Chennai", List.of(new LeaderboardEntry(1, 1L, "Chennai", 401))));
+        Mockito.when(leaderboardService.getCityTotals(eq(YearMonth.of(2025, 6))))
+                .thenReturn(List.of(new CityRewardTotal("Bangalore", 561, 1), new CityRewardTotal("Chennai", 401, 1)));
+
+        mockMvc.perform(get("/api/rewards/leaderboard/cities/chennai").param("month", "2025-06").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.city").value("Chennai"))
+                .andExpect(jsonPath("$.entries[0].customerId").value(1));
+        mockMvc.perform(get("/api/rewards/leaderboard/cities").param("month", "2025-06"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].city").value("Bangalore"))
+                .andExpect(jsonPath("$[0].points").value(561))
+                .andExpect(jsonPath("$[0].customers").value(1));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when the month is malformed")
+    void testGetLeaderboard_InvalidMonth_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/rewards/leaderboard").param("month", "06-2025"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid month format. Use yyyy-MM"));
+    }
+}
@@ -1,9 +1,16 @@
 package com.charter.rewards.controller;
 
-import com.charter.rewards.exception.CustomerNotFoundException;
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.model.Customer;
 import com.charter.rewards.model.MonthlyReward;
 import com.charter.rewards.model.RewardSummary;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.service.RewardDataVersions;
 import com.charter.rewards.service.RewardService;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,18 +19,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.accept.ContentNegotiationManager;
 
-import java.time.LocalDate;
 import java.util.List;
 
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -39,11 +52,19 @@ public class RewardControllerTest {
     @MockitoBean
     private RewardService rewardService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @TestConfiguration
     static class MockConfig {
         @Bean
-        RewardController rewardController(RewardService rewardService) {
-            return new RewardController(rewardService);
+        RewardController rewardController(RewardService rewardService, RewardProperties properties,
+                                          RewardDataVersions dataVersions,
+                                          ContentNegotiationManager contentNegotiationManager) {
+            return new RewardController(rewardService, properties, dataVersions, contentNegotiationManager);
         }
     }
 
@@ -81,6 +102,112 @@ public class RewardControllerTest {
                 .andExpect(jsonPath("$.monthlyRewards[0].rewardPoints").value(90));
     }
 
+    @Test
+    @DisplayName("Should answer 304 Not Modified without recomputing until the customer's data changes")
+    void testGetRewardsForCustomer_ConditionalRequest() throws Exception {
+        Mockito.when(rewardService.getRewardsForCustomerForPeriod(eq(1L), any(), any()))
+                .thenReturn(mockRewardSummary);
+
+        String etag = mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "1")
+                        .param("start", "2025-06-01")
+                        .param("end", "2025-08-31"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "1")
+                        .param("start", "2025-06-01")
+                        .param("end", "2025-08-31")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(content().string(""));
+        Mockito.verify(rewardService, Mockito.times(1)).getRewardsForCustomerForPeriod(eq(1L), any(), any());
+
+        // Another period of the same customer has its own tag
+        mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "1")
+                        .param("start", "2025-07-01")
+                        .param("end", "2025-08-31")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        Customer customer = new Customer();
+        customer.setId(1L);
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(customer);
+        eventPublisher.publishEvent(new TransactionsRecordedEvent(List.of(transaction)));
+
+        mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "1")
+                        .param("start", "2025-06-01")
+                        .param("end", "2025-08-31")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.totalRewards").value(115));
+    }
+
+    @Test
+    @DisplayName("Should write the summary as CBOR or Smile when Accept asks for it, each with its own ETag")
+    void testGetRewardsForCustomer_BinaryFormats() throws Exception {
+        Mockito.when(rewardService.getRewardsForCustomerForPeriod(eq(1L), any(), any()))
+                .thenReturn(mockRewardSummary);
+        long serialized = meterRegistry.get("rewards.stage.duration").tag("stage", "serialization").timer().count();
+
+        MockHttpServletResponse cbor = mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "1")
+                        .param("start", "2025-06-01")
+                        .param("end", "2025-08-31")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse();
+        MockHttpServletResponse smile = mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "1")
+                        .param("start", "2025-06-01")
+                        .param("end", "2025-08-31")
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse();
+
+        assertEquals(mockRewardSummary, new CBORMapper().readValue(cbor.getContentAsByteArray(), RewardSummary.class));
+        assertEquals(mockRewardSummary, new SmileMapper().readValue(smile.getContentAsByteArray(), RewardSummary.class));
+        assertEquals(serialized + 2,
+                meterRegistry.get("rewards.stage.duration").tag("stage", "serialization").timer().count());
+
+        // A JSON client's tag does not validate a CBOR response
+        String jsonEtag = mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "1")
+                        .param("start", "2025-06-01")
+                        .param("end", "2025-08-31"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(jsonEtag, cbor.getHeader("ETag"));
+        assertNotEquals(cbor.getHeader("ETag"), smile.getHeader("ETag"));
+        mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "1")
+                        .param("start", "2025-06-01")
+                        .param("end", "2025-08-31")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", jsonEtag))
+                .andExpect(status().isOk());
+
+        // The most preferred format wins, whatever the order of the header
+        mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "1")
+                        .param("start", "2025-06-01")
+                        .param("end", "2025-08-31")
+                        .header("Accept", "application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", cbor.getHeader("ETag")));
+    }
+
     @Test
     @DisplayName("Should return 400 Bad Request when customerId is missing")
     void testGetRewardsForCustomer_MissingCustomerId_ShouldReturnBadRequest() throws Exception {
@@ -102,17 +229,86 @@ public class RewardControllerTest {
                 .andExpect(jsonPath("$.error").value("Start date cannot be after end date"));
     }
 
+    @Test
+    @DisplayName("Should return 400 Bad Request when the period spans more months than allowed")
+    void testGetRewardsForCustomer_PeriodTooLong_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "1")
+                        .param("start", "2025-06-01")
+                        .param("end", "+100000000-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Period cannot span more than 120 months"));
+        mockMvc.perform(post("/api/rewards/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerIds\":[1],\"start\":\"2015-06-01\",\"end\":\"2025-06-01\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "1")
+                        .param("start", "2015-07-01")
+                        .param("end", "2025-06-30"))
+                .andExpect(status().isOk());
+        Mockito.verify(rewardService, Mockito.never()).getRewardsForCustomersForPeriod(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Should return 404 Not Found when customer does not exist")
     void testGetRewardsForCustomer_CustomerNotFound_ShouldReturn404() throws Exception {
-        Mockito.when(rewardService.getRewardsForCustomerForPeriod(eq(99L), any(LocalDate.class), any(LocalDate.class)))
-                .thenThrow(new CustomerNotFoundException("Customer not found. Customer Id: 99"));
-
         mockMvc.perform(get("/api/rewards")
                         .param("customerId", "99")
                         .param("start", "2025-06-01")
-                        .param("end", "2025-08-31"))
+                        .param("end", "2025-08-31")
+                        .header("If-None-Match", "*"))
                 .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"))
                 .andExpect(jsonPath("$.error").value("Customer not found. Customer Id: 99"));
+        Mockito.verify(rewardService, Mockito.never()).getRewardsForCustomerForPeriod(eq(99L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should time summary serialization and count not-found and bad-date errors")
+    void testGetRewardsForCustomer_RecordsMetrics() throws Exception {
+        Mockito.when(rewardService.getRewardsForCustomerForPeriod(eq(1L), any(), any())).thenReturn(mockRewardSummary);
+        long serialized = meterRegistry.get("rewards.stage.duration").tag("stage", "serialization").timer().count();
+        double notFound = meterRegistry.get("rewards.errors").tag("type", "customer_not_found").counter().count();
+        double invalidDate = meterRegistry.get("rewards.errors").tag("type", "invalid_date").counter().count();
+
+        mockMvc.perform(get("/api/rewards").param("customerId", "1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/rewards").param("customerId", "99")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/rewards").param("customerId", "1").param("start", "01-06-2025"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(serialized + 1,
+                meterRegistry.get("rewards.stage.duration").tag("stage", "serialization").timer().count());
+        assertEquals(notFound + 1,
+                meterRegistry.get("rewards.errors").tag("type", "customer_not_found").counter().count());
+        assertEquals(invalidDate + 1, meterRegistry.get("rewards.errors").tag("type", "invalid_date").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should return summaries for a batch with not-found customers reported inline")
+    void testGetRewardsForCustomers_Batch() throws Exception {
+        Mockito.when(rewardService.getRewardsForCustomersForPeriod(eq(List.of(1L, 99L)), any(), any()))
+                .thenReturn(List.of(mockRewardSummary,
+                        RewardSummary.error(99L, "Customer not found. Customer Id: 99")));
+
+        mockMvc.perform(post("/api/rewards/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerIds\":[1,99],\"start\":\"2025-06-01\",\"end\":\"2025-08-31\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].customerId").value(1))
+                .andExpect(jsonPath("$[0].totalRewards").value(115))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].customerId").value(99))
+                .andExpect(jsonPath("$[1].error").value("Customer not found. Customer Id: 99"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when a batch has no customer IDs")
+    void testGetRewardsForCustomers_EmptyBatch_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/rewards/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerIds\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Customer IDs must be provided to fetch rewards"));
     }
 }
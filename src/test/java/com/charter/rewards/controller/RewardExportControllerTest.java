@@ -0,0 +1,71 @@
+package com.charter.rewards.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Reads two customers per page, so the export of the five seeded customers spans three pages.
+ */
+@SpringBootTest(properties = "rewards.export.page-size=2")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class RewardExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Should stream one NDJSON line per customer in customer ID order")
+    void testExportRewards_StreamsAllCustomers() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/rewards/export")
+                        .param("start", "2025-06-01")
+                        .param("end", "2025-07-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].startsWith("{\"customerId\":1,"));
+        assertTrue(lines[0].contains("\"totalRewards\":576"));
+        assertTrue(lines[4].contains("\"customerId\":5"));
+        assertTrue(lines[4].contains("\"totalRewards\":0"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when start date is after end date")
+    void testExportRewards_InvalidDateRange_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/rewards/export")
+                        .param("start", "2025-09-01")
+                        .param("end", "2025-06-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Start date cannot be after end date"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when the period spans more months than allowed")
+    void testExportRewards_PeriodTooLong_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/rewards/export")
+                        .param("start", "2000-01-01")
+                        .param("end", "2025-06-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Period cannot span more than 120 months"));
+    }
+}
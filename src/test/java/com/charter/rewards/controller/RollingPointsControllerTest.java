@@ -0,0 +1,58 @@
+package com.charter.rewards.controller;
+
+import com.charter.rewards.model.RollingPoints;
+import com.charter.rewards.store.RollingPointsWindow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class RollingPointsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RollingPointsWindow window;
+
+    @Test
+    @DisplayName("Should return the points of the last days")
+    void testGetRollingPoints_Success() throws Exception {
+        Mockito.when(window.points(1L, 30)).thenReturn(
+                new RollingPoints(1L, 30, LocalDate.of(2025, 10, 2), LocalDate.of(2025, 10, 31), 250));
+
+        mockMvc.perform(get("/api/rewards/rolling").param("customerId", "1").param("days", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value(1))
+                .andExpect(jsonPath("$.days").value(30))
+                .andExpect(jsonPath("$.from").value("2025-10-02"))
+                .andExpect(jsonPath("$.to").value("2025-10-31"))
+                .andExpect(jsonPath("$.points").value(250));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when the days are missing or out of range")
+    void testGetRollingPoints_InvalidDays_ShouldReturnBadRequest() throws Exception {
+        Mockito.when(window.points(1L, 365)).thenThrow(new IllegalArgumentException("Days must be between 1 and 90"));
+
+        mockMvc.perform(get("/api/rewards/rolling").param("customerId", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Days must be provided"));
+        mockMvc.perform(get("/api/rewards/rolling").param("customerId", "1").param("days", "365"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Days must be between 1 and 90"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.charter.rewards.controller;
+
+import com.charter.rewards.repository.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class TransactionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    @DisplayName("Should store valid transactions, reject unknown customers and update rewards")
+    void testIngestTransactions_Json() throws Exception {
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"customerId\":5,\"date\":\"2025-11-03\",\"amount\":120.0},"
+                                + "{\"customerId\":5,\"date\":\"2025-11-20\",\"amount\":75.0},"
+                                + "{\"customerId\":42,\"date\":\"2025-11-20\",\"amount\":75.0}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.unknownCustomerIds[0]").value(42));
+
+        assertEquals(2, transactionRepository.findByCustomerIdAndDateBetween(5L,
+                LocalDate.of(2025, 11, 1), LocalDate.of(2025, 11, 30)).size());
+        mockMvc.perform(get("/api/rewards")
+                        .param("customerId", "5")
+                        .param("start", "2025-11-01")
+                        .param("end", "2025-11-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRewards").value(115))
+                .andExpect(jsonPath("$.monthlyRewards[0].month").value("2025-11"));
+    }
+
+    @Test
+    @DisplayName("Should stream a CSV feed and count malformed lines and fractions of a cent as rejected")
+    void testIngestTransactions_Csv() throws Exception {
+        mockMvc.perform(post("/api/transactions")
+                        .contentType("text/csv")
+                        .content("customerId,date,amount\n5,2025-11-03,120.00\n5,not-a-date,10\n5,2025-11-04,60\n"
+                                + "5,2025-11-05,10.005\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(2));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when no transactions are provided")
+    void testIngestTransactions_Empty_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Transactions must be provided"));
+    }
+}
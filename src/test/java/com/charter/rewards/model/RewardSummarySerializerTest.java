@@ -0,0 +1,35 @@
+package com.charter.rewards.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RewardSummarySerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should write a summary exactly as the reflective serializer did")
+    void testSerialize_Summary() throws Exception {
+        RewardSummary summary = new RewardSummary(1L, "John \"JD\" Doe", "9999999999", "New York", 115,
+                List.of(new MonthlyReward("2025-06", 90), new MonthlyReward("2025-07", 25)));
+
+        assertEquals("{\"customerId\":1,\"name\":\"John \\\"JD\\\" Doe\",\"phone\":\"9999999999\","
+                        + "\"city\":\"New York\",\"totalRewards\":115,\"monthlyRewards\":["
+                        + "{\"month\":\"2025-06\",\"rewardPoints\":90},{\"month\":\"2025-07\",\"rewardPoints\":25}]}",
+                objectMapper.writeValueAsString(summary));
+        assertEquals(summary, objectMapper.readValue(objectMapper.writeValueAsString(summary), RewardSummary.class));
+    }
+
+    @Test
+    @DisplayName("Should write an error placeholder with null fields and the error last")
+    void testSerialize_Error() throws Exception {
+        assertEquals("{\"customerId\":99,\"name\":null,\"phone\":null,\"city\":null,\"totalRewards\":0,"
+                        + "\"monthlyRewards\":null,\"error\":\"Customer not found. Customer Id: 99\"}",
+                objectMapper.writeValueAsString(RewardSummary.error(99L, "Customer not found. Customer Id: 99")));
+    }
+}
@@ -0,0 +1,134 @@
+package com.charter.rewards.repository;
+
+import com.charter.rewards.model.RewardSummary;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.service.RewardLedgerRebuildJob;
+import com.charter.rewards.service.RewardService;
+import com.charter.rewards.service.TransactionService;
+import com.charter.rewards.store.TransactionReadStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"rewards.query-mode=transactions", "rewards.cache.enabled=false"})
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class TransactionArchiveTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 6, 1);
+    private static final LocalDate END = LocalDate.of(2025, 10, 31);
+    private static final String LEDGER_QUERY = "SELECT customer_id, reward_month, points, transaction_count "
+            + "FROM customer_monthly_reward ORDER BY customer_id, reward_month";
+
+    @Autowired
+    private TransactionArchive archive;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionReadStore transactionStore;
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RewardLedgerRebuildJob rebuildJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should move whole months to the archive without changing any result")
+    void testArchiveBefore_ResultsUnchanged() throws Exception {
+        RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L, START, END);
+        List<MonthlyPointsView> monthly = transactionRepository.sumMonthlyPoints(2L, START, END);
+        List<CustomerMonthlyPointsView> batch = transactionRepository.sumMonthlyPointsByCustomer(
+                List.of(1L, 2L, 3L), START, END);
+        List<Map<String, Object>> ledger = jdbcTemplate.queryForList(LEDGER_QUERY);
+
+        long moved = archive.archiveBefore(YearMonth.of(2025, 8));
+
+        // Four transactions each of customers 1-4 in June and July
+        assertEquals(16, moved);
+        assertEquals(YearMonth.of(2025, 8), archive.firstLiveMonth());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction WHERE month_key < 202508", Integer.class));
+        assertEquals(16, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction_archive", Integer.class));
+        assertTrue(archive.covers(LocalDate.of(2025, 7, 31)));
+        assertFalse(archive.covers(LocalDate.of(2025, 8, 1)));
+
+        assertEquals(summary.totalRewards(), rewardService.getRewardsForCustomerForPeriod(1L, START, END)
+                .totalRewards());
+        assertEquals(summary.monthlyRewards().size(), rewardService.getRewardsForCustomerForPeriod(1L, START, END)
+                .monthlyRewards().size());
+        assertEquals(points(monthly), points(transactionRepository.sumMonthlyPoints(2L, START, END)));
+        assertEquals(batch.size(), transactionRepository.sumMonthlyPointsByCustomer(List.of(1L, 2L, 3L), START, END)
+                .size());
+        assertEquals(2, transactionStore.findByCustomerIdAndDateBetween(1L, START, LocalDate.of(2025, 6, 30)).size());
+
+        rebuildJob.rebuild();
+        assertEquals(ledger, jdbcTemplate.queryForList(LEDGER_QUERY));
+        assertEquals(0, archive.archiveBefore(YearMonth.of(2025, 8)));
+    }
+
+    @Test
+    @DisplayName("Should see months archived by another instance sharing the database")
+    void testCovers_ArchivedByAnotherInstance() throws Exception {
+        TransactionArchive other = new TransactionArchive(jdbcTemplate, transactionManager);
+        assertFalse(other.covers(LocalDate.of(2025, 7, 31)));
+        assertEquals("transaction", other.historyTable());
+
+        archive.archiveBefore(YearMonth.of(2025, 8));
+
+        assertTrue(other.covers(LocalDate.of(2025, 7, 31)));
+        assertEquals("transaction_history", other.historyTable());
+        assertEquals(YearMonth.of(2025, 8), other.firstLiveMonth());
+    }
+
+    @Test
+    @DisplayName("Should read transactions recorded for an archived month together with the archived ones")
+    void testRecordTransaction_AfterArchive() throws Exception {
+        archive.archiveBefore(YearMonth.of(2025, 7));
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(transactionRepository.findAll().get(0).getCustomer());
+        transaction.setDate(LocalDate.of(2025, 6, 28));
+        transaction.setAmountCents(12000);
+        Long customerId = transaction.getCustomer().getId();
+        int before = rewardService.getRewardsForCustomerForPeriod(customerId, START, LocalDate.of(2025, 6, 30))
+                .totalRewards();
+
+        transactionService.recordTransaction(transaction);
+
+        assertEquals(before + 90, rewardService.getRewardsForCustomerForPeriod(customerId, START,
+                LocalDate.of(2025, 6, 30)).totalRewards());
+        List<MonthlyPointsView> june = transactionRepository.sumMonthlyPoints(customerId, START,
+                LocalDate.of(2025, 6, 30));
+        assertEquals(1, june.size());
+        assertEquals(before + 90L, june.get(0).getPoints());
+    }
+
+    private static List<Long> points(List<MonthlyPointsView> rows) {
+        return rows.stream().map(MonthlyPointsView::getPoints).toList();
+    }
+}
@@ -0,0 +1,88 @@
+package com.charter.rewards.repository;
+
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({RewardRuleEngine.class, TransactionArchive.class})
+class TransactionRepositoryTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private RewardRuleEngine ruleEngine;
+
+    @Test
+    @DisplayName("Should aggregate reward points per month in the database")
+    void testSumMonthlyPoints() {
+        List<MonthlyPointsView> rows = transactionRepository.sumMonthlyPoints(1L,
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 7, 31));
+
+        assertEquals(2, rows.size());
+        assertEquals(2025, rows.get(0).getYear());
+        assertEquals(6, rows.get(0).getMonth());
+        // 250.50 -> 351, 100.00 -> 50
+        assertEquals(401L, rows.get(0).getPoints());
+        assertEquals(7, rows.get(1).getMonth());
+        // 150.25 -> 150, 75.80 -> 25
+        assertEquals(175L, rows.get(1).getPoints());
+    }
+
+    @Test
+    @DisplayName("Should project only date and amount of a customer's transactions in a period")
+    void testFindAmountsByCustomerIdAndDateBetween() {
+        List<TransactionAmount> rows = transactionRepository.findAmountsByCustomerIdAndDateBetween(1L,
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30));
+
+        assertEquals(2, rows.size());
+        assertTrue(rows.contains(new TransactionAmount(LocalDate.of(2025, 6, 5), 25050)));
+        assertTrue(rows.contains(new TransactionAmount(LocalDate.of(2025, 6, 20), 10000)));
+    }
+
+    @Test
+    @DisplayName("Should aggregate reward points per customer and month for a batch of customers")
+    void testSumMonthlyPointsByCustomer() {
+        List<CustomerMonthlyPointsView> rows = transactionRepository.sumMonthlyPointsByCustomer(List.of(1L, 2L, 5L),
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30));
+
+        assertEquals(2, rows.size());
+        assertEquals(1L, rows.get(0).getCustomerId());
+        assertEquals(401L, rows.get(0).getPoints());
+        assertEquals(2L, rows.get(1).getCustomerId());
+        // 180.00 -> 210, 250.50 -> 351
+        assertEquals(561L, rows.get(1).getPoints());
+    }
+
+    @Test
+    @DisplayName("Should aggregate with the formula generated from the current rules, including promotions")
+    void testSumMonthlyPointsWithPromotions() {
+        CompiledRewardRules previous = ruleEngine.swap(CompiledRewardRules.compile(
+                List.of(new CompiledRewardRules.TierDefinition(10_000, 3), new CompiledRewardRules.TierDefinition(0, 1)),
+                List.of(new CompiledRewardRules.PromotionDefinition("Chennai June", "Chennai",
+                                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 10), 200),
+                        new CompiledRewardRules.PromotionDefinition("Always", null, null, null, 110))));
+        try {
+            List<CustomerMonthlyPointsView> rows = transactionRepository.sumMonthlyPointsByCustomer(List.of(1L, 2L),
+                    LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30));
+
+            // 250.50 -> 551 * 200%, 100.00 -> 100 * 110%
+            assertEquals(1102L + 110L, rows.get(0).getPoints());
+            // 180.00 -> 340 * 110%, 250.50 -> 551 * 110%
+            assertEquals(374L + 606L, rows.get(1).getPoints());
+        } finally {
+            ruleEngine.swap(previous);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.charter.rewards.rules;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompiledRewardRulesTest {
+
+    @Test
+    @DisplayName("Default rules should award 1 point per dollar over $50 and 2 per dollar over $100 for every cent")
+    void testDefaultsMatchTierDefinition() {
+        CompiledRewardRules rules = CompiledRewardRules.defaults();
+        for (long cents = 0; cents <= 100_000; cents++) {
+            long expected = cents <= 5_000 ? 0 : cents <= 10_000 ? (cents - 5_000) / 100
+                    : 50 + 2 * (cents - 10_000) / 100;
+            assertEquals(expected, rules.points(cents), "cents " + cents);
+        }
+        assertEquals(0, rules.points(5_000));
+        assertEquals(50, rules.points(10_000));
+        assertEquals(90, rules.points(12_000));
+        assertEquals(150, rules.points(15_025));
+    }
+
+    @Test
+    @DisplayName("Should be exact where double arithmetic truncates a point away")
+    void testExactWhereDoubleIsNot() {
+        CompiledRewardRules rules = CompiledRewardRules.compile(
+                List.of(new CompiledRewardRules.TierDefinition(5_010, 1)), List.of());
+
+        // (int) (64.10 - 50.10) == 13 in double arithmetic
+        assertEquals(13, (int) (64.10 - 50.10));
+        assertEquals(14, rules.points(6_410));
+    }
+
+    @Test
+    @DisplayName("Should apply only the best matching promotion")
+    void testBestPromotionWins() {
+        CompiledRewardRules rules = CompiledRewardRules.compile(
+                List.of(new CompiledRewardRules.TierDefinition(10_000, 2),
+                        new CompiledRewardRules.TierDefinition(5_000, 1)),
+                List.of(new CompiledRewardRules.PromotionDefinition("Everywhere", null,
+                                LocalDate.of(2025, 6, 1), null, 120),
+                        new CompiledRewardRules.PromotionDefinition("Pune", "Pune",
+                                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30), 300)));
+
+        assertEquals(90, rules.points(12_000, LocalDate.of(2025, 5, 31), "Pune"));
+        assertEquals(270, rules.points(12_000, LocalDate.of(2025, 6, 30), "Pune"));
+        assertEquals(108, rules.points(12_000, LocalDate.of(2025, 7, 1), "Pune"));
+        assertEquals(108, rules.points(12_000, LocalDate.of(2025, 6, 15), null));
+    }
+
+    @Test
+    @DisplayName("Should reject duplicate thresholds and inverted promotion windows")
+    void testInvalidDefinitions() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledRewardRules.compile(
+                List.of(new CompiledRewardRules.TierDefinition(5_000, 1),
+                        new CompiledRewardRules.TierDefinition(5_000, 2)),
+                List.of()));
+        assertThrows(IllegalArgumentException.class, () -> CompiledRewardRules.compile(
+                List.of(new CompiledRewardRules.TierDefinition(5_000, 1)),
+                List.of(new CompiledRewardRules.PromotionDefinition("Backwards", null,
+                        LocalDate.of(2025, 7, 1), LocalDate.of(2025, 6, 1), 150))));
+    }
+}
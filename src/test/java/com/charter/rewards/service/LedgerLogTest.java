@@ -0,0 +1,44 @@
+package com.charter.rewards.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LedgerLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should read appended entries back by offset after reopening, dropping a torn record")
+    void testAppendAndReopen() throws IOException {
+        Path file = dir.resolve("ledger-0.log");
+        try (LedgerLog log = new LedgerLog(file)) {
+            log.append(new long[]{10, 11}, new long[]{1, 2}, new int[]{20_000, 20_001}, new long[]{12_000, 7_550},
+                    2, 1_000L);
+            log.append(new long[]{12}, new long[]{1}, new int[]{20_002}, new long[]{5}, 1, 2_000L);
+        }
+        Files.write(file, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (LedgerLog log = new LedgerLog(file)) {
+            assertEquals(3, log.size());
+            assertEquals(3L * LedgerLog.RECORD_SIZE, Files.size(file));
+            assertEquals(List.of(new LedgerEntry(1, 11, 2, 20_001, 7_550, 1_000L),
+                    new LedgerEntry(2, 12, 1, 20_002, 5, 2_000L)), log.read(1, 10));
+
+            log.truncate();
+            assertEquals(0, log.size());
+            assertEquals(List.of(), log.read(0, 10));
+            assertEquals(0, log.append(new long[]{13}, new long[]{3}, new int[]{1}, new long[]{1}, 1, 0L)
+                    .get(0).offset());
+        }
+    }
+}
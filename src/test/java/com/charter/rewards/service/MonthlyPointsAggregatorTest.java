@@ -0,0 +1,97 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.model.Customer;
+import com.charter.rewards.model.MonthlyReward;
+import com.charter.rewards.model.RewardSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonthlyPointsAggregatorTest {
+
+    private final Customer customer = new Customer();
+
+    @Test
+    @DisplayName("Should report months in order, keep zero-point months with transactions and skip empty months")
+    void testToSummary_OrdersMonthsAcrossYearBoundary() {
+        MonthlyPointsAggregator aggregator = new MonthlyPointsAggregator(
+                LocalDate.of(2024, 11, 15), LocalDate.of(2025, 2, 10));
+        aggregator.add(LocalDate.of(2025, 2, 1), 30);
+        aggregator.add(LocalDate.of(2024, 11, 20), 0);
+        aggregator.add(2025, 2, 12);
+
+        RewardSummary summary = aggregator.toSummary(customer);
+
+        assertEquals(42, summary.totalRewards());
+        assertEquals(List.of("2024-11", "2025-02"),
+                summary.monthlyRewards().stream().map(MonthlyReward::month).toList());
+        assertEquals(0, summary.monthlyRewards().get(0).rewardPoints());
+        assertEquals(42, summary.monthlyRewards().get(1).rewardPoints());
+    }
+
+    @Test
+    @DisplayName("Should clear all buckets when reused for another period")
+    void testReset_ClearsBuckets() {
+        MonthlyPointsAggregator aggregator = new MonthlyPointsAggregator(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+        aggregator.add(LocalDate.of(2025, 3, 3), 10);
+
+        aggregator.reset(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 30));
+
+        assertTrue(aggregator.toSummary(customer).monthlyRewards().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> aggregator.add(LocalDate.of(2025, 5, 1), 1));
+    }
+
+    @Test
+    @DisplayName("Should bucket months of years whose month index does not fit an int")
+    void testAdd_FarFutureYears() {
+        MonthlyPointsAggregator aggregator = new MonthlyPointsAggregator(
+                LocalDate.of(999_999_998, 12, 1), LocalDate.of(999_999_999, 1, 31));
+        aggregator.add(LocalDate.of(999_999_999, 1, 15), 7);
+        aggregator.addEpochDay(LocalDate.of(999_999_998, 12, 31).toEpochDay(), 3);
+
+        RewardSummary summary = aggregator.toSummary(customer);
+
+        assertEquals(List.of("999999998-12", "999999999-01"),
+                summary.monthlyRewards().stream().map(MonthlyReward::month).toList());
+        assertEquals(10, summary.totalRewards());
+    }
+
+    @Test
+    @DisplayName("Should bucket epoch days by month, including the first and last day of each month")
+    void testAddEpochDay_MonthBoundaries() {
+        MonthlyPointsAggregator aggregator = new MonthlyPointsAggregator(
+                LocalDate.of(2024, 12, 15), LocalDate.of(2025, 2, 10));
+        aggregator.addEpochDay(LocalDate.of(2024, 12, 31).toEpochDay(), 1);
+        aggregator.addEpochDay(LocalDate.of(2025, 1, 1).toEpochDay(), 10);
+        aggregator.addEpochDay(LocalDate.of(2025, 1, 31).toEpochDay(), 20);
+        aggregator.addEpochDay(LocalDate.of(2025, 2, 1).toEpochDay(), 100);
+
+        RewardSummary summary = aggregator.toSummary(customer);
+
+        assertEquals(List.of(1, 30, 100),
+                summary.monthlyRewards().stream().map(MonthlyReward::rewardPoints).toList());
+        assertThrows(IllegalArgumentException.class,
+                () -> aggregator.addEpochDay(LocalDate.of(2025, 3, 1).toEpochDay(), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> aggregator.addEpochDay(LocalDate.of(2024, 11, 30).toEpochDay(), 1));
+    }
+
+    @Test
+    @DisplayName("Should reject periods spanning more months than it allocates buckets for")
+    void testReset_PeriodTooLong() {
+        MonthlyPointsAggregator aggregator = new MonthlyPointsAggregator(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> aggregator.reset(LocalDate.of(2025, 1, 1), LocalDate.MAX));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MonthlyPointsAggregator(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 31)));
+        assertDoesNotThrow(() -> aggregator.reset(LocalDate.of(2000, 1, 1),
+                LocalDate.of(2000, 1, 1).plusMonths(MonthlyPointsAggregator.MAX_MONTHS - 1)));
+    }
+}
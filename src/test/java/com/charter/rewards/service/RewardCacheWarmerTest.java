@@ -0,0 +1,82 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs with the fast-startup profile, so beans are created lazily unless marked otherwise.
+ */
+@SpringBootTest(properties = {"rewards.warmup.enabled=true", "rewards.warmup.customers=2"})
+@ActiveProfiles("fast-startup")
+@AutoConfigureTestDatabase
+@DirtiesContext
+class RewardCacheWarmerTest {
+
+    private static final LocalDate END = LocalDate.of(2031, 3, 20);
+    private static final LocalDate START = END.minusMonths(2);
+
+    @Autowired
+    private RewardCacheWarmer warmer;
+
+    @Autowired
+    private RewardSummaryCache summaryCache;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    @DisplayName("Should cache the summaries of the most active customers of the default period")
+    void testWarmUp_CachesMostActiveCustomers() {
+        record(3L, LocalDate.of(2031, 1, 5), LocalDate.of(2031, 2, 5), LocalDate.of(2031, 3, 5));
+        record(4L, LocalDate.of(2031, 2, 10), LocalDate.of(2031, 3, 10));
+        record(1L, LocalDate.of(2031, 3, 15));
+        // Outside the period, so it does not count towards customer 2's activity
+        record(2L, LocalDate.of(2030, 12, 1), LocalDate.of(2030, 12, 2), LocalDate.of(2030, 12, 3));
+
+        assertEquals(2, warmer.warmUp(END));
+
+        assertNotNull(summaryCache.get(3L, START, END));
+        assertNotNull(summaryCache.get(4L, START, END));
+        assertNull(summaryCache.get(1L, START, END));
+        assertNull(summaryCache.get(2L, START, END));
+    }
+
+    @Test
+    @DisplayName("Should still load the reward rules at startup with lazy initialisation")
+    void testLazyInitialization_RuleLoaderEager() {
+        assertTrue(beanFactory.containsSingleton("rewardRuleLoader"));
+        assertFalse(beanFactory.containsSingleton("rewardExportController"));
+    }
+
+    private void record(Long customerId, LocalDate... dates) {
+        for (LocalDate date : dates) {
+            Transaction transaction = new Transaction();
+            transaction.setCustomer(customerRepository.findById(customerId).orElseThrow());
+            transaction.setDate(date);
+            transaction.setAmountCents(12000);
+            transactionService.recordTransaction(transaction);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.RewardRulesChangedEvent;
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.exception.CustomerNotFoundException;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerRepository;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Import({RewardDataVersions.class, RewardSummaryCache.class, RewardRuleEngine.class,
+        TransactionArchive.class})
+@EnableConfigurationProperties(RewardProperties.class)
+class RewardDataVersionsTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 6, 1);
+    private static final LocalDate END = LocalDate.of(2025, 8, 31);
+
+    @Autowired
+    private RewardDataVersions dataVersions;
+
+    @Autowired
+    private RewardSummaryCache summaryCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should move the tags of every instance with changes made by any, keeping instances apart")
+    void testEtag_MovedByOtherInstances() throws Exception {
+        RewardDataVersions other = new RewardDataVersions(jdbcTemplate, summaryCache, new RewardProperties());
+        String etag = dataVersions.etag(1L, START, END, "json");
+        String second = dataVersions.etag(2L, START, END, "json");
+        assertNotEquals(etag, other.etag(1L, START, END, "json"));
+
+        other.customersChanged(List.of(1L));
+
+        assertNotEquals(etag, dataVersions.etag(1L, START, END, "json"));
+        assertEquals(second, dataVersions.etag(2L, START, END, "json"));
+    }
+
+    @Test
+    @DisplayName("Should move a tag again once this instance's summaries have caught up with a change")
+    void testEtag_MovedByCacheInvalidation() throws Exception {
+        String etag = dataVersions.etag(1L, START, END, "json");
+
+        summaryCache.invalidateCustomers(Set.of(1L));
+        String caughtUp = dataVersions.etag(1L, START, END, "json");
+        eventPublisher.publishEvent(new RewardRulesChangedEvent(CompiledRewardRules.defaults()));
+
+        assertNotEquals(etag, caughtUp);
+        assertNotEquals(caughtUp, dataVersions.etag(1L, START, END, "json"));
+    }
+
+    @Test
+    @DisplayName("Should move the tags of the customers whose transactions are recorded")
+    void testOnTransactionsRecorded_MovesVersions() throws Exception {
+        String first = dataVersions.etag(1L, START, END, "json");
+        String second = dataVersions.etag(2L, START, END, "json");
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(customerRepository.getReferenceById(1L));
+
+        eventPublisher.publishEvent(new TransactionsRecordedEvent(List.of(transaction)));
+
+        assertNotEquals(first, dataVersions.etag(1L, START, END, "json"));
+        assertEquals(second, dataVersions.etag(2L, START, END, "json"));
+    }
+
+    @Test
+    @DisplayName("Should tell periods and formats apart and refuse unknown customers")
+    void testEtag_DistinguishesRequests() throws Exception {
+        String etag = dataVersions.etag(1L, START, END, "json");
+
+        assertNotEquals(etag, dataVersions.etag(1L, START.plusDays(1), END, "json"));
+        assertNotEquals(etag, dataVersions.etag(1L, START, END, "cbor"));
+        assertThrows(CustomerNotFoundException.class, () -> dataVersions.etag(99L, START, END, "json"));
+    }
+}
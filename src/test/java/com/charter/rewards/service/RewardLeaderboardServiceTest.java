@@ -0,0 +1,118 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.model.CityRewardTotal;
+import com.charter.rewards.model.Leaderboard;
+import com.charter.rewards.model.LeaderboardEntry;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "rewards.leaderboard.size=3")
+@AutoConfigureTestDatabase
+class RewardLeaderboardServiceTest {
+
+    @Autowired
+    private RewardLeaderboardService leaderboardService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RewardLedgerService ledgerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    @DisplayName("Should rank the seeded customers of a month from the ledger")
+    void testGetLeaderboard_SeedData() {
+        Leaderboard leaderboard = leaderboardService.getLeaderboard(YearMonth.of(2025, 6), 3);
+
+        assertEquals("2025-06", leaderboard.getMonth());
+        assertEquals(List.of(2L, 4L, 1L), customerIds(leaderboard));
+        assertEquals(1, leaderboard.getEntries().get(0).getRank());
+        assertEquals(561, leaderboard.getEntries().get(0).getPoints());
+        assertEquals("Bangalore", leaderboard.getEntries().get(0).getCity());
+        assertEquals(401, leaderboard.getEntries().get(2).getPoints());
+        assertEquals(List.of(2L), customerIds(leaderboardService.getLeaderboard(YearMonth.of(2025, 6), 1)));
+    }
+
+    @Test
+    @DisplayName("Should move customers on the boards as their points accrue")
+    void testRecordTransactions_UpdatesBoards() {
+        YearMonth month = YearMonth.of(2027, 3);
+        transactionService.recordTransactions(List.of(
+                transaction(1L, month.atDay(2), 20_000),
+                transaction(2L, month.atDay(3), 15_000),
+                transaction(4L, month.atDay(4), 12_000),
+                transaction(5L, month.atDay(5), 11_000)));
+        assertEquals(List.of(1L, 2L, 4L), customerIds(leaderboardService.getLeaderboard(month, 3)));
+
+        transactionService.recordTransactions(List.of(transaction(3L, month.atDay(6), 30_000)));
+        assertEquals(List.of(3L, 1L, 2L), customerIds(leaderboardService.getLeaderboard(month, 3)));
+
+        // Customer 5 was evicted from the top three and must come back with its full total
+        transactionService.recordTransactions(List.of(transaction(5L, month.atDay(7), 30_000)));
+        Leaderboard leaderboard = leaderboardService.getLeaderboard(month, 3);
+        assertEquals(List.of(5L, 3L, 1L), customerIds(leaderboard));
+        assertEquals(70 + 450, leaderboard.getEntries().get(0).getPoints());
+        assertEquals(ledgerPoints(5L, month), leaderboard.getEntries().get(0).getPoints());
+
+        Leaderboard chennai = leaderboardService.getCityLeaderboard(month, "chennai", 3);
+        assertEquals("Chennai", chennai.getCity());
+        assertEquals(List.of(1L), customerIds(chennai));
+
+        List<CityRewardTotal> totals = leaderboardService.getCityTotals(month);
+        assertEquals(5, totals.size());
+        assertEquals("Delhi", totals.get(0).getCity());
+        assertEquals(520, totals.get(0).getPoints());
+        assertEquals(1, totals.get(0).getCustomers());
+        long sum = totals.stream().mapToLong(CityRewardTotal::getPoints).sum();
+        assertEquals(250 + 150 + 90 + 450 + 520, sum);
+    }
+
+    @Test
+    @DisplayName("Should return empty boards for months and cities without points")
+    void testGetLeaderboard_Empty() {
+        YearMonth month = YearMonth.of(2030, 1);
+
+        assertTrue(leaderboardService.getLeaderboard(month, 3).getEntries().isEmpty());
+        assertTrue(leaderboardService.getCityLeaderboard(YearMonth.of(2025, 6), "Atlantis", 3).getEntries().isEmpty());
+        assertTrue(leaderboardService.getCityTotals(month).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject limits larger than the board")
+    void testGetLeaderboard_LimitOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> leaderboardService.getLeaderboard(YearMonth.of(2025, 6), 4));
+        assertThrows(IllegalArgumentException.class, () -> leaderboardService.getLeaderboard(YearMonth.of(2025, 6), 0));
+    }
+
+    private long ledgerPoints(Long customerId, YearMonth month) {
+        return ledgerService.findMonths(customerId, month.atDay(1), month.atDay(1)).get(0).getPoints();
+    }
+
+    private static List<Long> customerIds(Leaderboard leaderboard) {
+        return leaderboard.getEntries().stream().map(LeaderboardEntry::getCustomerId).toList();
+    }
+
+    private Transaction transaction(Long customerId, LocalDate date, long amountCents) {
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(customerRepository.findById(customerId).orElseThrow());
+        transaction.setDate(date);
+        transaction.setAmountCents(amountCents);
+        return transaction;
+    }
+}
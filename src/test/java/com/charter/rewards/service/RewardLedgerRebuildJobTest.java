@@ -0,0 +1,168 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.event.RewardRulesChangedEvent;
+import com.charter.rewards.model.CustomerMonthlyReward;
+import com.charter.rewards.model.RebuildProgress;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerRepository;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "rewards.rebuild.parallelism=3",
+        "rewards.rebuild.partition-size=2",
+        "rewards.rebuild.batch-size=2",
+        "rewards.rebuild.fetch-size=3"
+})
+@AutoConfigureTestDatabase
+class RewardLedgerRebuildJobTest {
+
+    private static final String LEDGER_QUERY = "SELECT customer_id, reward_month, points, transaction_count "
+            + "FROM customer_monthly_reward ORDER BY customer_id, reward_month";
+
+    @Autowired
+    private RewardLedgerRebuildJob rebuildJob;
+
+    @Autowired
+    private RewardLedgerService ledgerService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RewardRuleEngine ruleEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should rebuild the same ledger as the single-transaction rebuild, one partition per ID range")
+    void testRebuild_MatchesSequentialRebuild() {
+        ledgerService.rebuild();
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList(LEDGER_QUERY);
+        jdbcTemplate.update("DELETE FROM customer_monthly_reward");
+
+        RebuildProgress progress = rebuildJob.rebuild();
+
+        assertEquals(expected, jdbcTemplate.queryForList(LEDGER_QUERY));
+        assertEquals(RebuildStatus.COMPLETED.name(), progress.getStatus());
+        // Customers 1-5 in ranges [1, 3), [3, 5) and [5, 6)
+        assertEquals(3, progress.getTotalPartitions());
+        assertEquals(3, progress.getCompletedPartitions());
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction", Long.class),
+                progress.getTransactions());
+        assertEquals(expected.size(), progress.getLedgerRows());
+        assertFalse(rebuildJob.hasPendingPartitions());
+
+        LocalDate june = LocalDate.of(2025, 6, 1);
+        CustomerMonthlyReward row = ledgerService.findMonths(1L, june, june).get(0);
+        assertEquals(401, row.getPoints());
+        assertEquals(2, row.getTransactionCount());
+    }
+
+    @Test
+    @DisplayName("Should resume only the partitions an interrupted rebuild left pending")
+    void testResume_RebuildsPendingPartitionsOnly() {
+        rebuildJob.rebuild();
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList(LEDGER_QUERY);
+        jdbcTemplate.update("UPDATE reward_rebuild_partition SET completed = FALSE WHERE range_start = 3");
+        jdbcTemplate.update("DELETE FROM customer_monthly_reward WHERE customer_id >= 3 AND customer_id < 5");
+        assertTrue(rebuildJob.hasPendingPartitions());
+
+        RebuildProgress progress = rebuildJob.resume();
+
+        assertEquals(expected, jdbcTemplate.queryForList(LEDGER_QUERY));
+        assertEquals(3, progress.getTotalPartitions());
+        assertEquals(3, progress.getCompletedPartitions());
+        assertEquals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction WHERE customer_id IN (3, 4)", Long.class), progress.getTransactions());
+        assertFalse(rebuildJob.hasPendingPartitions());
+        assertEquals(RebuildStatus.COMPLETED.name(), rebuildJob.progress().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should hold ledger updates until a rebuild ends and then apply them with the rebuilt rules")
+    void testRebuild_BlocksLedgerUpdates() throws Exception {
+        CompiledRewardRules loaded = ruleEngine.current();
+        CompiledRewardRules changed = CompiledRewardRules.compile(
+                List.of(new CompiledRewardRules.TierDefinition(5_000, 1)), List.of());
+        LocalDate september = LocalDate.of(2025, 9, 1);
+        int before = ledgerService.findMonths(5L, september, september).stream()
+                .mapToInt(CustomerMonthlyReward::getPoints).sum();
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(customerRepository.findById(5L).orElseThrow());
+        transaction.setDate(LocalDate.of(2025, 9, 10));
+        transaction.setAmountCents(12_000);
+        ruleEngine.swap(changed);
+        try {
+            assertFalse(ledgerService.isBuiltWith(changed));
+            ledgerService.beginRebuild();
+            CompletableFuture<Void> write = CompletableFuture.runAsync(
+                    () -> transactionService.recordTransaction(transaction));
+            Thread.sleep(200);
+            assertFalse(write.isDone());
+            // Waiting before its first statement, so without a connection
+            assertNull(transaction.getId());
+            ledgerService.endRebuild(changed);
+            write.get(10, TimeUnit.SECONDS);
+
+            assertTrue(ledgerService.isBuiltWith(changed));
+            // 120.00 earns 70 points with the single 50/1 tier
+            assertEquals(before + 70, ledgerService.findMonths(5L, september, september).get(0).getPoints());
+        } finally {
+            ruleEngine.swap(loaded);
+            jdbcTemplate.update("DELETE FROM transaction WHERE id = ?", transaction.getId());
+            rebuildJob.rebuild();
+        }
+        assertTrue(ledgerService.isBuiltWith(loaded));
+    }
+
+    @Test
+    @DisplayName("Should rebuild the ledger for new rules on the job's threads rather than the reloading one")
+    void testOnRulesChanged_RebuildsInBackground() throws Exception {
+        CompiledRewardRules loaded = ruleEngine.current();
+        CompiledRewardRules changed = CompiledRewardRules.compile(
+                List.of(new CompiledRewardRules.TierDefinition(5_000, 1)), List.of());
+        ruleEngine.swap(changed);
+        try {
+            ledgerService.beginRebuild();
+            try {
+                // Would wait for the rebuild started above if it rebuilt on this thread
+                CompletableFuture.runAsync(() -> rebuildJob.onRulesChanged(new RewardRulesChangedEvent(changed)))
+                        .get(10, TimeUnit.SECONDS);
+                assertFalse(ledgerService.isBuiltWith(changed));
+            } finally {
+                ledgerService.endRebuild(null);
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!ledgerService.isBuiltWith(changed) && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(ledgerService.isBuiltWith(changed));
+        } finally {
+            ruleEngine.swap(loaded);
+            rebuildJob.rebuild();
+        }
+        assertTrue(ledgerService.isBuiltWith(loaded));
+    }
+}
@@ -0,0 +1,88 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.model.Customer;
+import com.charter.rewards.model.CustomerMonthlyReward;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerRepository;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import com.charter.rewards.rules.RewardRuleLoader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({RewardLedgerService.class, TransactionService.class, RewardRuleEngine.class, RewardRuleLoader.class,
+        TransactionArchive.class})
+@EnableConfigurationProperties(RewardProperties.class)
+class RewardLedgerServiceTest {
+
+    @Autowired
+    private RewardLedgerService ledgerService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RewardRuleEngine ruleEngine;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Should rebuild the ledger from seeded transactions and add new transactions incrementally")
+    void testRebuildAndApply() {
+        ledgerService.rebuild();
+        LocalDate june = LocalDate.of(2025, 6, 1);
+        List<CustomerMonthlyReward> before = ledgerService.findMonths(1L, june, june);
+        // 2025-06-05 250.50 -> 351, 2025-06-20 100.00 -> 50
+        assertEquals(401, before.get(0).getPoints());
+        assertEquals(2, before.get(0).getTransactionCount());
+
+        Customer customer = customerRepository.findById(1L).orElseThrow();
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(customer);
+        transaction.setDate(LocalDate.of(2025, 6, 28));
+        transaction.setAmountCents(12_000);
+        transactionService.recordTransaction(transaction);
+        entityManager.clear();
+
+        CustomerMonthlyReward after = ledgerService.findMonths(1L, june, june).get(0);
+        assertEquals(491, after.getPoints());
+        assertEquals(3, after.getTransactionCount());
+    }
+
+    @Test
+    @DisplayName("Should report the ledger built with the rules of its last committed rebuild only")
+    void testIsBuiltWith_AfterRebuild() {
+        CompiledRewardRules rules = ruleEngine.current();
+
+        ledgerService.rebuild();
+        assertFalse(ledgerService.isBuiltWith(rules));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        assertTrue(ledgerService.isBuiltWith(rules));
+
+        TestTransaction.start();
+        ledgerService.rebuild();
+        TestTransaction.end();
+        assertFalse(ledgerService.isBuiltWith(rules));
+    }
+}
@@ -0,0 +1,205 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.model.CustomerMonthlyReward;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "rewards.ledger.write-mode=async",
+        "rewards.ledger.async.consumers=2",
+        "rewards.ledger.async.queue-capacity=4",
+        "rewards.ledger.async.batch-size=3",
+        "rewards.ledger.async.flush-interval=20ms",
+        "rewards.ledger.async.enqueue-timeout=0ms",
+        "rewards.ledger.async.compact-size=5"
+})
+@AutoConfigureTestDatabase
+class RewardLedgerWriteBehindTest {
+
+    @TempDir
+    static Path logDir;
+
+    @DynamicPropertySource
+    static void logDir(DynamicPropertyRegistry registry) {
+        registry.add("rewards.ledger.async.log-dir", () -> logDir.toString());
+    }
+
+    @Autowired
+    private RewardLedgerWriteBehind writeBehind;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RewardLedgerService ledgerService;
+
+    @Autowired
+    private RewardLedgerRebuildJob rebuildJob;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should apply recorded transactions to the ledger after commit")
+    void testRecordTransactions_AppliedInBackground() {
+        LocalDate month = LocalDate.of(2026, 1, 1);
+        transactionService.recordTransactions(List.of(
+                transaction(1L, month.plusDays(3), 12_000),
+                transaction(2L, month.plusDays(4), 7_500)));
+
+        assertTrue(writeBehind.awaitIdle(Duration.ofSeconds(10)));
+        assertMonth(1L, month, 90, 1);
+        assertMonth(2L, month, 25, 1);
+        assertTrue(meterRegistry.get("rewards.ledger.applied").counter().count() >= 2);
+        assertEquals(0.0, meterRegistry.get("rewards.ledger.pending").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should catch up from the log when the queue stays full")
+    void testRecordTransactions_OverflowReadsLog() {
+        LocalDate month = LocalDate.of(2026, 2, 1);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            transactions.add(transaction(3L, month.plusDays(i % 28), 12_000));
+        }
+        transactionService.recordTransactions(transactions);
+
+        assertTrue(writeBehind.awaitIdle(Duration.ofSeconds(10)));
+        assertMonth(3L, month, 40 * 90, 40);
+        assertTrue(meterRegistry.get("rewards.ledger.overflows").counter().count() > 0);
+    }
+
+    @Test
+    @DisplayName("Should replay logged transactions from the checkpoint on restart")
+    void testStartReplaysLog() {
+        LocalDate month = LocalDate.of(2026, 3, 1);
+        writeBehind.stop();
+        transactionService.recordTransactions(List.of(
+                transaction(4L, month.plusDays(1), 12_000),
+                transaction(5L, month.plusDays(2), 12_000)));
+
+        assertTrue(ledgerService.findMonths(4L, month, month).isEmpty());
+        assertEquals(2, writeBehind.pending());
+
+        writeBehind.start();
+
+        assertTrue(writeBehind.awaitIdle(Duration.ofSeconds(10)));
+        assertMonth(4L, month, 90, 1);
+        assertMonth(5L, month, 90, 1);
+    }
+
+    @Test
+    @DisplayName("Should empty a partition log once every entry of it is applied")
+    void testConsume_CompactsAppliedLog() throws Exception {
+        LocalDate month = LocalDate.of(2026, 4, 1);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            transactions.add(transaction(1L + i % 2, month.plusDays(i), 12_000));
+        }
+        transactionService.recordTransactions(transactions);
+
+        assertTrue(writeBehind.awaitIdle(Duration.ofSeconds(10)));
+        assertMonth(1L, month, 6 * 90, 6);
+        assertMonth(2L, month, 6 * 90, 6);
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (maxLogEntries() >= 5 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(maxLogEntries() < 5);
+    }
+
+    @Test
+    @DisplayName("Should not apply transactions a ledger rebuild has already counted")
+    void testRebuild_DiscardsPendingEntries() {
+        LocalDate month = LocalDate.of(2026, 5, 1);
+        writeBehind.stop();
+        transactionService.recordTransactions(List.of(transaction(3L, month.plusDays(1), 12_000)));
+        assertEquals(1, writeBehind.pending());
+
+        rebuildJob.rebuild();
+        assertEquals(0, writeBehind.pending());
+        writeBehind.start();
+        transactionService.recordTransactions(List.of(transaction(3L, month.plusDays(2), 12_000)));
+
+        assertTrue(writeBehind.awaitIdle(Duration.ofSeconds(10)));
+        assertMonth(3L, month, 2 * 90, 2);
+    }
+
+    @Test
+    @DisplayName("Should keep the pending transactions of the ranges a resumed rebuild already completed")
+    void testResume_KeepsEntriesOfCompletedRanges() {
+        LocalDate month = LocalDate.of(2026, 6, 1);
+        rebuildJob.rebuild();
+        jdbcTemplate.update("DELETE FROM reward_rebuild_partition");
+        jdbcTemplate.update("INSERT INTO reward_rebuild_partition (range_start, range_end, completed) "
+                + "VALUES (1, 3, TRUE), (3, 6, FALSE)");
+        writeBehind.stop();
+        transactionService.recordTransactions(List.of(
+                transaction(1L, month.plusDays(1), 12_000),
+                transaction(2L, month.plusDays(1), 12_000),
+                transaction(3L, month.plusDays(1), 12_000)));
+        assertEquals(3, writeBehind.pending());
+
+        rebuildJob.resume();
+        assertEquals(2, writeBehind.pending());
+        writeBehind.start();
+
+        assertTrue(writeBehind.awaitIdle(Duration.ofSeconds(10)));
+        assertMonth(1L, month, 90, 1);
+        assertMonth(2L, month, 90, 1);
+        assertMonth(3L, month, 90, 1);
+    }
+
+    private long maxLogEntries() throws IOException {
+        long max = 0;
+        try (Stream<Path> logs = Files.list(logDir)) {
+            for (Path log : logs.toList()) {
+                max = Math.max(max, Files.size(log) / LedgerLog.RECORD_SIZE);
+            }
+        }
+        return max;
+    }
+
+    private void assertMonth(Long customerId, LocalDate month, int points, int count) {
+        List<CustomerMonthlyReward> rows = ledgerService.findMonths(customerId, month, month);
+        assertEquals(1, rows.size());
+        assertEquals(points, rows.get(0).getPoints());
+        assertEquals(count, rows.get(0).getTransactionCount());
+    }
+
+    private Transaction transaction(Long customerId, LocalDate date, long amountCents) {
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(customerRepository.findById(customerId).orElseThrow());
+        transaction.setDate(date);
+        transaction.setAmountCents(amountCents);
+        return transaction;
+    }
+}
@@ -1,25 +1,46 @@
 package com.charter.rewards.service;
 
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.TransactionsRecordedEvent;
 import com.charter.rewards.exception.CustomerNotFoundException;
+import com.charter.rewards.metrics.RewardMetrics;
 import com.charter.rewards.model.Customer;
+import com.charter.rewards.model.CustomerMonthlyReward;
+import com.charter.rewards.model.CustomerMonthlyRewardId;
 import com.charter.rewards.model.MonthlyReward;
 import com.charter.rewards.model.RewardSummary;
 import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerMonthlyPointsView;
 import com.charter.rewards.repository.CustomerRepository;
+import com.charter.rewards.repository.MonthlyPointsView;
+import com.charter.rewards.repository.TransactionAmount;
+import com.charter.rewards.repository.TransactionArchive;
 import com.charter.rewards.repository.TransactionRepository;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import com.charter.rewards.store.ColumnarTransactionStore;
+import com.charter.rewards.store.JpaTransactionReadStore;
+import com.charter.rewards.store.RewardPointsIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class RewardServiceTest {
@@ -30,7 +51,20 @@ class RewardServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
-    @InjectMocks
+    @Mock
+    private RewardLedgerService ledgerService;
+
+    @Mock
+    private TransactionArchive archive;
+
+    private RewardProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RewardMetrics metrics;
+
+    private RewardPointsIndex pointsIndex;
+
     private RewardService rewardService;
 
     private Customer customer;
@@ -40,21 +74,28 @@ class RewardServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        properties = new RewardProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new RewardMetrics(meterRegistry);
+        pointsIndex = new RewardPointsIndex(mock(JdbcTemplate.class), new RewardRuleEngine(), properties, archive);
+        rewardService = new RewardService(customerRepository, transactionRepository,
+                new JpaTransactionReadStore(transactionRepository, archive), pointsIndex, ledgerService, properties,
+                new RewardSummaryCache(properties), new RewardRuleEngine(), metrics, Runnable::run);
         transactions = new ArrayList<>();
 
         Transaction t1 = new Transaction();
         t1.setId(1L);
-        t1.setAmount(120.0);
+        t1.setAmountCents(12_000);
         t1.setDate(LocalDate.of(2025, Month.JUNE, 10));
 
         Transaction t2 = new Transaction();
         t2.setId(2L);
-        t2.setAmount(75.0);
+        t2.setAmountCents(7_500);
         t2.setDate(LocalDate.of(2025, Month.JULY, 15));
 
         Transaction t3 = new Transaction();
         t3.setId(3L);
-        t3.setAmount(40.0);
+        t3.setAmountCents(4_000);
         t3.setDate(LocalDate.of(2025, Month.AUGUST, 5));
 
         transactions.add(t1);
@@ -72,7 +113,8 @@ class RewardServiceTest {
     @DisplayName("Should return correct rewards summary for a valid customer within date range")
     void testGetRewardsForCustomerForPeriod_Success() throws CustomerNotFoundException {
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(transactionRepository.findByCustomerIdAndDateBetween(any(), any(), any())).thenReturn(transactions);
+        when(transactionRepository.findAmountsByCustomerIdAndDateBetween(any(), any(), any()))
+                .thenReturn(amounts(transactions));
 
         LocalDate start = LocalDate.of(2025, 6, 1);
         LocalDate end = LocalDate.of(2025, 8, 31);
@@ -80,29 +122,29 @@ class RewardServiceTest {
         RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L, start, end);
 
         assertNotNull(summary);
-        assertEquals(1L, summary.getCustomerId());
-        assertEquals("John Doe", summary.getName());
-        assertEquals(115, summary.getTotalRewards()); // 90 (June) + 25 (July) + 0 (August)
-        List<MonthlyReward> monthlyRewards = summary.getMonthlyRewards();
+        assertEquals(1L, summary.customerId());
+        assertEquals("John Doe", summary.name());
+        assertEquals(115, summary.totalRewards()); // 90 (June) + 25 (July) + 0 (August)
+        List<MonthlyReward> monthlyRewards = summary.monthlyRewards();
         assertEquals(3, monthlyRewards.size());
 
         MonthlyReward juneReward = monthlyRewards.stream()
-                .filter(r -> r.getMonth().equals("2025-06"))
+                .filter(r -> r.month().equals("2025-06"))
                 .findFirst()
                 .orElseThrow();
-        assertEquals(90, juneReward.getRewardPoints());
+        assertEquals(90, juneReward.rewardPoints());
 
         MonthlyReward julyReward = monthlyRewards.stream()
-                .filter(r -> r.getMonth().equals("2025-07"))
+                .filter(r -> r.month().equals("2025-07"))
                 .findFirst()
                 .orElseThrow();
-        assertEquals(25, julyReward.getRewardPoints());
+        assertEquals(25, julyReward.rewardPoints());
 
         MonthlyReward augReward = monthlyRewards.stream()
-                .filter(r -> r.getMonth().equals("2025-08"))
+                .filter(r -> r.month().equals("2025-08"))
                 .findFirst()
                 .orElseThrow();
-        assertEquals(0, augReward.getRewardPoints());
+        assertEquals(0, augReward.rewardPoints());
     }
 
     @Test
@@ -127,15 +169,16 @@ class RewardServiceTest {
         RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L, start, end);
 
         assertNotNull(summary);
-        assertEquals(0, summary.getTotalRewards());
-        assertTrue(summary.getMonthlyRewards().isEmpty());
+        assertEquals(0, summary.totalRewards());
+        assertTrue(summary.monthlyRewards().isEmpty());
     }
 
     @Test
     @DisplayName("Should correctly calculate rewards across multiple months in the period")
     void testGetRewardsForCustomerForPeriod_MultipleMonths() throws Exception {
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(transactionRepository.findByCustomerIdAndDateBetween(any(), any(), any())).thenReturn(transactions);
+        when(transactionRepository.findAmountsByCustomerIdAndDateBetween(any(), any(), any()))
+                .thenReturn(amounts(transactions));
 
         LocalDate start = LocalDate.of(2025, Month.JUNE, 1);
         LocalDate end = LocalDate.of(2025, Month.AUGUST, 31);
@@ -143,7 +186,277 @@ class RewardServiceTest {
         RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L, start, end);
 
         assertNotNull(summary);
-        assertEquals(3, summary.getMonthlyRewards().size());
-        assertTrue(summary.getTotalRewards() > 0);
+        assertEquals(3, summary.monthlyRewards().size());
+        assertTrue(summary.totalRewards() > 0);
+    }
+
+    @Test
+    @DisplayName("Should combine ledger months with partial edge months in ledger mode")
+    void testGetRewardsForCustomerForPeriod_LedgerMode() throws Exception {
+        properties.setQueryMode(RewardQueryMode.LEDGER);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(ledgerService.isBuiltWith(any())).thenReturn(true);
+        when(ledgerService.findMonths(1L, LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 1)))
+                .thenReturn(List.of(new CustomerMonthlyReward(
+                        new CustomerMonthlyRewardId(1L, LocalDate.of(2025, 7, 1)), 25, 1)));
+        when(transactionRepository.findAmountsByCustomerIdAndDateBetween(1L,
+                LocalDate.of(2025, 6, 10), LocalDate.of(2025, 6, 30)))
+                .thenReturn(amounts(List.of(transactions.get(0))));
+        when(transactionRepository.findAmountsByCustomerIdAndDateBetween(1L,
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 20)))
+                .thenReturn(amounts(List.of(transactions.get(2))));
+
+        RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L,
+                LocalDate.of(2025, 6, 10), LocalDate.of(2025, 8, 20));
+
+        assertEquals(115, summary.totalRewards());
+        assertEquals(List.of("2025-06", "2025-07", "2025-08"),
+                summary.monthlyRewards().stream().map(MonthlyReward::month).toList());
+        assertEquals(25, summary.monthlyRewards().get(1).rewardPoints());
+    }
+
+    @Test
+    @DisplayName("Should read the full months from transactions while the ledger holds points of other rules")
+    void testGetRewardsForCustomerForPeriod_LedgerModeRulesChanged() throws Exception {
+        properties.setQueryMode(RewardQueryMode.LEDGER);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(ledgerService.isBuiltWith(any())).thenReturn(false);
+        when(transactionRepository.findAmountsByCustomerIdAndDateBetween(1L,
+                LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31)))
+                .thenReturn(amounts(List.of(transactions.get(1))));
+
+        RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L,
+                LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31));
+
+        assertEquals(25, summary.totalRewards());
+        verify(ledgerService, times(0)).findMonths(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should read only raw transactions in ledger mode when no month is fully covered")
+    void testGetRewardsForCustomerForPeriod_LedgerModeWithinOneMonth() throws Exception {
+        properties.setQueryMode(RewardQueryMode.LEDGER);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(transactionRepository.findAmountsByCustomerIdAndDateBetween(eq(1L), any(), any()))
+                .thenReturn(amounts(List.of(transactions.get(1))));
+
+        RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L,
+                LocalDate.of(2025, 7, 5), LocalDate.of(2025, 7, 20));
+
+        assertEquals(25, summary.totalRewards());
+        assertEquals(1, summary.monthlyRewards().size());
+    }
+
+    @Test
+    @DisplayName("Should build the summary from database-side monthly totals in aggregate mode")
+    void testGetRewardsForCustomerForPeriod_AggregateMode() throws Exception {
+        properties.setQueryMode(RewardQueryMode.AGGREGATE);
+        MonthlyPointsView june = mock(MonthlyPointsView.class);
+        when(june.getYear()).thenReturn(2025);
+        when(june.getMonth()).thenReturn(6);
+        when(june.getPoints()).thenReturn(90L);
+        when(june.getTransactionCount()).thenReturn(2L);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(transactionRepository.sumMonthlyPoints(any(), any(), any())).thenReturn(List.of(june));
+
+        RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L,
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30));
+
+        assertEquals(90, summary.totalRewards());
+        assertEquals("2025-06", summary.monthlyRewards().get(0).month());
+        assertEquals(2.0, meterRegistry.get("rewards.request.transactions").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should summarise a batch of customers and report unknown IDs inline")
+    void testGetRewardsForCustomersForPeriod_Batch() {
+        CustomerMonthlyPointsView june = mock(CustomerMonthlyPointsView.class);
+        when(june.getCustomerId()).thenReturn(1L);
+        when(june.getYear()).thenReturn(2025);
+        when(june.getMonth()).thenReturn(6);
+        when(june.getPoints()).thenReturn(90L);
+        when(customerRepository.findAllById(any())).thenReturn(List.of(customer));
+        when(transactionRepository.sumMonthlyPointsByCustomer(any(), any(), any())).thenReturn(List.of(june));
+
+        List<RewardSummary> summaries = rewardService.getRewardsForCustomersForPeriod(List.of(99L, 1L),
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30));
+
+        assertEquals(2, summaries.size());
+        assertEquals(99L, summaries.get(0).customerId());
+        assertEquals("Customer not found. Customer Id: 99", summaries.get(0).error());
+        assertEquals(90, summaries.get(1).totalRewards());
+        assertNull(summaries.get(1).error());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated period queries from the cache until the customer gets a new transaction")
+    void testGetRewardsForCustomerForPeriod_CachedUntilInvalidated() throws Exception {
+        RewardSummaryCache cache = new RewardSummaryCache(properties);
+        rewardService = new RewardService(customerRepository, transactionRepository,
+                new JpaTransactionReadStore(transactionRepository, archive), pointsIndex, ledgerService, properties, cache,
+                new RewardRuleEngine(), metrics, Runnable::run);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(transactionRepository.findAmountsByCustomerIdAndDateBetween(any(), any(), any()))
+                .thenReturn(amounts(transactions));
+        LocalDate start = LocalDate.of(2025, 6, 1);
+        LocalDate end = LocalDate.of(2025, 8, 31);
+
+        RewardSummary first = rewardService.getRewardsForCustomerForPeriod(1L, start, end);
+        RewardSummary second = rewardService.getRewardsForCustomerForPeriod(1L, start, end);
+
+        assertSame(first, second);
+        assertEquals(1, cache.stats().hitCount());
+        verify(customerRepository, times(1)).findById(1L);
+
+        cache.invalidateCustomers(Set.of(1L));
+        rewardService.getRewardsForCustomerForPeriod(1L, start, end);
+        verify(customerRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should look up the customer concurrently and still report a missing customer")
+    void testGetRewardsForCustomerForPeriod_ConcurrentLookups() throws Exception {
+        properties.getExecution().setConcurrentLookups(true);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+        when(transactionRepository.findAmountsByCustomerIdAndDateBetween(any(), any(), any()))
+                .thenReturn(amounts(transactions));
+        LocalDate start = LocalDate.of(2025, 6, 1);
+        LocalDate end = LocalDate.of(2025, 8, 31);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            rewardService = new RewardService(customerRepository, transactionRepository,
+                    new JpaTransactionReadStore(transactionRepository, archive), pointsIndex, ledgerService, properties,
+                    new RewardSummaryCache(properties), new RewardRuleEngine(), metrics, executor);
+
+            assertEquals(115, rewardService.getRewardsForCustomerForPeriod(1L, start, end).totalRewards());
+            assertThrows(CustomerNotFoundException.class,
+                    () -> rewardService.getRewardsForCustomerForPeriod(99L, start, end));
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip the transaction query once the concurrent lookup found no customer")
+    void testGetRewardsForCustomerForPeriod_ConcurrentLookupMissing_SkipsTransactions() {
+        properties.getExecution().setConcurrentLookups(true);
+        // Runs the lookup on the calling thread, so it has completed before the transactions are read
+        rewardService = new RewardService(customerRepository, transactionRepository,
+                new JpaTransactionReadStore(transactionRepository, archive), pointsIndex, ledgerService, properties,
+                new RewardSummaryCache(properties), new RewardRuleEngine(), metrics, Runnable::run);
+        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(CustomerNotFoundException.class, () -> rewardService.getRewardsForCustomerForPeriod(99L,
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 8, 31)));
+        verify(transactionRepository, times(0)).findAmountsByCustomerIdAndDateBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should apply a city promotion from the rule engine and wait for the customer's city")
+    void testGetRewardsForCustomerForPeriod_CityPromotion() throws Exception {
+        properties.getExecution().setConcurrentLookups(true);
+        CompiledRewardRules rules = CompiledRewardRules.compile(
+                List.of(new CompiledRewardRules.TierDefinition(5_000, 1), new CompiledRewardRules.TierDefinition(10_000, 2)),
+                List.of(new CompiledRewardRules.PromotionDefinition("Summer", "New York",
+                        LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30), 150)));
+        rewardService = new RewardService(customerRepository, transactionRepository,
+                new JpaTransactionReadStore(transactionRepository, archive), pointsIndex, ledgerService, properties,
+                new RewardSummaryCache(properties), new RewardRuleEngine(rules), metrics, Runnable::run);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(transactionRepository.findAmountsByCustomerIdAndDateBetween(any(), any(), any()))
+                .thenReturn(amounts(transactions));
+
+        RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L,
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 8, 31));
+
+        // June: 90 points * 150% = 135, July is outside the promotion window
+        assertEquals(135, summary.monthlyRewards().get(0).rewardPoints());
+        assertEquals(160, summary.totalRewards());
+    }
+
+    @Test
+    @DisplayName("Should time every stage once per computed summary and skip cache hits")
+    void testGetRewardsForCustomerForPeriod_RecordsStageMetrics() throws Exception {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(transactionRepository.findAmountsByCustomerIdAndDateBetween(any(), any(), any()))
+                .thenReturn(amounts(transactions));
+        LocalDate start = LocalDate.of(2025, 6, 1);
+        LocalDate end = LocalDate.of(2025, 8, 31);
+
+        rewardService.getRewardsForCustomerForPeriod(1L, start, end);
+        rewardService.getRewardsForCustomerForPeriod(1L, start, end);
+
+        for (String stage : List.of("customer_lookup", "transaction_fetch", "aggregation")) {
+            assertEquals(1, meterRegistry.get("rewards.stage.duration").tag("stage", stage).timer().count(), stage);
+        }
+        assertEquals(1, meterRegistry.get("rewards.request.transactions").summary().count());
+        assertEquals(3.0, meterRegistry.get("rewards.request.transactions").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should compute the same summary from the in-memory columnar store")
+    void testGetRewardsForCustomerForPeriod_ColumnarStore() throws Exception {
+        useColumnarStore();
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+
+        RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L,
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 8, 31));
+
+        assertEquals(115, summary.totalRewards());
+        assertEquals(List.of(90, 25, 0),
+                summary.monthlyRewards().stream().map(MonthlyReward::rewardPoints).toList());
+        assertEquals(List.of("2025-06", "2025-07", "2025-08"),
+                summary.monthlyRewards().stream().map(MonthlyReward::month).toList());
+        verify(transactionRepository, times(0)).findAmountsByCustomerIdAndDateBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should read the partial edge months from the columnar store in ledger mode")
+    void testGetRewardsForCustomerForPeriod_ColumnarStoreLedgerMode() throws Exception {
+        useColumnarStore();
+        properties.setQueryMode(RewardQueryMode.LEDGER);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(ledgerService.isBuiltWith(any())).thenReturn(true);
+        when(ledgerService.findMonths(1L, LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 1)))
+                .thenReturn(List.of(new CustomerMonthlyReward(
+                        new CustomerMonthlyRewardId(1L, LocalDate.of(2025, 7, 1)), 25, 1)));
+
+        RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L,
+                LocalDate.of(2025, 6, 11), LocalDate.of(2025, 8, 5));
+
+        assertEquals(25, summary.totalRewards());
+        assertEquals(List.of("2025-07", "2025-08"),
+                summary.monthlyRewards().stream().map(MonthlyReward::month).toList());
+    }
+
+    @Test
+    @DisplayName("Should read monthly totals from the prefix-sum index in prefix-sum mode")
+    void testGetRewardsForCustomerForPeriod_PrefixSumMode() throws Exception {
+        properties.setQueryMode(RewardQueryMode.PREFIX_SUM);
+        pointsIndex.load();
+        transactions.forEach(t -> t.setCustomer(customer));
+        pointsIndex.onTransactionsRecorded(new TransactionsRecordedEvent(transactions));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+
+        RewardSummary summary = rewardService.getRewardsForCustomerForPeriod(1L,
+                LocalDate.of(2025, 6, 10), LocalDate.of(2025, 8, 5));
+
+        assertEquals(115, summary.totalRewards());
+        assertEquals(List.of(90, 25, 0),
+                summary.monthlyRewards().stream().map(MonthlyReward::rewardPoints).toList());
+        assertEquals(3.0, meterRegistry.get("rewards.request.transactions").summary().totalAmount());
+        verify(transactionRepository, times(0)).findAmountsByCustomerIdAndDateBetween(any(), any(), any());
+    }
+
+    private void useColumnarStore() {
+        ColumnarTransactionStore store = new ColumnarTransactionStore(mock(JdbcTemplate.class), archive);
+        transactions.forEach(t -> t.setCustomer(customer));
+        store.onTransactionsRecorded(new TransactionsRecordedEvent(transactions));
+        rewardService = new RewardService(customerRepository, transactionRepository, store, pointsIndex,
+                ledgerService, properties, new RewardSummaryCache(properties), new RewardRuleEngine(), metrics,
+                Runnable::run);
+    }
+
+    private static List<TransactionAmount> amounts(List<Transaction> transactions) {
+        return transactions.stream().map(t -> new TransactionAmount(t.getDate(), t.getAmountCents())).toList();
     }
 }
@@ -0,0 +1,85 @@
+package com.charter.rewards.service;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.model.RewardSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RewardSummaryCacheTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 6, 1);
+    private static final LocalDate END = LocalDate.of(2025, 8, 31);
+
+    private final RewardSummaryCache cache = new RewardSummaryCache(new RewardProperties());
+
+    @Test
+    @DisplayName("Should not cache a summary computed before the customer's data changed")
+    void testPut_StaleVersion_NotCached() {
+        long version = cache.version(1L);
+        cache.invalidateCustomers(Set.of(1L));
+
+        cache.put(1L, START, END, summary(1L), version);
+
+        assertNull(cache.get(1L, START, END));
+        cache.put(1L, START, END, summary(1L), cache.version(1L));
+        assertEquals(1L, cache.get(1L, START, END).customerId());
+    }
+
+    @Test
+    @DisplayName("Should not cache a summary computed before the rules changed")
+    void testPut_StaleGeneration_NotCached() {
+        long version = cache.version(1L);
+        cache.invalidateAll();
+
+        cache.put(1L, START, END, summary(1L), version);
+
+        assertNull(cache.get(1L, START, END));
+    }
+
+    @Test
+    @DisplayName("Should not cache a summary a lagging replica may have computed before a change")
+    void testPut_WithinReplicaLag_NotCached() throws Exception {
+        RewardProperties properties = new RewardProperties();
+        properties.getReplica().setEnabled(true);
+        properties.getReplica().setMaxLag(Duration.ofMillis(200));
+        RewardSummaryCache replicaCache = new RewardSummaryCache(properties);
+        replicaCache.put(2L, START, END, summary(2L), replicaCache.version(2L));
+        replicaCache.invalidateCustomers(Set.of(1L));
+
+        replicaCache.put(1L, START, END, summary(1L), replicaCache.version(1L));
+
+        assertNull(replicaCache.get(1L, START, END));
+        assertEquals(2L, replicaCache.get(2L, START, END).customerId());
+        Thread.sleep(250);
+        replicaCache.put(1L, START, END, summary(1L), replicaCache.version(1L));
+        assertEquals(1L, replicaCache.get(1L, START, END).customerId());
+    }
+
+    @Test
+    @DisplayName("Should drop every period of an invalidated customer and keep the others")
+    void testInvalidateCustomers_DropsOnlyTheirEntries() {
+        RewardSummary other = summary(2L);
+        cache.put(1L, START, END, summary(1L), cache.version(1L));
+        cache.put(1L, START, END.plusDays(1), summary(1L), cache.version(1L));
+        cache.put(2L, START, END, other, cache.version(2L));
+
+        cache.invalidateCustomers(Set.of(1L));
+
+        assertNull(cache.get(1L, START, END));
+        assertNull(cache.get(1L, START, END.plusDays(1)));
+        assertSame(other, cache.get(2L, START, END));
+    }
+
+    private static RewardSummary summary(Long customerId) {
+        return new RewardSummary(customerId, "Customer", "9999999999", "Chennai", 0, List.of());
+    }
+}
@@ -0,0 +1,93 @@
+package com.charter.rewards.store;
+
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.model.Customer;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.TransactionAmount;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.repository.TransactionRepository;
+import com.charter.rewards.rules.RewardRuleEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "rewards.read-store=columnar")
+@Import({ColumnarTransactionStore.class, RewardRuleEngine.class, TransactionArchive.class})
+class ColumnarTransactionStoreTest {
+
+    @Autowired
+    private ColumnarTransactionStore store;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @AfterEach
+    void reload() {
+        store.load();
+    }
+
+    @Test
+    @DisplayName("Should load every transaction and return the same rows as the database for a period")
+    void testFindByCustomerIdAndDateBetween_MatchesDatabase() {
+        assertEquals(transactionRepository.count(), store.size());
+        for (long customerId = 1; customerId <= 5; customerId++) {
+            LocalDate start = LocalDate.of(2025, 6, 5);
+            LocalDate end = LocalDate.of(2025, 7, 31);
+            List<TransactionAmount> expected = new ArrayList<>(
+                    transactionRepository.findAmountsByCustomerIdAndDateBetween(customerId, start, end));
+            expected.sort((a, b) -> a.date().compareTo(b.date()));
+
+            assertEquals(expected, amounts(store.findByCustomerIdAndDateBetween(customerId, start, end)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge recorded transactions in date order, also for customers it did not load")
+    void testOnTransactionsRecorded_MergesInDateOrder() {
+        store.onTransactionsRecorded(new TransactionsRecordedEvent(List.of(
+                transaction(1L, LocalDate.of(2025, 6, 25), 1_234),
+                transaction(1L, LocalDate.of(2025, 6, 1), 99),
+                transaction(42L, LocalDate.of(2025, 6, 2), 500))));
+
+        List<TransactionAmount> june = amounts(store.findByCustomerIdAndDateBetween(1L,
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30)));
+
+        assertEquals(List.of(new TransactionAmount(LocalDate.of(2025, 6, 1), 99),
+                new TransactionAmount(LocalDate.of(2025, 6, 5), 25_050),
+                new TransactionAmount(LocalDate.of(2025, 6, 20), 10_000),
+                new TransactionAmount(LocalDate.of(2025, 6, 25), 1_234)), june);
+        assertEquals(1, store.findByCustomerIdAndDateBetween(42L,
+                LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 2)).size());
+        assertEquals(0, store.findByCustomerIdAndDateBetween(43L,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)).size());
+        assertEquals(0, store.findByCustomerIdAndDateBetween(1L,
+                LocalDate.of(2025, 6, 21), LocalDate.of(2025, 6, 24)).size());
+    }
+
+    private static Transaction transaction(Long customerId, LocalDate date, long amountCents) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(customer);
+        transaction.setDate(date);
+        transaction.setAmountCents(amountCents);
+        return transaction;
+    }
+
+    private static List<TransactionAmount> amounts(TransactionSlice slice) {
+        List<TransactionAmount> amounts = new ArrayList<>();
+        for (int i = 0; i < slice.size(); i++) {
+            amounts.add(new TransactionAmount(LocalDate.ofEpochDay(slice.epochDay(i)), slice.amountCents(i)));
+        }
+        return amounts;
+    }
+}
@@ -0,0 +1,175 @@
+package com.charter.rewards.store;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.RewardRulesChangedEvent;
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.event.TransactionsRecordingEvent;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerRepository;
+import com.charter.rewards.repository.MonthlyPointsView;
+import com.charter.rewards.repository.TransactionAmount;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.repository.TransactionRepository;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = "rewards.query-mode=prefix_sum")
+@EnableConfigurationProperties(RewardProperties.class)
+@Import({RewardPointsIndex.class, RewardRuleEngine.class, TransactionArchive.class})
+class RewardPointsIndexTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 5, 25);
+    private static final LocalDate LAST_DAY = LocalDate.of(2025, 11, 5);
+
+    @Autowired
+    private RewardPointsIndex index;
+
+    @Autowired
+    private RewardRuleEngine ruleEngine;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void reload() {
+        index.load();
+    }
+
+    @AfterEach
+    void restoreRules() {
+        ruleEngine.swap(CompiledRewardRules.defaults());
+    }
+
+    @Test
+    @DisplayName("Should match points computed transaction by transaction for every period")
+    void testMonthlyPoints_MatchTransactionPoints() {
+        assertMatchesTransactions();
+    }
+
+    @Test
+    @DisplayName("Should include recorded transactions, out of order and on days already indexed")
+    void testOnTransactionsRecorded_UpdatesRunningTotals() {
+        List<Transaction> recorded = transactionRepository.saveAll(List.of(
+                transaction(1L, LocalDate.of(2025, 7, 30), 20_000),
+                transaction(1L, LocalDate.of(2025, 6, 5), 7_500),
+                transaction(1L, LocalDate.of(2025, 6, 1), 4_000),
+                transaction(2L, LocalDate.of(2025, 9, 1), 10_100)));
+        index.onTransactionsRecorded(new TransactionsRecordedEvent(recorded));
+
+        assertMatchesTransactions();
+        // 250.50 -> 351, 100.00 -> 50, 75.00 -> 25, 40.00 -> 0
+        assertEquals(426, index.totalPoints(1L, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30)));
+    }
+
+    @Test
+    @DisplayName("Should not rebuild the index while a recorded transaction is not yet added")
+    void testLoad_WaitsForRecordingTransactions() throws Exception {
+        eventPublisher.publishEvent(new TransactionsRecordingEvent());
+        List<Transaction> recorded = transactionRepository.saveAll(List.of(
+                transaction(1L, LocalDate.of(2025, 7, 30), 20_000)));
+        eventPublisher.publishEvent(new TransactionsRecordedEvent(recorded));
+
+        CompletableFuture<Long> load = CompletableFuture.supplyAsync(index::load);
+        assertThrows(TimeoutException.class, () -> load.get(200, TimeUnit.MILLISECONDS));
+
+        TestTransaction.end();
+        load.get(10, TimeUnit.SECONDS);
+        assertMatchesTransactions();
+    }
+
+    @Test
+    @DisplayName("Should recompute running totals when the rules change")
+    void testOnRulesChanged_RebuildsWithNewRules() {
+        CompiledRewardRules rules = CompiledRewardRules.compile(
+                List.of(new CompiledRewardRules.TierDefinition(10_000, 3),
+                        new CompiledRewardRules.TierDefinition(0, 1)),
+                List.of(new CompiledRewardRules.PromotionDefinition("Chennai July", "Chennai",
+                        LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31), 200)));
+        ruleEngine.swap(rules);
+        index.onRulesChanged(new RewardRulesChangedEvent(rules));
+
+        assertMatchesTransactions();
+    }
+
+    @Test
+    @DisplayName("Should refuse queries before the index is loaded")
+    void testMonthlyPoints_NotLoaded() {
+        RewardPointsIndex unloaded = new RewardPointsIndex(null, ruleEngine, new RewardProperties(), null);
+
+        assertThrows(IllegalStateException.class,
+                () -> unloaded.monthlyPoints(1L, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30)));
+    }
+
+    /**
+     * Compares the index with the transactions read from the database for every period starting and
+     * ending on a day of a grid covering the data, including periods that split months.
+     */
+    private void assertMatchesTransactions() {
+        CompiledRewardRules rules = ruleEngine.current();
+        for (long customerId = 1; customerId <= 6; customerId++) {
+            String city = customerRepository.findById(customerId).map(c -> c.getCity()).orElse(null);
+            for (LocalDate start = FIRST_DAY; start.isBefore(LAST_DAY); start = start.plusDays(9)) {
+                for (LocalDate end = start; end.isBefore(LAST_DAY); end = end.plusDays(13)) {
+                    Map<YearMonth, long[]> expected = new TreeMap<>();
+                    long total = 0;
+                    for (TransactionAmount t
+                            : transactionRepository.findAmountsByCustomerIdAndDateBetween(customerId, start, end)) {
+                        long[] month = expected.computeIfAbsent(YearMonth.from(t.date()), m -> new long[2]);
+                        int points = rules.points(t.amountCents(), t.date(), city);
+                        month[0] += points;
+                        month[1]++;
+                        total += points;
+                    }
+                    List<String> actual = new ArrayList<>();
+                    for (MonthlyPointsView row : index.monthlyPoints(customerId, start, end)) {
+                        actual.add(YearMonth.of(row.getYear(), row.getMonth()) + "="
+                                + row.getPoints() + "/" + row.getTransactionCount());
+                    }
+                    List<String> wanted = new ArrayList<>();
+                    expected.forEach((month, sums) -> wanted.add(month + "=" + sums[0] + "/" + sums[1]));
+
+                    String period = customerId + " " + start + ".." + end;
+                    assertEquals(wanted, actual, period);
+                    assertEquals(total, index.totalPoints(customerId, start, end), period);
+                }
+            }
+        }
+    }
+
+    private Transaction transaction(Long customerId, LocalDate date, long amountCents) {
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(customerRepository.getReferenceById(customerId));
+        transaction.setDate(date);
+        transaction.setAmountCents(amountCents);
+        return transaction;
+    }
+}
@@ -0,0 +1,227 @@
+package com.charter.rewards.store;
+
+import com.charter.rewards.config.RewardProperties;
+import com.charter.rewards.event.RewardRulesChangedEvent;
+import com.charter.rewards.event.TransactionsRecordedEvent;
+import com.charter.rewards.event.TransactionsRecordingEvent;
+import com.charter.rewards.model.Transaction;
+import com.charter.rewards.repository.CustomerRepository;
+import com.charter.rewards.repository.TransactionAmount;
+import com.charter.rewards.repository.TransactionArchive;
+import com.charter.rewards.repository.TransactionRepository;
+import com.charter.rewards.rules.CompiledRewardRules;
+import com.charter.rewards.rules.RewardRuleEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@EnableConfigurationProperties(RewardProperties.class)
+@Import({RollingPointsWindow.class, RewardRuleEngine.class, TransactionArchive.class,
+        RollingPointsWindowTest.ClockConfig.class})
+class RollingPointsWindowTest {
+
+    private static final int[] WINDOWS = {1, 7, 30, 90};
+
+    @Autowired
+    private RollingPointsWindow window;
+
+    @Autowired
+    private MutableClock clock;
+
+    @Autowired
+    private RewardRuleEngine ruleEngine;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @AfterEach
+    void restoreRules() {
+        ruleEngine.swap(CompiledRewardRules.defaults());
+    }
+
+    @Test
+    @DisplayName("Should match the transactions of every window as the days roll over")
+    void testPoints_MatchTransactionsAsDaysAdvance() {
+        // Loaded before the data starts, so every transaction is held back until its day comes
+        clock.set(LocalDate.of(2025, 5, 20));
+        window.load();
+
+        for (LocalDate today = LocalDate.of(2025, 5, 20); today.isBefore(LocalDate.of(2026, 3, 1));
+             today = today.plusDays(6)) {
+            clock.set(today);
+            assertMatchesTransactions(today);
+        }
+    }
+
+    @Test
+    @DisplayName("Should start every window from the transactions loaded on the current day")
+    void testLoad_MatchTransactions() {
+        clock.set(LocalDate.of(2025, 10, 20));
+        window.load();
+
+        assertMatchesTransactions(LocalDate.of(2025, 10, 20));
+        // More than a whole buffer later nothing is left
+        clock.set(LocalDate.of(2026, 6, 1));
+        assertMatchesTransactions(LocalDate.of(2026, 6, 1));
+    }
+
+    @Test
+    @DisplayName("Should include recorded transactions dated today, earlier in the window and later")
+    void testOnTransactionsRecorded_UpdatesWindows() {
+        clock.set(LocalDate.of(2025, 10, 31));
+        window.load();
+        List<Transaction> recorded = transactionRepository.saveAll(List.of(
+                transaction(1L, LocalDate.of(2025, 10, 31), 12_000),
+                transaction(1L, LocalDate.of(2025, 10, 2), 7_500),
+                transaction(2L, LocalDate.of(2025, 11, 3), 20_000),
+                transaction(3L, LocalDate.of(2025, 1, 15), 20_000),
+                transaction(5L, LocalDate.of(2025, 10, 30), 10_100)));
+        long before = window.points(1L, 30).points();
+
+        window.onTransactionsRecorded(new TransactionsRecordedEvent(recorded));
+
+        // 120.00 -> 90, 75.00 -> 25
+        assertEquals(before + 115, window.points(1L, 30).points());
+        assertMatchesTransactions(LocalDate.of(2025, 10, 31));
+        clock.set(LocalDate.of(2025, 11, 4));
+        assertMatchesTransactions(LocalDate.of(2025, 11, 4));
+    }
+
+    @Test
+    @DisplayName("Should not rebuild the windows while a recorded transaction is not yet added")
+    void testLoad_WaitsForRecordingTransactions() throws Exception {
+        clock.set(LocalDate.of(2025, 10, 31));
+        window.load();
+        eventPublisher.publishEvent(new TransactionsRecordingEvent());
+        List<Transaction> recorded = transactionRepository.saveAll(List.of(
+                transaction(1L, LocalDate.of(2025, 10, 31), 12_000)));
+        eventPublisher.publishEvent(new TransactionsRecordedEvent(recorded));
+
+        CompletableFuture<Long> load = CompletableFuture.supplyAsync(window::load);
+        assertThrows(TimeoutException.class, () -> load.get(200, TimeUnit.MILLISECONDS));
+
+        TestTransaction.end();
+        load.get(10, TimeUnit.SECONDS);
+        assertMatchesTransactions(LocalDate.of(2025, 10, 31));
+    }
+
+    @Test
+    @DisplayName("Should recompute every window when the rules change")
+    void testOnRulesChanged_RebuildsWithNewRules() {
+        clock.set(LocalDate.of(2025, 9, 15));
+        CompiledRewardRules rules = CompiledRewardRules.compile(
+                List.of(new CompiledRewardRules.TierDefinition(10_000, 3),
+                        new CompiledRewardRules.TierDefinition(0, 1)),
+                List.of(new CompiledRewardRules.PromotionDefinition("Chennai July", "Chennai",
+                        LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31), 200)));
+        ruleEngine.swap(rules);
+        window.onRulesChanged(new RewardRulesChangedEvent(rules));
+
+        assertMatchesTransactions(LocalDate.of(2025, 9, 15));
+    }
+
+    @Test
+    @DisplayName("Should report the days of the window and refuse windows longer than the buffers")
+    void testPoints_WindowBounds() {
+        clock.set(LocalDate.of(2025, 10, 31));
+
+        assertEquals(LocalDate.of(2025, 10, 2), window.points(1L, 30).from());
+        assertEquals(LocalDate.of(2025, 10, 31), window.points(1L, 30).to());
+        assertEquals(0, window.points(999L, 30).points());
+        assertThrows(IllegalArgumentException.class, () -> window.points(1L, 0));
+        assertThrows(IllegalArgumentException.class, () -> window.points(1L, 91));
+    }
+
+    /**
+     * Compares every window ending on the given day with the transactions read from the database.
+     */
+    private void assertMatchesTransactions(LocalDate today) {
+        CompiledRewardRules rules = ruleEngine.current();
+        for (long customerId = 1; customerId <= 7; customerId++) {
+            String city = customerRepository.findById(customerId).map(c -> c.getCity()).orElse(null);
+            for (int days : WINDOWS) {
+                long expected = 0;
+                for (TransactionAmount t : transactionRepository.findAmountsByCustomerIdAndDateBetween(
+                        customerId, today.minusDays(days - 1), today)) {
+                    expected += rules.points(t.amountCents(), t.date(), city);
+                }
+                assertEquals(expected, window.points(customerId, days).points(),
+                        customerId + " " + days + " days to " + today);
+            }
+        }
+    }
+
+    private Transaction transaction(Long customerId, LocalDate date, long amountCents) {
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(customerRepository.getReferenceById(customerId));
+        transaction.setDate(date);
+        transaction.setAmountCents(amountCents);
+        return transaction;
+    }
+
+    /**
+     * Clock standing at the start of a day chosen by the test.
+     */
+    static class MutableClock extends Clock {
+
+        private volatile Instant instant = Instant.EPOCH;
+
+        void set(LocalDate today) {
+            instant = today.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @TestConfiguration
+    static class ClockConfig {
+
+        @Bean
+        @Primary
+        MutableClock testClock() {
+            return new MutableClock();
+        }
+    }
+}